@@ -5,6 +5,7 @@ plugins {
 	id("org.liquibase.gradle") version "2.2.0"
 	id("com.google.protobuf") version "0.9.4"
 	id("jacoco")
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 liquibase {
@@ -36,6 +37,10 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-data-jdbc")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("org.springframework.boot:spring-boot-starter-aop")
+	implementation("org.hibernate.orm:hibernate-micrometer")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	compileOnly("org.projectlombok:lombok")
     annotationProcessor("org.projectlombok:lombok")
 	implementation("org.liquibase:liquibase-core")
@@ -73,6 +78,9 @@ dependencies {
 	testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
 	testImplementation("org.mockito:mockito-core")
 	testImplementation("com.h2database:h2")
+	testImplementation("org.springframework.boot:spring-boot-testcontainers")
+	testImplementation("org.testcontainers:junit-jupiter")
+	testImplementation("org.testcontainers:postgresql")
 }
 
 tasks.withType<Test> {
@@ -138,6 +146,15 @@ afterEvaluate {
 	}
 }
 
+jmh {
+	jmhVersion.set("1.37")
+	warmupIterations.set(2)
+	iterations.set(5)
+	fork.set(1)
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
 tasks.register("coverage") {
 	group = "verification"
 	description = "Runs tests and generates JaCoCo coverage report"
@@ -0,0 +1,38 @@
+package com.predman.content.auth;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        jwtTokenProvider = new JwtTokenProvider(new ByteArrayResource(
+                "JWT_KEY:benchmark-secret-key-that-is-long-enough-for-hs256".getBytes(StandardCharsets.UTF_8)));
+        token = jwtTokenProvider.generateToken("user@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken("user@example.com");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtTokenProvider.extractEmail(token);
+    }
+}
@@ -0,0 +1,111 @@
+package com.predman.content.common;
+
+import com.predman.content.dto.task.TaskDto;
+import com.predman.content.entity.Project;
+import com.predman.content.entity.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic projects for the benchmarks. Everything is generated from a fixed seed so runs
+ * on different commits measure the same shapes.
+ */
+public final class BenchmarkFixtures {
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Random random() {
+        return new Random(42);
+    }
+
+    public static UUID[] ids(int count, Random random) {
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        return ids;
+    }
+
+    /**
+     * Board rows of one project split evenly between the three columns, each column linked in
+     * id order, and returned shuffled like an unordered database result.
+     */
+    public static List<TaskDto> linkedBoard(int taskCount, Random random) {
+        List<TaskDto> tasks = board(taskCount, random);
+        Collections.shuffle(tasks, random);
+        return tasks;
+    }
+
+    /** The same board in column order, as the rank query returns it. */
+    public static List<TaskDto> rankedBoard(int taskCount, Random random) {
+        return board(taskCount, random);
+    }
+
+    private static List<TaskDto> board(int taskCount, Random random) {
+        UUID projectId = new UUID(random.nextLong(), random.nextLong());
+        UUID[] ids = ids(taskCount, random);
+        List<TaskDto> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            int next = i + STATUSES.length;
+            tasks.add(TaskDto.builder()
+                    .id(ids[i])
+                    .projectId(projectId)
+                    .name("Task " + i)
+                    .description("Synthetic task " + i)
+                    .storyPoints((double) (1 + random.nextInt(13)))
+                    .status(STATUSES[i % STATUSES.length])
+                    .next(next < taskCount ? ids[next] : null)
+                    .build());
+        }
+        return tasks;
+    }
+
+    public static List<Task> taskEntities(int taskCount, Random random) {
+        Project project = Project.builder().id(new UUID(random.nextLong(), random.nextLong())).build();
+        UUID[] ids = ids(taskCount, random);
+        List<Task> tasks = new ArrayList<>(taskCount);
+        Task next = null;
+        for (int i = taskCount - 1; i >= 0; i--) {
+            next = Task.builder()
+                    .id(ids[i])
+                    .project(project)
+                    .name("Task " + i)
+                    .description("Synthetic task " + i)
+                    .storyPoints((double) (1 + random.nextInt(13)))
+                    .status(STATUSES[i % STATUSES.length])
+                    .next(next)
+                    .build();
+            tasks.add(next);
+        }
+        return tasks;
+    }
+
+    public static List<TaskGraph.Node> graphNodes(UUID[] ids, Random random) {
+        List<TaskGraph.Node> nodes = new ArrayList<>(ids.length);
+        for (UUID id : ids) {
+            nodes.add(new TaskGraph.Node(id, 1 + random.nextInt(13), random.nextInt(4) != 0));
+        }
+        return nodes;
+    }
+
+    /**
+     * About {@code density} dependencies per task. Edges only point from lower to higher indexes,
+     * so the graph is acyclic, and mostly span short distances, so chains get long.
+     */
+    public static List<TaskGraph.Edge> graphEdges(UUID[] ids, double density, Random random) {
+        int edgeCount = (int) (ids.length * density);
+        List<TaskGraph.Edge> edges = new ArrayList<>(edgeCount);
+        for (int i = 0; i < edgeCount && ids.length > 1; i++) {
+            int task = 1 + random.nextInt(ids.length - 1);
+            int dependency = Math.max(0, task - 1 - random.nextInt(Math.min(task, 64)));
+            edges.add(new TaskGraph.Edge(ids[task], ids[dependency]));
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,62 @@
+package com.predman.content.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Critical path computation: the full rebuild used by the statistics re-evaluation and the
+ * incremental updates applied on task and dependency changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskGraphBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int tasks;
+
+    /** Average number of dependencies per task. */
+    @Param({"0.5", "2", "8"})
+    public double density;
+
+    private UUID[] ids;
+    private List<TaskGraph.Node> nodes;
+    private List<TaskGraph.Edge> edges;
+    private TaskGraph graph;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = BenchmarkFixtures.random();
+        ids = BenchmarkFixtures.ids(tasks, random);
+        nodes = BenchmarkFixtures.graphNodes(ids, random);
+        edges = BenchmarkFixtures.graphEdges(ids, density, random);
+        graph = TaskGraph.of(nodes, edges);
+    }
+
+    @Benchmark
+    public double buildGraph() {
+        return TaskGraph.of(nodes, edges).getCriticalPathLength();
+    }
+
+    @Benchmark
+    public double updateStoryPoints() {
+        graph.putTask(ids[random.nextInt(ids.length)], 1 + random.nextInt(13), true);
+        return graph.getCriticalPathLength();
+    }
+
+    @Benchmark
+    public double toggleDependency() {
+        TaskGraph.Edge edge = edges.isEmpty() ? null : edges.get(random.nextInt(edges.size()));
+        if (edge == null) {
+            return graph.getCriticalPathLength();
+        }
+        if (!graph.removeDependency(edge.taskId(), edge.dependencyId())) {
+            graph.addDependency(edge.taskId(), edge.dependencyId());
+        }
+        return graph.getCriticalPathLength();
+    }
+}
@@ -0,0 +1,31 @@
+package com.predman.content.mapper;
+
+import com.predman.content.common.BenchmarkFixtures;
+import com.predman.content.dto.task.TaskDto;
+import com.predman.content.entity.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskMapperBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int tasks;
+
+    private List<Task> entities;
+    private TaskMapper taskMapper;
+
+    @Setup
+    public void setUp() {
+        entities = BenchmarkFixtures.taskEntities(tasks, BenchmarkFixtures.random());
+        taskMapper = new TaskMapper(null);
+    }
+
+    @Benchmark
+    public List<TaskDto> convertToTaskDto() {
+        return entities.stream().map(taskMapper::convertToTaskDto).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.predman.content.service;
+
+import com.predman.content.common.BenchmarkFixtures;
+import com.predman.content.common.TaskOrdering;
+import com.predman.content.dto.task.SortedTasksDto;
+import com.predman.content.dto.task.TaskDto;
+import com.predman.content.repository.TaskRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the three board columns from the flat board rows, as {@code GET /tasks/sorted} does,
+ * with the repository replaced by an in-memory stub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskBoardBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int tasks;
+
+    @Param({"LINKED", "RANK"})
+    public TaskOrdering ordering;
+
+    private TaskServiceImpl taskService;
+    private UUID projectId;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        List<TaskDto> board = ordering == TaskOrdering.RANK
+                ? BenchmarkFixtures.rankedBoard(tasks, BenchmarkFixtures.random())
+                : BenchmarkFixtures.linkedBoard(tasks, BenchmarkFixtures.random());
+        projectId = board.getFirst().projectId();
+        taskService = new TaskServiceImpl(repositoryReturning(board), null, null, null, null, null, null, null);
+        Field taskOrdering = TaskServiceImpl.class.getDeclaredField("taskOrdering");
+        taskOrdering.setAccessible(true);
+        taskOrdering.set(taskService, ordering);
+    }
+
+    @Benchmark
+    public SortedTasksDto sortBoard() {
+        return taskService.getSortedAllByProjectId(projectId);
+    }
+
+    private static TaskRepository repositoryReturning(List<TaskDto> board) {
+        return (TaskRepository) Proxy.newProxyInstance(TaskRepository.class.getClassLoader(),
+                new Class<?>[] {TaskRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findBoardTasksByProjectId")) {
+                        return board;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
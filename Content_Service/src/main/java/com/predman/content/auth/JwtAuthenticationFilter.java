@@ -24,11 +24,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
 
+    private final PrincipalCache principalCache;
+
     JwtAuthenticationFilter(@Lazy final UserDetailsService userDetailsService,
-                            JwtTokenProvider jwtTokenProvider)
+                            JwtTokenProvider jwtTokenProvider,
+                            PrincipalCache principalCache)
     {
         this.userDetailsService = userDetailsService;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -42,7 +46,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
             String email = jwtTokenProvider.extractEmail(token);
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            UserDetails userDetails = principalCache.get(email, subject ->
+                    (CustomUserDetails) userDetailsService.loadUserByUsername(subject));
 
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
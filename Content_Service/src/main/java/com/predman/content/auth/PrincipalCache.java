@@ -0,0 +1,106 @@
+package com.predman.content.auth;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of authenticated principals keyed by the verified token subject.
+ * Entries expire after a fixed time-to-live so profile changes become visible without
+ * explicit invalidation. Hits, misses and size are published as {@code predman.principal_cache.*}
+ * meters for sizing.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+    private record Entry(CustomUserDetails userDetails, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public PrincipalCache(@Value("${predman.auth.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${predman.auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    public CustomUserDetails get(String subject, Function<String, CustomUserDetails> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(subject);
+        }
+        if (entry != null && entry.expiresAt() > now) {
+            hitCount.incrementAndGet();
+            return entry.userDetails();
+        }
+
+        missCount.incrementAndGet();
+        CustomUserDetails userDetails = loader.apply(subject);
+        synchronized (entries) {
+            entries.put(subject, new Entry(userDetails, now + ttlMillis));
+        }
+        return userDetails;
+    }
+
+    public void invalidate(String subject) {
+        synchronized (entries) {
+            entries.remove(subject);
+        }
+    }
+
+    public void invalidateByUserId(UUID userId) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> userId.equals(entry.userDetails().getUserId()));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("predman.principal_cache.gets", this, PrincipalCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("predman.principal_cache.gets", this, PrincipalCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("predman.principal_cache.size", this, PrincipalCache::size)
+                .register(registry);
+    }
+}
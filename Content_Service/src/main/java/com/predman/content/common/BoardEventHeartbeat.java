@@ -0,0 +1,21 @@
+package com.predman.content.common;
+
+import com.predman.content.service.BoardEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class BoardEventHeartbeat {
+    private final BoardEventService boardEventService;
+
+    /**
+     * Writes a comment line to every open board stream so that proxies keep idle connections
+     * open and disconnected clients are noticed and dropped.
+     */
+    @Scheduled(fixedDelayString = "${predman.board-events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        boardEventService.sendHeartbeats();
+    }
+}
@@ -0,0 +1,13 @@
+package com.predman.content.common;
+
+public enum BoardEventType {
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_MOVED,
+    TASK_DELETED,
+    DEPENDENCY_ADDED,
+    DEPENDENCY_REMOVED,
+    ASSIGNEE_ADDED,
+    ASSIGNEE_REMOVED,
+    BOARD_CHANGED
+}
@@ -0,0 +1,89 @@
+package com.predman.content.common;
+
+import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+
+import java.util.List;
+
+/**
+ * Estimates the finish day of a project from its statistics history without the model: a least squares
+ * line through remaining story points by day since start, extended to zero. The spread of the finish day
+ * comes from the residual variance of the fit, and the certainty is the normal density at the estimated
+ * days, the same measure the model service reports.
+ */
+public final class BurndownEstimator {
+    public static final String MODEL_VERSION = "burndown";
+    /** Keeps the density finite when every point lies exactly on the line. */
+    private static final double MIN_SIGMA_DAYS = 1.0;
+
+    private BurndownEstimator() {
+    }
+
+    /**
+     * Returns the predicted finish day counted from the project start. Without a downward trend there
+     * is nothing to extrapolate, so the prediction has no finish day and zero certainty.
+     */
+    public static PredictionDto estimate(List<ProjectStatisticsDto> history, int estimatedDays) {
+        List<ProjectStatisticsDto> points = history.stream()
+                .filter(statistics -> statistics.daysSinceStart() != null
+                        && statistics.remainingStoryPoints() != null)
+                .toList();
+        if (!points.isEmpty() && points.getLast().remainingStoryPoints() <= 0) {
+            return prediction(points.getLast().daysSinceStart(), MIN_SIGMA_DAYS, estimatedDays);
+        }
+        int n = points.size();
+        if (n < 2) {
+            return noTrend();
+        }
+
+        double meanX = 0;
+        double meanY = 0;
+        for (ProjectStatisticsDto point : points) {
+            meanX += point.daysSinceStart();
+            meanY += point.remainingStoryPoints();
+        }
+        meanX /= n;
+        meanY /= n;
+        double sxx = 0;
+        double sxy = 0;
+        for (ProjectStatisticsDto point : points) {
+            double dx = point.daysSinceStart() - meanX;
+            sxx += dx * dx;
+            sxy += dx * (point.remainingStoryPoints() - meanY);
+        }
+        if (sxx == 0 || sxy >= 0) {
+            return noTrend();
+        }
+        double slope = sxy / sxx;
+        double intercept = meanY - slope * meanX;
+        double finishDay = Math.max(-intercept / slope, points.getLast().daysSinceStart());
+
+        double residuals = 0;
+        for (ProjectStatisticsDto point : points) {
+            double residual = point.remainingStoryPoints() - (intercept + slope * point.daysSinceStart());
+            residuals += residual * residual;
+        }
+        double residualSigma = n > 2 ? Math.sqrt(residuals / (n - 2)) : 0;
+        double sigma = Math.max(MIN_SIGMA_DAYS, residualSigma / -slope
+                * Math.sqrt(1.0 / n + (finishDay - meanX) * (finishDay - meanX) / sxx));
+        return prediction(finishDay, sigma, estimatedDays);
+    }
+
+    private static PredictionDto prediction(double finishDay, double sigma, int estimatedDays) {
+        double z = (estimatedDays - finishDay) / sigma;
+        return PredictionDto.builder()
+                .predictedDays((int) Math.round(finishDay))
+                .certaintyPercent(Math.exp(-0.5 * z * z) / (sigma * Math.sqrt(2 * Math.PI)))
+                .mu(finishDay)
+                .sigma(sigma)
+                .modelVersion(MODEL_VERSION)
+                .build();
+    }
+
+    private static PredictionDto noTrend() {
+        return PredictionDto.builder()
+                .certaintyPercent(0.0)
+                .modelVersion(MODEL_VERSION)
+                .build();
+    }
+}
@@ -4,27 +4,123 @@ import com.predman.content.entity.Project;
 import com.predman.content.entity.ProjectStatistics;
 import com.predman.content.service.ProjectService;
 import com.predman.content.service.ProjectStatisticsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DailyUpdate {
     private final ProjectStatisticsService projectStatisticsService;
     private final ProjectService projectService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${predman.daily-update.concurrency:16}")
+    private int concurrency = 16;
+
+    @Value("${predman.grpc.prediction-batch-size:64}")
+    private int predictionBatchSize = 64;
 
     @Scheduled(cron = "0 0 0 * * ?")
     public void dailyStatisticsUpdate() {
-        List<ProjectStatistics> latestStatisticsList = projectStatisticsService.getAllLatestStatistics();
-        latestStatisticsList.forEach(
-                projectStatistics -> {
-                    Project project = projectStatistics.getProject();
-                    projectStatisticsService.updateStatistics(project.getId());
-                    projectService.updatePrediction(project);
-                });
+        DailyUpdateReport report = run();
+        meterRegistry.timer("predman.daily_update").record(report.duration());
+        meterRegistry.counter("predman.daily_update.projects", "result", "success").increment(report.successes());
+        meterRegistry.counter("predman.daily_update.projects", "result", "failure").increment(report.failures());
+        log.info("Daily update finished in {} ms: {} projects updated, {} failed, p95 per project {} ms",
+                report.duration().toMillis(), report.successes(), report.failures(),
+                report.p95ProjectDuration().toMillis());
+    }
+
+    /**
+     * Refreshes statistics of every project on virtual threads, at most {@code concurrency} at a time,
+     * then re-predicts the refreshed projects in batches. A failing project is logged and counted
+     * without interrupting the others; a failed prediction call counts every project of its batch.
+     */
+    public DailyUpdateReport run() {
+        long startedAt = System.nanoTime();
+        List<UUID> projectIds = projectStatisticsService.getAllLatestStatistics()
+                .stream()
+                .map(ProjectStatistics::getProject)
+                .map(Project::getId)
+                .toList();
+        Map<UUID, Duration> projectDurations = new ConcurrentHashMap<>();
+        Map<UUID, Project> refreshedProjects = new ConcurrentHashMap<>();
+        Set<UUID> failedProjectIds = ConcurrentHashMap.newKeySet();
+        Semaphore permits = new Semaphore(Math.max(concurrency, 1));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (UUID projectId : projectIds) {
+                executor.submit(() -> withPermit(permits, () -> {
+                    long projectStartedAt = System.nanoTime();
+                    try {
+                        projectStatisticsService.reconcileStatistics(projectId);
+                        refreshedProjects.put(projectId, projectService.getEntityById(projectId));
+                    }
+                    catch (Exception e) {
+                        failedProjectIds.add(projectId);
+                        log.warn("Could not update statistics for project {}", projectId, e);
+                    }
+                    projectDurations.put(projectId, Duration.ofNanos(System.nanoTime() - projectStartedAt));
+                }));
+            }
+        }
+
+        List<Project> projects = new ArrayList<>(refreshedProjects.values());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < projects.size(); from += predictionBatchSize) {
+                List<Project> batch = projects.subList(from, Math.min(from + predictionBatchSize, projects.size()));
+                executor.submit(() -> withPermit(permits, () -> {
+                    long batchStartedAt = System.nanoTime();
+                    try {
+                        failedProjectIds.addAll(projectService.updatePredictions(batch));
+                    }
+                    catch (Exception e) {
+                        batch.forEach(project -> failedProjectIds.add(project.getId()));
+                        log.warn("Could not update predictions for {} projects", batch.size(), e);
+                    }
+                    Duration share = Duration.ofNanos((System.nanoTime() - batchStartedAt) / batch.size());
+                    batch.forEach(project -> projectDurations.merge(project.getId(), share, Duration::plus));
+                }));
+            }
+        }
+
+        return DailyUpdateReport.builder()
+                .duration(Duration.ofNanos(System.nanoTime() - startedAt))
+                .successes(projectIds.size() - failedProjectIds.size())
+                .failures(failedProjectIds.size())
+                .p95ProjectDuration(DailyUpdateReport.percentile(new ArrayList<>(projectDurations.values()), 95))
+                .build();
+    }
 
+    private void withPermit(Semaphore permits, Runnable task) {
+        try {
+            permits.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            task.run();
+        }
+        finally {
+            permits.release();
+        }
     }
 }
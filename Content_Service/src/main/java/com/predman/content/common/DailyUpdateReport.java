@@ -0,0 +1,23 @@
+package com.predman.content.common;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.List;
+
+@Builder
+public record DailyUpdateReport(
+    Duration duration,
+    int successes,
+    int failures,
+    Duration p95ProjectDuration
+) {
+    public static Duration percentile(List<Duration> durations, double percentile) {
+        if (durations.isEmpty()) {
+            return Duration.ZERO;
+        }
+        List<Duration> sorted = durations.stream().sorted().toList();
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.predman.content.common;
+
+import com.predman.content.exception.BadRequestException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * One keyset page of a history ordered by timestamp and id. The cursor is {@code <timestamp>_<id>} of the
+ * last row of the previous page, so rows sharing a timestamp are neither skipped nor repeated at a page
+ * boundary. A cursor without an id continues strictly after its timestamp, which is enough for pages of
+ * buckets, whose start timestamps are unique.
+ */
+public record HistoryPage(LocalDateTime from, LocalDateTime to, LocalDateTime after, UUID afterId, int limit) {
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String ID_SEPARATOR = "_";
+
+    /** Sorts after every other id in PostgreSQL, so no row continues a timestamp-only cursor at its timestamp. */
+    private static final UUID LAST_ID = new UUID(-1L, -1L);
+
+    public static HistoryPage of(LocalDate from, LocalDate to, String cursor, Integer limit,
+                                 int defaultLimit, int maxLimit, String historyName) {
+        int pageSize = limit == null ? defaultLimit : limit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new BadRequestException("Page size must be between 1 and " + maxLimit);
+        }
+        LocalDateTime rangeStart = from == null ? HISTORY_START : from.atStartOfDay();
+        LocalDateTime rangeEnd = (to == null ? LocalDate.now().plusDays(1) : to).atStartOfDay();
+        if (cursor == null || cursor.isBlank()) {
+            return new HistoryPage(rangeStart, rangeEnd, HISTORY_START, LAST_ID, pageSize);
+        }
+        try {
+            int separator = cursor.indexOf(ID_SEPARATOR);
+            if (separator < 0) {
+                return new HistoryPage(rangeStart, rangeEnd, LocalDateTime.parse(cursor), LAST_ID, pageSize);
+            }
+            return new HistoryPage(rangeStart, rangeEnd, LocalDateTime.parse(cursor.substring(0, separator)),
+                    UUID.fromString(cursor.substring(separator + 1)), pageSize);
+        }
+        catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + historyName + " cursor");
+        }
+    }
+
+    /** Returns the cursor of the page after {@code items}, or null when they did not fill this page. */
+    public <T> String nextCursor(List<T> items, Function<T, LocalDateTime> timestampOf, Function<T, UUID> idOf) {
+        if (items.size() < limit) {
+            return null;
+        }
+        T last = items.getLast();
+        UUID id = idOf.apply(last);
+        return id == null ? timestampOf.apply(last).toString() : timestampOf.apply(last) + ID_SEPARATOR + id;
+    }
+}
@@ -0,0 +1,6 @@
+package com.predman.content.common;
+
+public enum PredictionMode {
+	LIVE,
+	STORED
+}
@@ -0,0 +1,54 @@
+package com.predman.content.common;
+
+import com.predman.content.entity.Project;
+import com.predman.content.service.ProjectService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PredictionRefresher {
+    private final ProjectService projectService;
+
+    @Value("${predman.prediction.mode:LIVE}")
+    private PredictionMode predictionMode = PredictionMode.LIVE;
+
+    @Value("${predman.prediction.max-age-minutes:60}")
+    private long maxAgeMinutes = 60;
+
+    @Value("${predman.prediction.retry-backoff-minutes:15}")
+    private long retryBackoffMinutes = 15;
+
+    /**
+     * Re-predicts only projects whose statistics were saved after their last prediction
+     * or whose prediction is older than the configured age. A project whose last attempt failed waits
+     * {@code retryBackoffMinutes} before it is tried again.
+     */
+    @Scheduled(fixedDelayString = "${predman.prediction.refresh-interval-ms:60000}")
+    public void refreshStalePredictions() {
+        if (predictionMode != PredictionMode.STORED) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Project> staleProjects = projectService.claimAllWithStalePrediction(
+                now.minusMinutes(maxAgeMinutes), now.minusMinutes(retryBackoffMinutes));
+        try {
+            List<UUID> failedProjectIds = projectService.updatePredictions(staleProjects);
+            if (!failedProjectIds.isEmpty()) {
+                log.warn("Could not refresh predictions for {} of {} projects", failedProjectIds.size(),
+                        staleProjects.size());
+            }
+        }
+        catch (Exception e) {
+            log.warn("Could not refresh predictions for {} projects", staleProjects.size(), e);
+        }
+    }
+}
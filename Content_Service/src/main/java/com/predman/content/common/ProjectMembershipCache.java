@@ -0,0 +1,88 @@
+package com.predman.content.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user set of project ids whose membership has already been confirmed by the database.
+ * Only positive answers are cached, so a membership that has just been granted is picked up
+ * on the next lookup, while revocations must evict the affected users explicitly. Evictions
+ * are repeated after the revoking transaction commits, so a lookup that reloaded the old row
+ * in between is dropped too, and every entry expires after {@code ttlSeconds} in case an
+ * eviction is missed altogether.
+ */
+@Component
+public class ProjectMembershipCache {
+    private final int maxUsers;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<UUID, Map<UUID, Long>> projectsByUser;
+
+    @Autowired
+    public ProjectMembershipCache(@Value("${predman.membership-cache.max-users:10000}") int maxUsers,
+                                  @Value("${predman.membership-cache.ttl-seconds:300}") long ttlSeconds) {
+        this(maxUsers, ttlSeconds, System::nanoTime);
+    }
+
+    ProjectMembershipCache(int maxUsers, long ttlSeconds, LongSupplier nanoClock) {
+        this.maxUsers = maxUsers;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.nanoClock = nanoClock;
+        this.projectsByUser = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Map<UUID, Long>> eldest) {
+                return size() > ProjectMembershipCache.this.maxUsers;
+            }
+        };
+    }
+
+    public boolean isMember(UUID userId, UUID projectId, BiPredicate<UUID, UUID> loader) {
+        Map<UUID, Long> projectIds;
+        synchronized (projectsByUser) {
+            projectIds = projectsByUser.get(userId);
+        }
+        Long expiresAt = projectIds == null ? null : projectIds.get(projectId);
+        if (expiresAt != null && nanoClock.getAsLong() - expiresAt < 0) {
+            return true;
+        }
+        if (!loader.test(userId, projectId)) {
+            return false;
+        }
+        long loadedUntil = nanoClock.getAsLong() + ttlNanos;
+        synchronized (projectsByUser) {
+            projectsByUser.computeIfAbsent(userId, key -> new ConcurrentHashMap<>()).put(projectId, loadedUntil);
+        }
+        return true;
+    }
+
+    public void evictUser(UUID userId) {
+        removeUser(userId);
+        TransactionHooks.afterCommit(() -> removeUser(userId));
+    }
+
+    public void evictProject(UUID projectId) {
+        removeProject(projectId);
+        TransactionHooks.afterCommit(() -> removeProject(projectId));
+    }
+
+    private void removeUser(UUID userId) {
+        synchronized (projectsByUser) {
+            projectsByUser.remove(userId);
+        }
+    }
+
+    private void removeProject(UUID projectId) {
+        synchronized (projectsByUser) {
+            projectsByUser.values().forEach(projectIds -> projectIds.remove(projectId));
+        }
+    }
+}
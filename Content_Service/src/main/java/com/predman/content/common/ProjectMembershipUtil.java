@@ -23,8 +23,7 @@ public class ProjectMembershipUtil {
 
     public void checkProjectMembership(UUID userId, UUID projectId)
     {
-        if (projectMemberService.getUsersByProjectId(projectId).stream().noneMatch(userDto ->
-                userDto.id().equals(userId))) {
+        if (!projectMemberService.isProjectMember(userId, projectId)) {
             throw new ForbiddenException("User is not part of this project");
         }
     }
@@ -0,0 +1,28 @@
+package com.predman.content.common;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Downsampling interval of the statistics history. The names are the PostgreSQL
+ * {@code date_trunc} fields, and {@link #truncate} mirrors it on the Java side.
+ */
+public enum StatisticsBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public String field() {
+        return name().toLowerCase();
+    }
+
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        LocalDateTime startOfDay = dateTime.toLocalDate().atStartOfDay();
+        return switch (this) {
+            case DAY -> startOfDay;
+            case WEEK -> startOfDay.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> startOfDay.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.predman.content.common;
+
+import com.predman.content.service.ProjectStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatisticsMaintenance {
+    private final ProjectStatisticsService projectStatisticsService;
+
+    @Value("${predman.statistics.partitions-ahead-months:3}")
+    private int partitionsAheadMonths = 3;
+
+    @Value("${predman.statistics.rollup-after-days:180}")
+    private int rollupAfterDays = 180;
+
+    /** Zero keeps the statistics history forever. */
+    @Value("${predman.statistics.retention-months:0}")
+    private int retentionMonths = 0;
+
+    /**
+     * Creates the monthly partitions ahead of time, compacts daily rows older than the rollup age
+     * into weekly rows and drops partitions past the retention period.
+     */
+    @Scheduled(cron = "${predman.statistics.maintenance-cron:0 30 0 * * ?}")
+    public void maintainStatistics() {
+        try {
+            int createdPartitions = projectStatisticsService.ensureStatisticsPartitions(partitionsAheadMonths);
+            int weeklyRows = projectStatisticsService.rollUpStatistics(LocalDateTime.now().minusDays(rollupAfterDays));
+            int droppedPartitions = retentionMonths > 0
+                    ? projectStatisticsService.dropStatisticsPartitions(LocalDate.now().minusMonths(retentionMonths))
+                    : 0;
+            log.info("Statistics maintenance: {} partitions created, {} weekly rows rolled up, {} partitions dropped",
+                    createdPartitions, weeklyRows, droppedPartitions);
+        }
+        catch (Exception e) {
+            log.warn("Statistics maintenance failed", e);
+        }
+    }
+}
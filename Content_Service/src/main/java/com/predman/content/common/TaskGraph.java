@@ -0,0 +1,481 @@
+package com.predman.content.common;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dependency graph of a project's tasks stored in dense int-indexed adjacency arrays.
+ * Edges point from a dependency to the task that depends on it. The path length of a task is
+ * the longest story-point chain ending at it; completed tasks have length zero and break chains.
+ * Changes recompute only the changed task and its downstream tasks, in topological order.
+ * Slots of removed tasks are reused by the next inserted ones.
+ */
+public class TaskGraph {
+    public record Node(UUID id, double storyPoints, boolean active) {}
+    public record Edge(UUID taskId, UUID dependencyId) {}
+
+    private final Map<UUID, Integer> indexById;
+    private UUID[] ids;
+    private double[] weights;
+    private boolean[] active;
+    private double[] pathLengths;
+    private int[][] dependents;
+    private int[] dependentCounts;
+    private int[][] dependencies;
+    private int[] dependencyCounts;
+    private int size;
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+
+    private int[] pending;
+    private int[] marks;
+    private int mark;
+    private int[] work;
+
+    private double criticalPathLength;
+    private boolean cyclic;
+
+    public TaskGraph(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        indexById = new HashMap<>(capacity * 2);
+        ids = new UUID[capacity];
+        weights = new double[capacity];
+        active = new boolean[capacity];
+        pathLengths = new double[capacity];
+        dependents = new int[capacity][];
+        dependentCounts = new int[capacity];
+        dependencies = new int[capacity][];
+        dependencyCounts = new int[capacity];
+        pending = new int[capacity];
+        marks = new int[capacity];
+        work = new int[capacity];
+    }
+
+    /**
+     * Builds the graph in one pass and computes all path lengths with a single topological sweep.
+     * Edges referencing unknown tasks, self-edges and duplicates are ignored.
+     */
+    public static TaskGraph of(List<Node> nodes, List<Edge> edges) {
+        TaskGraph graph = new TaskGraph(nodes.size());
+        for (Node node : nodes) {
+            graph.insertNode(node.id(), node.storyPoints(), node.active());
+        }
+        for (Edge edge : edges) {
+            Integer task = graph.indexById.get(edge.taskId());
+            Integer dependency = graph.indexById.get(edge.dependencyId());
+            if (task != null && dependency != null && !task.equals(dependency)
+                    && !graph.hasEdge(dependency, task)) {
+                graph.link(dependency, task);
+            }
+        }
+        graph.recomputeAll();
+        return graph;
+    }
+
+    public double getCriticalPathLength() {
+        return criticalPathLength;
+    }
+
+    public double getPathLength(UUID taskId) {
+        Integer index = indexById.get(taskId);
+        return index == null ? 0 : pathLengths[index];
+    }
+
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    /** Number of node slots in use or free for reuse. */
+    int slotCount() {
+        return size;
+    }
+
+    public boolean containsTask(UUID taskId) {
+        return indexById.containsKey(taskId);
+    }
+
+    public void putTask(UUID taskId, double storyPoints, boolean isActive) {
+        Integer index = indexById.get(taskId);
+        if (index == null) {
+            int slot = insertNode(taskId, storyPoints, isActive);
+            pathLengths[slot] = isActive ? storyPoints : 0;
+            criticalPathLength = Math.max(criticalPathLength, pathLengths[slot]);
+            return;
+        }
+        if (weights[index] == storyPoints && active[index] == isActive) {
+            return;
+        }
+        weights[index] = storyPoints;
+        active[index] = isActive;
+        recomputeFrom(new int[] {index}, 1);
+    }
+
+    public void removeTask(UUID taskId) {
+        Integer index = indexById.remove(taskId);
+        if (index == null) {
+            return;
+        }
+        int[] seeds = dependentCounts[index] == 0 ? new int[0]
+                : Arrays.copyOf(dependents[index], dependentCounts[index]);
+        for (int dependent : seeds) {
+            unlinkOneSide(dependencies, dependencyCounts, dependent, index);
+        }
+        for (int i = 0; i < dependencyCounts[index]; i++) {
+            unlinkOneSide(dependents, dependentCounts, dependencies[index][i], index);
+        }
+        dependentCounts[index] = 0;
+        dependencyCounts[index] = 0;
+        boolean wasLongest = pathLengths[index] == criticalPathLength;
+        ids[index] = null;
+        weights[index] = 0;
+        active[index] = false;
+        pathLengths[index] = 0;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(4, freeCount * 2));
+        }
+        freeSlots[freeCount++] = index;
+        recomputeFrom(seeds, seeds.length);
+        if (wasLongest) {
+            refreshCriticalPathLength();
+        }
+        recheckCyclic();
+    }
+
+    /**
+     * Returns whether making {@code taskId} depend on {@code dependencyId} would close a cycle,
+     * that is whether the dependency is already reachable downstream of the task.
+     */
+    public boolean wouldCreateCycle(UUID taskId, UUID dependencyId) {
+        if (taskId.equals(dependencyId)) {
+            return true;
+        }
+        Integer task = indexById.get(taskId);
+        Integer dependency = indexById.get(dependencyId);
+        if (task == null || dependency == null) {
+            return false;
+        }
+        nextMark();
+        int head = 0;
+        int tail = 0;
+        work[tail++] = task;
+        marks[task] = mark;
+        while (head < tail) {
+            int current = work[head++];
+            if (current == dependency) {
+                return true;
+            }
+            for (int i = 0; i < dependentCounts[current]; i++) {
+                int next = dependents[current][i];
+                if (marks[next] != mark) {
+                    marks[next] = mark;
+                    work[tail++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean hasDependency(UUID taskId, UUID dependencyId) {
+        Integer task = indexById.get(taskId);
+        Integer dependency = indexById.get(dependencyId);
+        return task != null && dependency != null && hasEdge(dependency, task);
+    }
+
+    /**
+     * Returns whether adding all given edges together would close a cycle, including cycles made
+     * only of new edges. Runs Kahn's algorithm once over the stored and the new edges instead of
+     * searching once per edge. Edges referencing unknown tasks are ignored; when the graph is
+     * already cyclic, only tasks newly blocked by the new edges count.
+     */
+    public boolean wouldCreateCycle(List<Edge> newEdges) {
+        int[] from = new int[newEdges.size()];
+        int[] to = new int[newEdges.size()];
+        int count = 0;
+        for (Edge edge : newEdges) {
+            Integer task = indexById.get(edge.taskId());
+            Integer dependency = indexById.get(edge.dependencyId());
+            if (task == null || dependency == null) {
+                continue;
+            }
+            if (task.equals(dependency)) {
+                return true;
+            }
+            from[count] = dependency;
+            to[count] = task;
+            count++;
+        }
+        int blockedBefore = cyclic ? countBlocked(from, to, 0) : 0;
+        return countBlocked(from, to, count) > blockedBefore;
+    }
+
+    public boolean addDependency(UUID taskId, UUID dependencyId) {
+        Integer task = indexById.get(taskId);
+        Integer dependency = indexById.get(dependencyId);
+        if (task == null || dependency == null || hasEdge(dependency, task)) {
+            return false;
+        }
+        if (wouldCreateCycle(taskId, dependencyId)) {
+            throw new IllegalStateException("Dependency " + dependencyId + " -> " + taskId + " would create a cycle");
+        }
+        link(dependency, task);
+        recomputeFrom(new int[] {task}, 1);
+        return true;
+    }
+
+    public boolean removeDependency(UUID taskId, UUID dependencyId) {
+        Integer task = indexById.get(taskId);
+        Integer dependency = indexById.get(dependencyId);
+        if (task == null || dependency == null || !hasEdge(dependency, task)) {
+            return false;
+        }
+        unlinkOneSide(dependents, dependentCounts, dependency, task);
+        unlinkOneSide(dependencies, dependencyCounts, task, dependency);
+        recomputeFrom(new int[] {task}, 1);
+        recheckCyclic();
+        return true;
+    }
+
+    /**
+     * A removal can break the last cycle, which the recompute of its downstream tasks cannot tell,
+     * since other cycles may lie elsewhere; so a cyclic graph is checked again as a whole.
+     */
+    private void recheckCyclic() {
+        if (cyclic) {
+            cyclic = countBlocked(new int[0], new int[0], 0) > 0;
+        }
+    }
+
+    /**
+     * Counts the tasks that Kahn's algorithm never frees when the first {@code extra} given edges
+     * are added to the stored ones; these are the tasks on or downstream of a cycle.
+     */
+    private int countBlocked(int[] from, int[] to, int extra) {
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < extra; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] extraDependents = new int[extra];
+        int[] filled = Arrays.copyOf(offsets, size);
+        for (int i = 0; i < extra; i++) {
+            extraDependents[filled[from[i]]++] = to[i];
+        }
+
+        int[] indegree = Arrays.copyOf(dependencyCounts, size);
+        for (int i = 0; i < extra; i++) {
+            indegree[to[i]]++;
+        }
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (ids[i] != null) {
+                live++;
+                if (indegree[i] == 0) {
+                    queue[tail++] = i;
+                }
+            }
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            for (int j = 0; j < dependentCounts[current]; j++) {
+                if (--indegree[dependents[current][j]] == 0) {
+                    queue[tail++] = dependents[current][j];
+                }
+            }
+            for (int j = offsets[current]; j < offsets[current + 1]; j++) {
+                if (--indegree[extraDependents[j]] == 0) {
+                    queue[tail++] = extraDependents[j];
+                }
+            }
+        }
+        return live - tail;
+    }
+
+    private int insertNode(UUID taskId, double storyPoints, boolean isActive) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        }
+        else {
+            ensureCapacity(size + 1);
+            slot = size++;
+        }
+        indexById.put(taskId, slot);
+        ids[slot] = taskId;
+        weights[slot] = storyPoints;
+        active[slot] = isActive;
+        return slot;
+    }
+
+    private void recomputeAll() {
+        int count = 0;
+        int[] seeds = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (ids[i] != null) {
+                seeds[count++] = i;
+            }
+        }
+        cyclic = false;
+        criticalPathLength = 0;
+        recomputeFrom(seeds, count);
+    }
+
+    /**
+     * Collects the seeds and everything downstream of them, then runs Kahn's algorithm over that
+     * subgraph only. Tasks left unprocessed sit on a cycle and get path length zero.
+     */
+    private void recomputeFrom(int[] seeds, int seedCount) {
+        nextMark();
+        int affected = 0;
+        for (int i = 0; i < seedCount; i++) {
+            int seed = seeds[i];
+            if (marks[seed] != mark) {
+                marks[seed] = mark;
+                work[affected++] = seed;
+            }
+        }
+        for (int i = 0; i < affected; i++) {
+            int current = work[i];
+            pending[current] = 0;
+            for (int j = 0; j < dependentCounts[current]; j++) {
+                int next = dependents[current][j];
+                if (marks[next] != mark) {
+                    marks[next] = mark;
+                    work[affected++] = next;
+                }
+            }
+        }
+        for (int i = 0; i < affected; i++) {
+            int current = work[i];
+            for (int j = 0; j < dependentCounts[current]; j++) {
+                pending[dependents[current][j]]++;
+            }
+        }
+
+        int[] queue = new int[affected];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < affected; i++) {
+            if (pending[work[i]] == 0) {
+                queue[tail++] = work[i];
+            }
+        }
+        boolean longestMayShrink = false;
+        double affectedLongest = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            double previous = pathLengths[current];
+            pathLengths[current] = evaluate(current);
+            longestMayShrink |= previous == criticalPathLength && pathLengths[current] < previous;
+            affectedLongest = Math.max(affectedLongest, pathLengths[current]);
+            for (int j = 0; j < dependentCounts[current]; j++) {
+                int next = dependents[current][j];
+                if (--pending[next] == 0) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        if (tail < affected) {
+            cyclic = true;
+            longestMayShrink = true;
+            for (int i = 0; i < affected; i++) {
+                if (pending[work[i]] > 0) {
+                    pathLengths[work[i]] = 0;
+                }
+            }
+        }
+        if (longestMayShrink) {
+            refreshCriticalPathLength();
+        }
+        else {
+            criticalPathLength = Math.max(criticalPathLength, affectedLongest);
+        }
+    }
+
+    private double evaluate(int index) {
+        if (!active[index]) {
+            return 0;
+        }
+        double longestDependency = 0;
+        for (int i = 0; i < dependencyCounts[index]; i++) {
+            longestDependency = Math.max(longestDependency, pathLengths[dependencies[index][i]]);
+        }
+        return weights[index] + longestDependency;
+    }
+
+    private void refreshCriticalPathLength() {
+        double longest = 0;
+        for (int i = 0; i < size; i++) {
+            longest = Math.max(longest, pathLengths[i]);
+        }
+        criticalPathLength = longest;
+    }
+
+    private boolean hasEdge(int dependency, int task) {
+        for (int i = 0; i < dependentCounts[dependency]; i++) {
+            if (dependents[dependency][i] == task) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void link(int dependency, int task) {
+        append(dependents, dependentCounts, dependency, task);
+        append(dependencies, dependencyCounts, task, dependency);
+    }
+
+    private static void append(int[][] lists, int[] counts, int owner, int value) {
+        int[] list = lists[owner];
+        if (list == null) {
+            list = new int[4];
+        }
+        else if (counts[owner] == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[counts[owner]++] = value;
+        lists[owner] = list;
+    }
+
+    private static void unlinkOneSide(int[][] lists, int[] counts, int owner, int value) {
+        int[] list = lists[owner];
+        for (int i = 0; i < counts[owner]; i++) {
+            if (list[i] == value) {
+                list[i] = list[--counts[owner]];
+                return;
+            }
+        }
+    }
+
+    private void nextMark() {
+        if (++mark == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            mark = 1;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        active = Arrays.copyOf(active, capacity);
+        pathLengths = Arrays.copyOf(pathLengths, capacity);
+        dependents = Arrays.copyOf(dependents, capacity);
+        dependentCounts = Arrays.copyOf(dependentCounts, capacity);
+        dependencies = Arrays.copyOf(dependencies, capacity);
+        dependencyCounts = Arrays.copyOf(dependencyCounts, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+        marks = Arrays.copyOf(marks, capacity);
+        work = Arrays.copyOf(work, capacity);
+    }
+}
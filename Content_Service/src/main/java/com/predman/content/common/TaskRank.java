@@ -0,0 +1,113 @@
+package com.predman.content.common;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lexicographic rank keys for ordering tasks inside a board column. Keys are base-36 strings
+ * compared byte-wise (the column uses the "C" collation) and never end with '0', so a key
+ * strictly between any two distinct keys always exists.
+ */
+public final class TaskRank {
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    /** Same shape as the keys written by the migration and the rebalancer for the first task. */
+    private static final String FIRST = "000000001";
+
+    private TaskRank() {
+    }
+
+    /**
+     * Returns a key strictly between {@code lower} and {@code upper}; {@code null} stands for the
+     * start or the end of the column respectively.
+     */
+    public static String between(String lower, String upper) {
+        String low = lower == null ? "" : lower;
+        if (upper != null && low.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Rank " + lower + " is not lower than " + upper);
+        }
+        if (upper == null) {
+            return low.isEmpty() ? FIRST : increment(low);
+        }
+        StringBuilder rank = new StringBuilder();
+        int position = 0;
+        while (position < upper.length() && digitAt(low, position) == digitAt(upper, position)) {
+            rank.append(upper.charAt(position));
+            position++;
+        }
+        while (true) {
+            int lowDigit = digitAt(low, position);
+            int highDigit = upper == null ? BASE : digitAt(upper, position);
+            if (highDigit - lowDigit > 1) {
+                return rank.append(DIGITS.charAt((lowDigit + highDigit) / 2)).toString();
+            }
+            if (upper != null && upper.length() > position + 1) {
+                return rank.append(upper.charAt(position)).toString();
+            }
+            rank.append(DIGITS.charAt(lowDigit));
+            upper = null;
+            position++;
+        }
+    }
+
+    /**
+     * Returns {@code count} ascending keys strictly between {@code lower} and {@code upper}.
+     * Appended keys count up like single appends; inserted keys bisect the gap recursively, so
+     * their length grows with the logarithm of the count rather than with the count.
+     */
+    public static List<String> between(String lower, String upper, int count) {
+        String[] ranks = new String[count];
+        if (upper == null) {
+            String previous = lower;
+            for (int i = 0; i < count; i++) {
+                previous = between(previous, null);
+                ranks[i] = previous;
+            }
+        }
+        else {
+            bisect(ranks, 0, count, lower, upper);
+        }
+        return Arrays.asList(ranks);
+    }
+
+    private static void bisect(String[] ranks, int from, int to, String lower, String upper) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        ranks[middle] = between(lower, upper);
+        bisect(ranks, from, middle, lower, ranks[middle]);
+        bisect(ranks, middle + 1, to, ranks[middle], upper);
+    }
+
+    /**
+     * Appending is the common case, so the key after the last one counts up at the same length
+     * instead of bisecting towards the end, which keeps appended keys from growing.
+     */
+    private static String increment(String rank) {
+        int position = rank.length() - 1;
+        while (position >= 0 && rank.charAt(position) == DIGITS.charAt(BASE - 1)) {
+            position--;
+        }
+        if (position < 0) {
+            return rank + DIGITS.charAt(BASE / 2);
+        }
+        StringBuilder next = new StringBuilder(rank.substring(0, position))
+                .append(DIGITS.charAt(digitAt(rank, position) + 1));
+        if (position < rank.length() - 1) {
+            next.append("0".repeat(rank.length() - position - 2)).append(DIGITS.charAt(1));
+        }
+        return next.toString();
+    }
+
+    private static int digitAt(String rank, int position) {
+        if (position >= rank.length()) {
+            return 0;
+        }
+        int digit = DIGITS.indexOf(rank.charAt(position));
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank " + rank);
+        }
+        return digit;
+    }
+}
@@ -0,0 +1,44 @@
+package com.predman.content.common;
+
+import com.predman.content.service.TaskService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskRankRebalancer {
+    private final TaskService taskService;
+
+    @Value("${predman.tasks.ordering:LINKED}")
+    private TaskOrdering taskOrdering = TaskOrdering.LINKED;
+
+    @Value("${predman.tasks.rank-rebalance-length:32}")
+    private int rankRebalanceLength = 32;
+
+    /**
+     * Respaces the ranks of projects where repeated inserts between the same neighbours
+     * made some rank keys longer than the configured length.
+     */
+    @Scheduled(fixedDelayString = "${predman.tasks.rank-rebalance-interval-ms:3600000}")
+    public void rebalanceLongRanks() {
+        if (taskOrdering != TaskOrdering.RANK) {
+            return;
+        }
+        List<UUID> projectIds = taskService.getProjectIdsNeedingRankRebalance(rankRebalanceLength);
+        for (UUID projectId : projectIds) {
+            try {
+                taskService.rebalanceRanks(projectId);
+            }
+            catch (Exception e) {
+                log.warn("Could not rebalance task ranks of project {}", projectId, e);
+            }
+        }
+    }
+}
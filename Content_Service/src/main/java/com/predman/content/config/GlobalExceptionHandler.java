@@ -1,5 +1,6 @@
 package com.predman.content.config;
 
+import com.predman.content.exception.BadRequestException;
 import com.predman.content.exception.ForbiddenException;
 import com.predman.content.exception.NotFoundException;
 import com.predman.content.exception.UnauthorizedException;
@@ -31,6 +32,12 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.builder(ex, HttpStatus.FORBIDDEN, ex.getMessage()).build());
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.builder(ex, HttpStatus.BAD_REQUEST, ex.getMessage()).build());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -1,22 +1,71 @@
 package com.predman.content.config;
 
 import com.predman.statistics.StatisticsServiceGrpc;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class GrpcClientConfig {
+    private static final String STATISTICS_SERVICE = StatisticsServiceGrpc.SERVICE_NAME;
 
-    @Bean
-    public ManagedChannel statisticsServiceChannel() {
-        String grpcHost = System.getenv("GRPC_SERVER_HOST");
-        String grpcPort = System.getenv("GRPC_SERVER_PORT");
-        return ManagedChannelBuilder.forAddress( grpcHost == null ? "localhost" : grpcHost,
-                        grpcPort == null ? 5430 : Integer.parseInt(grpcPort))
+    @Value("${predman.grpc.target:dns:///localhost:50051}")
+    private String target = "dns:///localhost:50051";
+
+    @Value("${predman.grpc.keepalive-time-ms:30000}")
+    private long keepAliveTimeMs = 30000;
+
+    @Value("${predman.grpc.keepalive-timeout-ms:10000}")
+    private long keepAliveTimeoutMs = 10000;
+
+    @Value("${predman.grpc.predict-max-attempts:3}")
+    private int predictMaxAttempts = 3;
+
+    @Value("${predman.grpc.predict-hedging-delay-ms:500}")
+    private long predictHedgingDelayMs = 500;
+
+    /** Runs call callbacks, and the continuations chained on prediction futures, on virtual threads. */
+    @Bean(destroyMethod = "close")
+    public ExecutorService grpcCallbackExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Resolves every replica behind {@code predman.grpc.target} and balances calls across them round-robin.
+     * Calls that fail with UNAVAILABLE are retried, and Predict is hedged to another replica when the first
+     * one is slow to answer.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ManagedChannel statisticsServiceChannel(GrpcMetricsInterceptor grpcMetricsInterceptor,
+                                                   ExecutorService grpcCallbackExecutor,
+                                                   MeterRegistry meterRegistry) {
+        ManagedChannel channel = ManagedChannelBuilder.forTarget(target)
                 .usePlaintext()
+                .executor(grpcCallbackExecutor)
+                .keepAliveTime(keepAliveTimeMs, TimeUnit.MILLISECONDS)
+                .keepAliveTimeout(keepAliveTimeoutMs, TimeUnit.MILLISECONDS)
+                .defaultServiceConfig(serviceConfig())
+                .enableRetry()
+                .intercept(grpcMetricsInterceptor)
                 .build();
+        for (ConnectivityState state : ConnectivityState.values()) {
+            Gauge.builder("predman.grpc.channel.state", channel, c -> c.getState(false) == state ? 1 : 0)
+                    .tag("target", target)
+                    .tag("state", state.name())
+                    .register(meterRegistry);
+        }
+        return channel;
     }
 
     @Bean
@@ -24,9 +73,27 @@ public class GrpcClientConfig {
         return StatisticsServiceGrpc.newStub(statisticsServiceChannel);
     }
 
-    @Bean
-    public StatisticsServiceGrpc.StatisticsServiceBlockingStub
-    statisticsServiceBlockingStub(ManagedChannel statisticsServiceChannel) {
-        return StatisticsServiceGrpc.newBlockingStub(statisticsServiceChannel);
+    Map<String, ?> serviceConfig() {
+        return Map.of(
+                "loadBalancingConfig", List.of(Map.of("round_robin", Map.of())),
+                "methodConfig", List.of(
+                        Map.of(
+                                "name", List.of(Map.of("service", STATISTICS_SERVICE, "method", "Predict")),
+                                "hedgingPolicy", Map.of(
+                                        "maxAttempts", (double) predictMaxAttempts,
+                                        "hedgingDelay", seconds(predictHedgingDelayMs),
+                                        "nonFatalStatusCodes", List.of("UNAVAILABLE"))),
+                        Map.of(
+                                "name", List.of(Map.of("service", STATISTICS_SERVICE, "method", "PredictBatch")),
+                                "retryPolicy", Map.of(
+                                        "maxAttempts", 3.0,
+                                        "initialBackoff", "0.1s",
+                                        "maxBackoff", "1s",
+                                        "backoffMultiplier", 2.0,
+                                        "retryableStatusCodes", List.of("UNAVAILABLE")))));
+    }
+
+    private static String seconds(long millis) {
+        return millis / 1000.0 + "s";
     }
-}
\ No newline at end of file
+}
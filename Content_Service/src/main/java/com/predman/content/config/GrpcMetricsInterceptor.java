@@ -0,0 +1,59 @@
+package com.predman.content.config;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientStreamTracer;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the latency of every outgoing gRPC call as {@code predman.grpc.client},
+ * tagged with the full method name and the resulting status code. Each attempt the channel
+ * makes for a call, including retries and hedges, is counted as {@code predman.grpc.client.attempts}.
+ */
+@Component
+@RequiredArgsConstructor
+public class GrpcMetricsInterceptor implements ClientInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        ClientStreamTracer.Factory attempts = new ClientStreamTracer.Factory() {
+            @Override
+            public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                meterRegistry.counter("predman.grpc.client.attempts",
+                        "method", method.getFullMethodName(),
+                        "retry", String.valueOf(info.getPreviousAttempts() > 0)).increment();
+                return new ClientStreamTracer() {
+                };
+            }
+        };
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(
+                next.newCall(method, callOptions.withStreamTracerFactory(attempts))) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        sample.stop(Timer.builder("predman.grpc.client")
+                                .tag("method", method.getFullMethodName())
+                                .tag("status", status.getCode().name())
+                                .register(meterRegistry));
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+}
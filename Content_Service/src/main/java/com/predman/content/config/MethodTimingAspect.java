@@ -0,0 +1,65 @@
+package com.predman.content.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Times every public controller and service method as {@code predman.controller} and
+ * {@code predman.service}, tagged with the class, the method, the outcome and the thrown exception, if any.
+ * A method returning a {@link CompletionStage} is timed until the stage completes, not until it returns.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MethodTimingAspect {
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.predman.content.controller..*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("predman.controller", joinPoint);
+    }
+
+    @Around("execution(public * com.predman.content.service..*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("predman.service", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        }
+        catch (Throwable e) {
+            stop(sample, name, joinPoint, e);
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, throwable) -> stop(sample, name, joinPoint, throwable));
+        }
+        else {
+            stop(sample, name, joinPoint, null);
+        }
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, String name, ProceedingJoinPoint joinPoint, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+        sample.stop(Timer.builder(name)
+                .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("outcome", cause == null ? "success" : "exception")
+                .tag("exception", cause == null ? "none" : cause.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+}
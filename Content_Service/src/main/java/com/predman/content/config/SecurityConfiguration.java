@@ -2,6 +2,7 @@ package com.predman.content.config;
 
 import com.predman.content.auth.JwtAuthenticationEntryPoint;
 import com.predman.content.auth.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -38,6 +39,8 @@ public class SecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable) // Disable CSRF for REST APIs
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/v1/users/login", "/v1/users/register").permitAll() // Public APIs
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Probes and scraping
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Completion of authorized streams
                         .anyRequest().authenticated()) // Protect all other APIs
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint(jwtAuthenticationEntryPoint)) // Handle 401 Unauthorized errors
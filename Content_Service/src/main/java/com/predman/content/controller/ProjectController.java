@@ -1,22 +1,36 @@
 package com.predman.content.controller;
 
 import com.predman.content.common.ProjectMembershipUtil;
+import com.predman.content.common.StatisticsAggregate;
+import com.predman.content.common.StatisticsBucket;
+import com.predman.content.dto.prediction_history.PredictionHistoryPageDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryRequestDto;
 import com.predman.content.dto.project.*;
 import com.predman.content.dto.project_member.ProjectMemberUpdateDto;
 import com.predman.content.dto.project_member.ProjectMemberDto;
 import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsHistoryRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsPageDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Project;
+import com.predman.content.service.PredictionHistoryService;
 import com.predman.content.service.ProjectMemberService;
 import com.predman.content.service.ProjectService;
 import com.predman.content.service.ProjectStatisticsService;
+import com.predman.content.service.ProjectVersionService;
 import com.predman.content.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/v1/projects")
@@ -28,6 +42,8 @@ public class ProjectController {
     private final UserService userService;
     private final ProjectStatisticsService projectStatisticsService;
     private final ProjectMembershipUtil projectMembershipUtil;
+    private final ProjectVersionService projectVersionService;
+    private final PredictionHistoryService predictionHistoryService;
 
     @PostMapping
     public ProjectDto createProject(@Valid @RequestBody ProjectCreationDto projectCreationDto) {
@@ -40,9 +56,15 @@ public class ProjectController {
     }
 
     @GetMapping("/info/{project-id}")
-    public ProjectFullInfoDto getProjectFullInfoById(@PathVariable("project-id") UUID projectId) {
+    public CompletableFuture<ResponseEntity<ProjectFullInfoDto>> getProjectFullInfoById(
+            @PathVariable("project-id") UUID projectId, WebRequest webRequest) {
         projectMembershipUtil.checkSelfProjectMembership(projectId);
-        return projectService.getFullInfoById(projectId);
+        String eTag = projectVersionService.getETag(projectId);
+        if (webRequest.checkNotModified(eTag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+        }
+        return projectService.getFullInfoById(projectId)
+                .thenApply(fullInfo -> ResponseEntity.ok().eTag(eTag).body(fullInfo));
     }
 
     @GetMapping("/{project-id}")
@@ -65,8 +87,8 @@ public class ProjectController {
     }
 
     @PatchMapping("/{project-id}")
-    public ProjectFullInfoDto updateProject(@PathVariable("project-id") UUID projectId,
-                                            @RequestBody ProjectUpdateDto projectUpdateDto) {
+    public CompletableFuture<ProjectFullInfoDto> updateProject(@PathVariable("project-id") UUID projectId,
+                                                               @RequestBody ProjectUpdateDto projectUpdateDto) {
         Project project = projectService.getEntityById(projectId);
         projectMembershipUtil.checkSelfProjectMembership(projectId);
         return projectService.update(project, projectUpdateDto);
@@ -112,4 +134,41 @@ public class ProjectController {
         projectMembershipUtil.checkSelfProjectMembership(projectId);
         return projectStatisticsService.getProjectStatisticsByProjectId(projectId);
     }
+
+    @GetMapping("/statistics/{project-id}/history")
+    public ProjectStatisticsPageDto getProjectStatisticsHistory(
+            @PathVariable("project-id") UUID projectId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "bucket", required = false) StatisticsBucket bucket,
+            @RequestParam(value = "aggregate", defaultValue = "LAST") StatisticsAggregate aggregate) {
+        projectMembershipUtil.checkSelfProjectMembership(projectId);
+        return projectStatisticsService.getProjectStatisticsHistory(projectId, ProjectStatisticsHistoryRequestDto.builder()
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .limit(limit)
+                .bucket(bucket)
+                .aggregate(aggregate)
+                .build());
+    }
+
+    /** Reads stored predictions only; the model is never called. */
+    @GetMapping("/predictions/{project-id}/history")
+    public PredictionHistoryPageDto getPredictionHistory(
+            @PathVariable("project-id") UUID projectId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        projectMembershipUtil.checkSelfProjectMembership(projectId);
+        return predictionHistoryService.getPredictionHistory(projectId, PredictionHistoryRequestDto.builder()
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .limit(limit)
+                .build());
+    }
 }
@@ -3,6 +3,7 @@ package com.predman.content.controller;
 import com.predman.content.common.ProjectMembershipUtil;
 import com.predman.content.dto.task.*;
 import com.predman.content.dto.task_assignment.TaskAssignmentDto;
+import com.predman.content.dto.task_dependency.TaskDependencyBulkDto;
 import com.predman.content.dto.task_dependency.TaskDependencyDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Task;
@@ -10,7 +11,12 @@ import com.predman.content.entity.User;
 import com.predman.content.service.*;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +30,8 @@ public class TaskController {
     private final ProjectMembershipUtil projectMembershipUtil;
     private final TaskAssignmentService taskAssignmentService;
     private final TaskDependencyService taskDependencyService;
+    private final ProjectVersionService projectVersionService;
+    private final BoardEventService boardEventService;
 
     @PostMapping
     public TaskDto createTask(@RequestBody @Valid TaskCreationDto taskCreationDto) {
@@ -31,6 +39,24 @@ public class TaskController {
         return taskService.create(taskCreationDto);
     }
 
+    @PostMapping("/bulk")
+    public List<TaskDto> createTasks(@RequestBody @Valid TaskBulkCreationDto taskBulkCreationDto) {
+        projectMembershipUtil.checkSelfProjectMembership(taskBulkCreationDto.projectId());
+        return taskService.createAll(taskBulkCreationDto);
+    }
+
+    @PatchMapping("/bulk")
+    public List<TaskDto> updateTasks(@RequestBody @Valid TaskBulkUpdateDto taskBulkUpdateDto) {
+        projectMembershipUtil.checkSelfProjectMembership(taskBulkUpdateDto.projectId());
+        return taskService.updateAll(taskBulkUpdateDto);
+    }
+
+    @DeleteMapping("/bulk")
+    public void deleteTasks(@RequestBody @Valid TaskBulkDeletionDto taskBulkDeletionDto) {
+        projectMembershipUtil.checkSelfProjectMembership(taskBulkDeletionDto.projectId());
+        taskService.deleteAll(taskBulkDeletionDto);
+    }
+
     @DeleteMapping
     public void deleteTask(@RequestBody @Valid TaskProjectPairDto taskProjectPairDto) {
         projectMembershipUtil.checkSelfProjectMembership(taskProjectPairDto.projectId());
@@ -53,9 +79,20 @@ public class TaskController {
     }
 
     @GetMapping("/project/{project-id}")
-    public SortedTasksDto getAllTasksByProjectId(@PathVariable("project-id") UUID projectId) {
+    public ResponseEntity<SortedTasksDto> getAllTasksByProjectId(@PathVariable("project-id") UUID projectId,
+                                                                 WebRequest webRequest) {
         projectMembershipUtil.checkSelfProjectMembership(projectId);
-        return taskService.getSortedAllByProjectId(projectId);
+        String eTag = projectVersionService.getETag(projectId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(taskService.getSortedAllByProjectId(projectId));
+    }
+
+    @GetMapping(value = "/project/{project-id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBoardEvents(@PathVariable("project-id") UUID projectId) {
+        projectMembershipUtil.checkSelfProjectMembership(projectId);
+        return boardEventService.subscribe(projectId);
     }
 
     @PatchMapping("/{task-id}")
@@ -103,6 +140,12 @@ public class TaskController {
         return taskDependencyService.createTaskDependency(taskDependencyDto);
     }
 
+    @PostMapping("/dependency/bulk")
+    public List<TaskDependencyDto> addDependencies(@RequestBody @Valid TaskDependencyBulkDto taskDependencyBulkDto) {
+        projectMembershipUtil.checkSelfProjectMembership(taskDependencyBulkDto.projectId());
+        return taskDependencyService.createTaskDependencies(taskDependencyBulkDto);
+    }
+
     @DeleteMapping("/dependency")
     public void deleteDependency(@RequestBody @Valid TaskDependencyDto taskDependencyDto) {
         taskDependencyService.deleteTaskDependency(taskDependencyDto);
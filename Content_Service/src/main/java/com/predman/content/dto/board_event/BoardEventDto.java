@@ -0,0 +1,34 @@
+package com.predman.content.dto.board_event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.predman.content.common.BoardEventType;
+import com.predman.content.dto.task.TaskDto;
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * A single board change. Task events carry the task as it is after the change; for moves its
+ * {@code next} is the task it now precedes, or null when it went to the end of its column.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BoardEventDto(
+        BoardEventType type,
+
+        @JsonProperty("project_id")
+        UUID projectId,
+
+        @JsonProperty("task_id")
+        UUID taskId,
+
+        TaskDto task,
+
+        @JsonProperty("dependency_id")
+        UUID dependencyId,
+
+        @JsonProperty("user_id")
+        UUID userId
+) {
+}
@@ -10,8 +10,18 @@ public record PredictionDto(
     @JsonProperty(value = "certainty_percent")
     Double certaintyPercent,
 
-    @NonNull
+    /** Null when there was nothing to predict a deadline from. */
     @JsonProperty(value = "predicted_deadline")
-    Integer predictedDays
+    Integer predictedDays,
+
+    Double mu,
+
+    Double sigma,
+
+    @JsonProperty(value = "model_version")
+    String modelVersion
 ) {
+    public boolean hasDeadline() {
+        return predictedDays != null;
+    }
 }
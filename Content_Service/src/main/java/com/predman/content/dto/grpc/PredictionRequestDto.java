@@ -0,0 +1,20 @@
+package com.predman.content.dto.grpc;
+
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record PredictionRequestDto(
+    @NonNull
+    UUID projectId,
+
+    int estimatedDays,
+
+    @NonNull
+    List<ProjectStatisticsDto> statistics
+) {
+}
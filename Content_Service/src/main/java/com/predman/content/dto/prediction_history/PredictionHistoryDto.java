@@ -0,0 +1,39 @@
+package com.predman.content.dto.prediction_history;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+public record PredictionHistoryDto(
+    UUID id,
+
+    @JsonProperty(value = "model_version")
+    String modelVersion,
+
+    @JsonProperty(value = "estimated_days")
+    Integer estimatedDays,
+
+    @JsonProperty(value = "predicted_days")
+    Integer predictedDays,
+
+    Double mu,
+
+    Double sigma,
+
+    @JsonProperty(value = "certainty_percent")
+    Double certaintyPercent,
+
+    @JsonProperty(value = "statistics_id")
+    UUID statisticsId,
+
+    @JsonProperty(value = "statistics_saved_on")
+    LocalDate statisticsSavedOn,
+
+    @JsonProperty(value = "predicted_at")
+    LocalDateTime predictedAt
+) {
+}
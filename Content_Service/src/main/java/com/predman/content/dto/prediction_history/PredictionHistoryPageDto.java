@@ -0,0 +1,15 @@
+package com.predman.content.dto.prediction_history;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record PredictionHistoryPageDto(
+        List<PredictionHistoryDto> items,
+
+        @JsonProperty(value = "next_cursor")
+        String nextCursor
+) {
+}
@@ -0,0 +1,15 @@
+package com.predman.content.dto.prediction_history;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/** Filters of a prediction history page. {@code from} is inclusive and {@code to} exclusive. */
+@Builder
+public record PredictionHistoryRequestDto(
+        LocalDate from,
+        LocalDate to,
+        String cursor,
+        Integer limit
+) {
+}
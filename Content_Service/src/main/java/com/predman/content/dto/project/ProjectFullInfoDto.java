@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Builder
@@ -35,5 +36,8 @@ public record ProjectFullInfoDto(
     Double externalRiskProbability,
 
     @JsonProperty(value = "owner_id")
-    UUID ownerId
+    UUID ownerId,
+
+    @JsonProperty(value = "prediction_updated_at")
+    LocalDateTime predictionUpdatedAt
 ) { }
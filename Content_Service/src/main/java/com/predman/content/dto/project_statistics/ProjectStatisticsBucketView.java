@@ -0,0 +1,17 @@
+package com.predman.content.dto.project_statistics;
+
+import java.time.LocalDateTime;
+
+/** Averaged statistics of one history bucket, read from a native aggregate query. */
+public interface ProjectStatisticsBucketView {
+    LocalDateTime getBucketStart();
+    Double getTeamSize();
+    Double getDaysSinceStart();
+    Double getRemainingTasks();
+    Double getRemainingStoryPoints();
+    Double getDependencyCoefficient();
+    Double getCriticalPathLength();
+    Double getSumExperience();
+    Double getAvailableHours();
+    Double getExternalRiskProbability();
+}
@@ -0,0 +1,18 @@
+package com.predman.content.dto.project_statistics;
+
+import lombok.Builder;
+
+@Builder
+public record ProjectStatisticsDeltaDto(
+    int remainingTasks,
+
+    double remainingStoryPoints,
+
+    int teamSize,
+
+    boolean dependenciesChanged
+) {
+    public boolean isEmpty() {
+        return remainingTasks == 0 && remainingStoryPoints == 0 && teamSize == 0 && !dependenciesChanged;
+    }
+}
@@ -0,0 +1,22 @@
+package com.predman.content.dto.project_statistics;
+
+import com.predman.content.common.StatisticsAggregate;
+import com.predman.content.common.StatisticsBucket;
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of a statistics history page. {@code from} is inclusive and {@code to} exclusive;
+ * without a bucket every saved row is returned.
+ */
+@Builder
+public record ProjectStatisticsHistoryRequestDto(
+        LocalDate from,
+        LocalDate to,
+        String cursor,
+        Integer limit,
+        StatisticsBucket bucket,
+        StatisticsAggregate aggregate
+) {
+}
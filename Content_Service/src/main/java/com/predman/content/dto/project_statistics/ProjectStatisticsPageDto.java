@@ -0,0 +1,15 @@
+package com.predman.content.dto.project_statistics;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record ProjectStatisticsPageDto(
+        List<ProjectStatisticsDto> items,
+
+        @JsonProperty(value = "next_cursor")
+        String nextCursor
+) {
+}
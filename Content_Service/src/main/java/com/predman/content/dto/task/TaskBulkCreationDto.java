@@ -0,0 +1,21 @@
+package com.predman.content.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/** New planned tasks, inserted in list order right before {@code next} or at the end of the column. */
+@Builder
+public record TaskBulkCreationDto(
+        @JsonProperty("project_id")
+        @NonNull
+        UUID projectId,
+
+        UUID next,
+
+        @NonNull
+        List<TaskBulkItemDto> tasks
+) { }
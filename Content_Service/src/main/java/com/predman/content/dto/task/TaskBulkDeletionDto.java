@@ -0,0 +1,19 @@
+package com.predman.content.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record TaskBulkDeletionDto(
+        @JsonProperty("project_id")
+        @NonNull
+        UUID projectId,
+
+        @JsonProperty("task_ids")
+        @NonNull
+        List<UUID> taskIds
+) { }
@@ -0,0 +1,27 @@
+package com.predman.content.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.predman.content.common.TaskStatus;
+import lombok.Builder;
+import org.springframework.lang.NonNull;
+
+import java.util.UUID;
+
+/**
+ * One task of a bulk request. The id is chosen by the client; on update, null fields keep
+ * their current values and a changed status moves the task to the end of its new column.
+ */
+@Builder
+public record TaskBulkItemDto(
+        @NonNull
+        UUID id,
+
+        String name,
+
+        String description,
+
+        @JsonProperty("story_points")
+        Double storyPoints,
+
+        TaskStatus status
+) { }
@@ -0,0 +1,18 @@
+package com.predman.content.dto.task_dependency;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record TaskDependencyBulkDto(
+        @JsonProperty("project_id")
+        @NonNull
+        UUID projectId,
+
+        @NonNull
+        List<TaskDependencyDto> dependencies
+) { }
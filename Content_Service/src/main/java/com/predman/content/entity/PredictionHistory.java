@@ -0,0 +1,60 @@
+package com.predman.content.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
+
+/** One prediction as it was made; rows are only ever appended. */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "prediction_history")
+public class PredictionHistory {
+
+	@Id
+	@GeneratedValue
+	@UuidGenerator
+	private UUID id;
+
+	@Column(name = "project_id")
+	private UUID projectId;
+
+	@Column(name = "model_version")
+	private String modelVersion;
+
+	@Column(name = "estimated_days")
+	private Integer estimatedDays;
+
+	@Column(name = "predicted_days")
+	private Integer predictedDays;
+
+	@Column(name = "mu")
+	private Double mu;
+
+	@Column(name = "sigma")
+	private Double sigma;
+
+	@Column(name = "certainty_percent")
+	private Double certaintyPercent;
+
+	@Column(name = "statistics_id")
+	private UUID statisticsId;
+
+	/** Survives the weekly rollup, which replaces the rows {@code statisticsId} points at. */
+	@Column(name = "statistics_saved_on")
+	private LocalDate statisticsSavedOn;
+
+	@Column(name = "predicted_at")
+	private LocalDateTime predictedAt;
+}
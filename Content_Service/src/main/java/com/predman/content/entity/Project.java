@@ -55,6 +55,9 @@ public class Project {
 	@Column(name = "external_risk_probability")
 	private Double externalRiskProbability;
 
+	@Column(name = "prediction_updated_at")
+	private LocalDateTime predictionUpdatedAt;
+
 	@JoinColumn(name = "owner_id", referencedColumnName = "id")
 	@ManyToOne(fetch = FetchType.LAZY)
 	private User owner;
@@ -38,7 +38,7 @@ public class Task {
 
 	private Double storyPoints;
 
-	@OneToOne
+	@OneToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "next")
 	private Task next;
 
@@ -50,4 +50,7 @@ public class Task {
 
 	@Column(name = "updated_at")
 	private LocalDateTime updatedAt;
+
+	@Column(name = "board_rank")
+	private String boardRank;
 }
\ No newline at end of file
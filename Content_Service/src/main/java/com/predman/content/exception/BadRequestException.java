@@ -0,0 +1,5 @@
+package com.predman.content.exception;
+
+public class BadRequestException extends ServiceException{
+    public BadRequestException(String message) {super(message);}
+}
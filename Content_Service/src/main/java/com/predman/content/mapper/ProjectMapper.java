@@ -45,6 +45,7 @@ public class ProjectMapper {
                 .certaintyPercent(project.getCertaintyPercent())
                 .predictedDeadline(project.getPredictedDeadline())
                 .ownerId(project.getOwner().getId())
+                .predictionUpdatedAt(project.getPredictionUpdatedAt())
                 .build();
     }
 
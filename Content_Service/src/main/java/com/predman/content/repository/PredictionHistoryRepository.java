@@ -0,0 +1,27 @@
+package com.predman.content.repository;
+
+import com.predman.content.dto.prediction_history.PredictionHistoryDto;
+import com.predman.content.entity.PredictionHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface PredictionHistoryRepository extends JpaRepository<PredictionHistory, UUID> {
+    @Query("""
+    SELECT new com.predman.content.dto.prediction_history.PredictionHistoryDto(
+        ph.id, ph.modelVersion, ph.estimatedDays, ph.predictedDays, ph.mu, ph.sigma, ph.certaintyPercent,
+        ph.statisticsId, ph.statisticsSavedOn, ph.predictedAt)
+    FROM PredictionHistory ph
+    WHERE ph.projectId = :projectId
+    AND ph.predictedAt >= :from
+    AND ph.predictedAt < :to
+    AND (ph.predictedAt > :after OR (ph.predictedAt = :after AND ph.id > :afterId))
+    ORDER BY ph.predictedAt, ph.id
+    """)
+    List<PredictionHistoryDto> findHistoryPage(UUID projectId, LocalDateTime from, LocalDateTime to,
+                                               LocalDateTime after, UUID afterId, Limit limit);
+}
@@ -1,5 +1,6 @@
 package com.predman.content.repository;
 
+import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.ProjectMember;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -18,6 +19,16 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, UU
     @EntityGraph(attributePaths = {"project"})
     List<ProjectMember> findAllByUser_Id(UUID projectId);
 
+    @Query("""
+    SELECT new com.predman.content.dto.user.detailed.UserDto(u.id, u.login, u.email)
+    FROM ProjectMember pm
+    JOIN pm.user u
+    WHERE pm.project.id = :projectId
+    """)
+    List<UserDto> findUsersByProjectId(UUID projectId);
+
+    boolean existsByUser_IdAndProject_Id(UUID userId, UUID projectId);
+
     @Query("""
     SELECT pm FROM ProjectMember pm
     LEFT JOIN FETCH pm.user
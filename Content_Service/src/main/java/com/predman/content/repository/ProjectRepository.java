@@ -2,10 +2,55 @@ package com.predman.content.repository;
 
 import com.predman.content.entity.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
     List<Project> findByOwner_Id(UUID id);
+
+    /** Projects attempted since their last saved prediction are left out until {@code retryBefore}. */
+    @Query(value = """
+    SELECT p.*
+    FROM projects p
+    WHERE (p.prediction_updated_at IS NULL
+        OR p.prediction_updated_at < :staleBefore
+        OR EXISTS (
+            SELECT 1 FROM project_statistics ps
+            WHERE ps.project_id = p.id
+            AND ps.saved_at > p.prediction_updated_at
+        ))
+    AND (p.prediction_attempted_at IS NULL
+        OR p.prediction_attempted_at <= p.prediction_updated_at
+        OR p.prediction_attempted_at < :retryBefore)
+    """, nativeQuery = true)
+    List<Project> findAllWithStalePrediction(@Param("staleBefore") LocalDateTime staleBefore,
+                                             @Param("retryBefore") LocalDateTime retryBefore);
+
+    @Modifying
+    @Query(value = "UPDATE projects SET prediction_attempted_at = :attemptedAt WHERE id IN (:projectIds)",
+            nativeQuery = true)
+    int markPredictionAttempted(@Param("projectIds") Collection<UUID> projectIds,
+                                @Param("attemptedAt") LocalDateTime attemptedAt);
+
+    @Query(value = "SELECT board_version FROM projects WHERE id = :projectId", nativeQuery = true)
+    Optional<Long> findBoardVersion(@Param("projectId") UUID projectId);
+
+    /** Locks the project row until the transaction ends; foreign key checks of other writers are not blocked. */
+    @Query(value = "SELECT id FROM projects WHERE id = :projectId FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(@Param("projectId") UUID projectId);
+
+    @Modifying
+    @Query(value = """
+    UPDATE projects
+    SET board_version = board_version + 1
+    WHERE id = :projectId
+    """, nativeQuery = true)
+    int incrementBoardVersion(@Param("projectId") UUID projectId);
 }
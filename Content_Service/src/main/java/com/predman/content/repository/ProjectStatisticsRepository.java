@@ -1,29 +1,212 @@
 package com.predman.content.repository;
 
+import com.predman.content.dto.project_statistics.ProjectStatisticsBucketView;
 import com.predman.content.entity.ProjectStatistics;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface ProjectStatisticsRepository extends JpaRepository<ProjectStatistics, UUID> {
-    List<ProjectStatistics> findAllByProjectId(UUID projectId);
+    List<ProjectStatistics> findAllByProjectIdOrderBySavedAtAsc(UUID projectId);
+
+    List<ProjectStatistics> findAllByProjectIdInOrderBySavedAtAsc(Collection<UUID> projectIds);
+
+    @Query("""
+    SELECT ps
+    FROM ProjectStatistics ps
+    WHERE ps.project.id = :projectId
+    AND ps.savedAt >= :from
+    AND ps.savedAt < :to
+    AND (ps.savedAt > :after OR (ps.savedAt = :after AND ps.id > :afterId))
+    ORDER BY ps.savedAt, ps.id
+    """)
+    List<ProjectStatistics> findHistoryPage(UUID projectId, LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime after, UUID afterId, Limit limit);
 
     @Query(value = """
-    SELECT DISTINCT ON (ps.project_id) ps.*
+    SELECT ps.*
     FROM project_statistics ps
-    JOIN projects p ON ps.project_id = p.id
-    ORDER BY ps.project_id, ps.saved_at DESC
+    JOIN (
+        SELECT id,
+               date_trunc(:bucket, saved_at) AS bucket_start,
+               row_number() OVER (PARTITION BY date_trunc(:bucket, saved_at) ORDER BY saved_at DESC) AS position
+        FROM project_statistics
+        WHERE project_id = :projectId
+        AND saved_at >= :from
+        AND saved_at < :to
+    ) b ON b.id = ps.id
+    WHERE b.position = 1
+    AND b.bucket_start > :after
+    ORDER BY ps.saved_at
+    LIMIT :limit
+    """, nativeQuery = true)
+    List<ProjectStatistics> findHistoryBucketLasts(UUID projectId, String bucket, LocalDateTime from,
+                                                   LocalDateTime to, LocalDateTime after, int limit);
+
+    @Query(value = """
+    SELECT b.bucket_start AS "bucketStart",
+           avg(b.team_size)::double precision AS "teamSize",
+           avg(b.days_since_start)::double precision AS "daysSinceStart",
+           avg(b.remaining_tasks)::double precision AS "remainingTasks",
+           avg(b.remaining_story_points) AS "remainingStoryPoints",
+           avg(b.dependency_coefficient) AS "dependencyCoefficient",
+           avg(b.critical_path_length) AS "criticalPathLength",
+           avg(b.sum_experience) AS "sumExperience",
+           avg(b.available_hours) AS "availableHours",
+           avg(b.external_risk_probability) AS "externalRiskProbability"
+    FROM (
+        SELECT date_trunc(:bucket, ps.saved_at) AS bucket_start, ps.*
+        FROM project_statistics ps
+        WHERE ps.project_id = :projectId
+        AND ps.saved_at >= :from
+        AND ps.saved_at < :to
+    ) b
+    WHERE b.bucket_start > :after
+    GROUP BY b.bucket_start
+    ORDER BY b.bucket_start
+    LIMIT :limit
+    """, nativeQuery = true)
+    List<ProjectStatisticsBucketView> findHistoryBucketAverages(UUID projectId, String bucket, LocalDateTime from,
+                                                                LocalDateTime to, LocalDateTime after, int limit);
+
+    @Query(value = """
+    SELECT ps.*
+    FROM project_latest_statistics l
+    JOIN project_statistics ps ON ps.id = l.statistics_id AND ps.saved_at = l.saved_at
     """, nativeQuery = true)
     List<ProjectStatistics> findLatestStatisticsForAllProjects();
 
     @Query(value = """
-    SELECT DISTINCT ON (ps.project_id) ps.*
-    FROM project_statistics ps
-    JOIN projects p ON ps.project_id = p.id
-    WHERE ps.project_id = ?1
-    ORDER BY ps.project_id, ps.saved_at DESC
+    SELECT ps.*
+    FROM project_latest_statistics l
+    JOIN project_statistics ps ON ps.id = l.statistics_id AND ps.saved_at = l.saved_at
+    WHERE l.project_id = ?1
     """, nativeQuery = true)
     ProjectStatistics findLatestStatisticsByProjectId(UUID projectId);
+
+    /** Points the project at the snapshot unless it already points at a newer one. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    INSERT INTO project_latest_statistics (project_id, statistics_id, saved_at)
+    VALUES (:projectId, :statisticsId, :savedAt)
+    ON CONFLICT (project_id) DO UPDATE
+    SET statistics_id = excluded.statistics_id,
+        saved_at = excluded.saved_at
+    WHERE excluded.saved_at >= project_latest_statistics.saved_at
+    OR excluded.statistics_id = project_latest_statistics.statistics_id
+    """, nativeQuery = true)
+    int upsertLatestStatistics(UUID projectId, UUID statisticsId, LocalDateTime savedAt);
+
+    /** Re-points projects whose latest snapshot was removed by a rollup or a dropped partition. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    INSERT INTO project_latest_statistics (project_id, statistics_id, saved_at)
+    SELECT p.id, s.id, s.saved_at
+    FROM projects p
+    CROSS JOIN LATERAL (
+        SELECT id, saved_at
+        FROM project_statistics
+        WHERE project_id = p.id
+        ORDER BY saved_at DESC
+        LIMIT 1
+    ) s
+    WHERE NOT EXISTS (
+        SELECT 1
+        FROM project_latest_statistics l
+        JOIN project_statistics ps ON ps.id = l.statistics_id AND ps.saved_at = l.saved_at
+        WHERE l.project_id = p.id
+    )
+    ON CONFLICT (project_id) DO UPDATE
+    SET statistics_id = excluded.statistics_id,
+        saved_at = excluded.saved_at
+    """, nativeQuery = true)
+    int refreshDanglingLatestStatistics();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    UPDATE project_statistics
+    SET remaining_tasks = remaining_tasks + :remainingTasks,
+        remaining_story_points = remaining_story_points + :remainingStoryPoints,
+        team_size = team_size + :teamSize
+    WHERE id = :statisticsId
+    """, nativeQuery = true)
+    int applyDelta(UUID statisticsId, int remainingTasks, double remainingStoryPoints, int teamSize);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    UPDATE project_statistics ps
+    SET dependency_coefficient = CASE WHEN ps.remaining_tasks > 0 THEN (
+        SELECT count(DISTINCT td.task_id)
+        FROM task_dependencies td
+        JOIN tasks t ON t.id = td.task_id
+        JOIN tasks d ON d.id = td.dependency_id
+        WHERE t.project_id = ps.project_id
+        AND t.status <> 'COMPLETED'
+        AND d.status <> 'COMPLETED'
+    )::double precision / ps.remaining_tasks ELSE 0 END
+    WHERE ps.id = :statisticsId
+    """, nativeQuery = true)
+    int refreshDependencyCoefficient(UUID statisticsId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    UPDATE project_statistics
+    SET critical_path_length = :criticalPathLength
+    WHERE id = :statisticsId
+    """, nativeQuery = true)
+    int updateCriticalPathLength(UUID statisticsId, double criticalPathLength);
+
+    @Transactional
+    @Query(value = "SELECT create_project_statistics_partition(CAST(:month AS date))", nativeQuery = true)
+    boolean createPartition(LocalDate month);
+
+    @Transactional
+    @Query(value = "SELECT drop_project_statistics_partitions_before(CAST(:month AS date))", nativeQuery = true)
+    int dropPartitionsBefore(LocalDate month);
+
+    /**
+     * Replaces the daily rows of every week that ends before {@code before} with one row holding the
+     * week's averages, saved at the time of the week's last row. {@code before} must be a week start so
+     * weeks are never split, which makes the rollup idempotent.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+    WITH rolled_up AS (
+        DELETE FROM project_statistics ps
+        WHERE ps.saved_at < :before
+        AND (ps.project_id, date_trunc('week', ps.saved_at)) IN (
+            SELECT project_id, date_trunc('week', saved_at)
+            FROM project_statistics
+            WHERE saved_at < :before
+            GROUP BY project_id, date_trunc('week', saved_at)
+            HAVING count(*) > 1
+        )
+        RETURNING ps.*
+    )
+    INSERT INTO project_statistics (project_id, team_size, days_since_start, remaining_tasks,
+                                    remaining_story_points, dependency_coefficient, critical_path_length,
+                                    sum_experience, available_hours, external_risk_probability, saved_at)
+    SELECT project_id,
+           round(avg(team_size)),
+           max(days_since_start),
+           round(avg(remaining_tasks)),
+           avg(remaining_story_points),
+           avg(dependency_coefficient),
+           avg(critical_path_length),
+           avg(sum_experience),
+           avg(available_hours),
+           avg(external_risk_probability),
+           max(saved_at)
+    FROM rolled_up
+    GROUP BY project_id, date_trunc('week', saved_at)
+    """, nativeQuery = true)
+    int rollUpWeekly(LocalDateTime before);
 }
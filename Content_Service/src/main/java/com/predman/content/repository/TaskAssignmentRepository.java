@@ -1,18 +1,36 @@
 package com.predman.content.repository;
 
+import com.predman.content.dto.task.TaskDto;
+import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.TaskAssignment;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment, UUID> {
-    @EntityGraph(attributePaths = {"task"})
-    List<TaskAssignment> findAllByUser_Id(UUID userId);
-
     @EntityGraph(attributePaths = {"user"})
     List<TaskAssignment> findAllByTask_Id(UUID taskId);
 
+    @Query("""
+    SELECT new com.predman.content.dto.task.TaskDto(
+        t.id, t.project.id, t.name, t.description, t.storyPoints, n.id, t.status)
+    FROM TaskAssignment ta
+    JOIN ta.task t
+    LEFT JOIN t.next n
+    WHERE ta.user.id = :userId
+    """)
+    List<TaskDto> findTasksByUserId(UUID userId);
+
+    @Query("""
+    SELECT new com.predman.content.dto.user.detailed.UserDto(u.id, u.login, u.email)
+    FROM TaskAssignment ta
+    JOIN ta.user u
+    WHERE ta.task.id = :taskId
+    """)
+    List<UserDto> findAssigneesByTaskId(UUID taskId);
+
     void deleteAllByUser_Id(UUID userId);
 }
@@ -0,0 +1,99 @@
+package com.predman.content.repository;
+
+import com.predman.content.common.TaskGraph;
+import com.predman.content.entity.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plain JDBC writes for bulk task operations. Rows are sent in batches of
+ * {@code predman.tasks.jdbc-batch-size} statements and take part in the surrounding JPA
+ * transaction, but bypass the persistence context, so callers must not rely on managed
+ * {@link Task} entities reflecting these writes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${predman.tasks.jdbc-batch-size:100}")
+    private int batchSize = 100;
+
+    public void insertAll(UUID projectId, Collection<Task> tasks) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO tasks (id, project_id, name, description, story_points, status,
+                                   created_at, updated_at, board_rank)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, tasks, batchSize, (statement, task) -> {
+            statement.setObject(1, task.getId(), Types.OTHER);
+            statement.setObject(2, projectId, Types.OTHER);
+            statement.setString(3, task.getName());
+            statement.setString(4, task.getDescription());
+            statement.setObject(5, task.getStoryPoints(), Types.DOUBLE);
+            statement.setString(6, task.getStatus().name());
+            statement.setObject(7, task.getCreatedAt());
+            statement.setObject(8, task.getUpdatedAt());
+            statement.setString(9, task.getBoardRank());
+        });
+    }
+
+    /** A null board rank keeps the stored one. */
+    public void updateAll(Collection<Task> tasks) {
+        jdbcTemplate.batchUpdate("""
+                UPDATE tasks
+                SET name = ?, description = ?, story_points = ?, status = ?, updated_at = ?,
+                    board_rank = COALESCE(?, board_rank)
+                WHERE id = ?
+                """, tasks, batchSize, (statement, task) -> {
+            statement.setString(1, task.getName());
+            statement.setString(2, task.getDescription());
+            statement.setObject(3, task.getStoryPoints(), Types.DOUBLE);
+            statement.setString(4, task.getStatus().name());
+            statement.setObject(5, task.getUpdatedAt());
+            statement.setString(6, task.getBoardRank());
+            statement.setObject(7, task.getId(), Types.OTHER);
+        });
+    }
+
+    /** Sets the {@code next} link of every key to its value, which may be null. */
+    public void updateNext(Map<UUID, UUID> nextById) {
+        jdbcTemplate.batchUpdate("UPDATE tasks SET next = ? WHERE id = ?",
+                new ArrayList<>(nextById.entrySet()), batchSize, (statement, entry) -> {
+            statement.setObject(1, entry.getValue(), Types.OTHER);
+            statement.setObject(2, entry.getKey(), Types.OTHER);
+        });
+    }
+
+    /** Clears links pointing at the deleted tasks, then deletes them with a single statement. */
+    public int deleteAll(UUID projectId, Collection<UUID> taskIds) {
+        jdbcTemplate.update("UPDATE tasks SET next = NULL WHERE next = ANY(?)",
+                statement -> setUuidArray(statement, 1, taskIds));
+        return jdbcTemplate.update("DELETE FROM tasks WHERE project_id = ? AND id = ANY(?)", statement -> {
+            statement.setObject(1, projectId, Types.OTHER);
+            setUuidArray(statement, 2, taskIds);
+        });
+    }
+
+    public void insertDependencies(Collection<TaskGraph.Edge> edges) {
+        jdbcTemplate.batchUpdate("INSERT INTO task_dependencies (task_id, dependency_id) VALUES (?, ?)",
+                edges, batchSize, (statement, edge) -> {
+            statement.setObject(1, edge.taskId(), Types.OTHER);
+            statement.setObject(2, edge.dependencyId(), Types.OTHER);
+        });
+    }
+
+    private static void setUuidArray(PreparedStatement statement, int index, Collection<UUID> ids)
+            throws SQLException {
+        statement.setArray(index, statement.getConnection().createArrayOf("uuid", ids.toArray()));
+    }
+}
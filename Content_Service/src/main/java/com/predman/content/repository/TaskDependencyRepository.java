@@ -1,8 +1,8 @@
 package com.predman.content.repository;
 
+import com.predman.content.dto.task_dependency.TaskDependencyDto;
 import com.predman.content.entity.TaskDependency;
 import jakarta.transaction.Transactional;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,8 +11,12 @@ import java.util.List;
 import java.util.UUID;
 
 public interface TaskDependencyRepository extends JpaRepository<TaskDependency, UUID> {
-    @EntityGraph(attributePaths = {"task"})
-    List<TaskDependency> findAllByTaskId(UUID taskId);
+    @Query("""
+    SELECT new com.predman.content.dto.task_dependency.TaskDependencyDto(td.task.id, td.dependency.id)
+    FROM TaskDependency td
+    WHERE td.task.id = :taskId
+    """)
+    List<TaskDependencyDto> findDependenciesByTaskId(UUID taskId);
 
     @Transactional
     @Modifying(clearAutomatically = true)
@@ -23,11 +27,11 @@ public interface TaskDependencyRepository extends JpaRepository<TaskDependency,
     """, nativeQuery = true)
     int deleteByIdPair(UUID taskId, UUID dependencyId);
 
-    @Query(value = """
-    SELECT td.*
-    FROM task_dependencies td
-    JOIN tasks t ON t.id = td.task_id
-    WHERE project_id = ?1
-    """, nativeQuery = true)
-    List<TaskDependency> findAllByProjectId(UUID projectId);
+    @Query("""
+    SELECT new com.predman.content.dto.task_dependency.TaskDependencyDto(td.task.id, td.dependency.id)
+    FROM TaskDependency td
+    JOIN td.task t
+    WHERE t.project.id = :projectId
+    """)
+    List<TaskDependencyDto> findDependenciesByProjectId(UUID projectId);
 }
@@ -1,12 +1,118 @@
 package com.predman.content.repository;
 
+import com.predman.content.common.TaskStatus;
+import com.predman.content.dto.task.TaskDto;
 import com.predman.content.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TaskRepository extends JpaRepository<Task, UUID> {
-    List<Task> findByProjectId(UUID projectId);
     List<Task> findByNext(Task next);
+    Optional<Task> findFirstByProjectIdAndStatusOrderByBoardRankDesc(UUID projectId, TaskStatus status);
+    Optional<Task> findFirstByProjectIdAndStatusAndBoardRankLessThanOrderByBoardRankDesc(
+            UUID projectId, TaskStatus status, String boardRank);
+    boolean existsByProjectIdAndBoardRankIsNull(UUID projectId);
+    long countByIdIn(Collection<UUID> ids);
+    long countByProjectIdAndIdIn(UUID projectId, Collection<UUID> ids);
+
+    @Query("""
+    SELECT new com.predman.content.dto.task.TaskDto(
+        t.id, t.project.id, t.name, t.description, t.storyPoints, n.id, t.status)
+    FROM Task t
+    LEFT JOIN t.next n
+    WHERE t.project.id = :projectId
+    ORDER BY t.boardRank
+    """)
+    List<TaskDto> findBoardTasksByProjectId(UUID projectId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+    UPDATE tasks
+    SET next = NULL
+    WHERE next = :taskId
+    """, nativeQuery = true)
+    int clearNextReferences(UUID taskId);
+
+    @Query(value = """
+    SELECT DISTINCT project_id
+    FROM tasks
+    WHERE board_rank IS NULL
+    OR length(board_rank) > :maxLength
+    """, nativeQuery = true)
+    List<UUID> findProjectIdsNeedingRankRebalance(int maxLength);
+
+    @Modifying
+    @Query(value = """
+    UPDATE tasks
+    SET board_rank = NULL
+    WHERE id IN (:taskIds)
+    """, nativeQuery = true)
+    int clearBoardRanks(Collection<UUID> taskIds);
+
+    /** Ranks every task of the project by its position in the {@code next} chain of its column. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+    WITH RECURSIVE project_tasks AS (
+        SELECT id, next, status, created_at
+        FROM tasks
+        WHERE project_id = :projectId
+    ),
+    chain AS (
+        SELECT t.id AS head_id, t.id, t.next, t.status, 0 AS pos
+        FROM project_tasks t
+        WHERE NOT EXISTS (
+            SELECT 1
+            FROM project_tasks p
+            WHERE p.next = t.id
+            AND p.status = t.status
+        )
+        UNION ALL
+        SELECT c.head_id, n.id, n.next, n.status, c.pos + 1
+        FROM chain c
+        JOIN project_tasks n ON n.id = c.next AND n.status = c.status
+        WHERE c.pos < 100000
+    ),
+    first_visit AS (
+        SELECT DISTINCT ON (id) id, head_id, pos
+        FROM chain
+        ORDER BY id, pos
+    ),
+    ordered AS (
+        SELECT t.id, row_number() OVER (
+            PARTITION BY t.status
+            ORDER BY f.id IS NULL, h.created_at, f.head_id, f.pos, t.created_at, t.id
+        ) AS pos
+        FROM project_tasks t
+        LEFT JOIN first_visit f ON f.id = t.id
+        LEFT JOIN project_tasks h ON h.id = f.head_id
+    )
+    UPDATE tasks t
+    SET board_rank = rtrim(lpad((o.pos * 1000)::text, 12, '0'), '0')
+    FROM ordered o
+    WHERE o.id = t.id
+    """, nativeQuery = true)
+    int seedRanksFromLinks(UUID projectId);
+
+    /** Respaces the existing rank order of a project whose tasks are all ranked. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+    UPDATE tasks t
+    SET board_rank = rtrim(lpad((o.pos * 1000)::text, 12, '0'), '0')
+    FROM (
+        SELECT id, row_number() OVER (
+            PARTITION BY status
+            ORDER BY board_rank, created_at, id
+        ) AS pos
+        FROM tasks
+        WHERE project_id = :projectId
+    ) o
+    WHERE o.id = t.id
+    """, nativeQuery = true)
+    int rebalanceRanks(UUID projectId);
 }
@@ -0,0 +1,12 @@
+package com.predman.content.service;
+
+import com.predman.content.dto.board_event.BoardEventDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface BoardEventService {
+    SseEmitter subscribe(UUID projectId);
+    void publish(BoardEventDto event);
+    void sendHeartbeats();
+}
@@ -0,0 +1,171 @@
+package com.predman.content.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.predman.content.dto.board_event.BoardEventDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of open board streams. An idle subscriber is only an emitter in a map: events are
+ * serialized once per change after the surrounding transaction commits, and each subscriber
+ * drains its own queue on a virtual thread, so a slow client never delays the others.
+ */
+@Slf4j
+@Service
+public class BoardEventServiceImpl implements BoardEventService {
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${predman.board-events.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    /** Subscribers that fall further behind are disconnected and reload the board on reconnect. */
+    @Value("${predman.board-events.max-pending:256}")
+    private int maxPending = 256;
+
+    BoardEventServiceImpl(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        Gauge.builder("predman.board_events.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(UUID projectId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(projectId, emitter);
+        subscribers.compute(projectId, (id, projectSubscribers) -> {
+            Set<Subscriber> result = projectSubscribers == null ? ConcurrentHashMap.newKeySet() : projectSubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        return emitter;
+    }
+
+    @Override
+    public void publish(BoardEventDto event) {
+        if (!subscribers.containsKey(event.projectId())) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(event);
+            }
+        });
+    }
+
+    @Override
+    public void sendHeartbeats() {
+        for (Set<Subscriber> projectSubscribers : subscribers.values()) {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+            projectSubscribers.forEach(subscriber -> subscriber.enqueue(frame));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(projectSubscribers ->
+                projectSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void dispatch(BoardEventDto event) {
+        Set<Subscriber> projectSubscribers = subscribers.get(event.projectId());
+        if (projectSubscribers == null) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        }
+        catch (JsonProcessingException e) {
+            log.warn("Could not serialize board event {}", event.type(), e);
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .name(event.type().name())
+                .data(data)
+                .build();
+        projectSubscribers.forEach(subscriber -> subscriber.enqueue(frame));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.projectId, (id, projectSubscribers) -> {
+            projectSubscribers.remove(subscriber);
+            return projectSubscribers.isEmpty() ? null : projectSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final UUID projectId;
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(UUID projectId, SseEmitter emitter) {
+            this.projectId = projectId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (pendingCount.incrementAndGet() > maxPending) {
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            pending.add(frame);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        /** Sends queued frames in order; at most one drain per subscriber runs at a time. */
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while ((frame = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        emitter.send(frame);
+                    }
+                    catch (IOException | IllegalStateException e) {
+                        unsubscribe(this);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.predman.content.service;
+
+import com.predman.content.common.TaskGraph;
+import com.predman.content.common.TaskStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CriticalPathService {
+    double getCriticalPathLength(UUID projectId);
+    void checkDependency(UUID projectId, UUID taskId, UUID dependencyId);
+    List<TaskGraph.Edge> checkDependencies(UUID projectId, List<TaskGraph.Edge> edges);
+    void addDependency(UUID projectId, UUID taskId, UUID dependencyId);
+    void removeDependency(UUID projectId, UUID taskId, UUID dependencyId);
+    void putTask(UUID projectId, UUID taskId, Double storyPoints, TaskStatus status);
+    void removeTask(UUID projectId, UUID taskId);
+    void invalidate(UUID projectId);
+}
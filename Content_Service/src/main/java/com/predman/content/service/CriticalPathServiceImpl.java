@@ -0,0 +1,215 @@
+package com.predman.content.service;
+
+import com.predman.content.common.TaskGraph;
+import com.predman.content.common.TaskStatus;
+import com.predman.content.common.TransactionHooks;
+import com.predman.content.dto.task.TaskDto;
+import com.predman.content.exception.ForbiddenException;
+import com.predman.content.exception.NotFoundException;
+import com.predman.content.repository.TaskDependencyRepository;
+import com.predman.content.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link TaskGraph} per recently used project so that task and dependency changes
+ * update the critical path incrementally instead of reloading the whole project.
+ * <p>
+ * Changes made inside a transaction are applied to the cached graph right away, so a writer that
+ * holds the project lock next sees them, and again after commit for a graph loaded concurrently
+ * from committed rows. A rollback, or any graph loaded inside a transaction that then rolls back,
+ * drops the project from the cache.
+ */
+@Slf4j
+@Service
+public class CriticalPathServiceImpl implements CriticalPathService {
+    private final TaskRepository taskRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final int maxProjects;
+    private final Map<UUID, TaskGraph> graphsByProject;
+
+    public CriticalPathServiceImpl(TaskRepository taskRepository,
+                                   TaskDependencyRepository taskDependencyRepository,
+                                   @Value("${predman.critical-path.max-projects:1000}") int maxProjects) {
+        this.taskRepository = taskRepository;
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.maxProjects = maxProjects;
+        this.graphsByProject = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, TaskGraph> eldest) {
+                return size() > CriticalPathServiceImpl.this.maxProjects;
+            }
+        };
+    }
+
+    @Override
+    public double getCriticalPathLength(UUID projectId) {
+        TaskGraph graph = getGraph(projectId);
+        synchronized (graph) {
+            return graph.getCriticalPathLength();
+        }
+    }
+
+    @Override
+    public void checkDependency(UUID projectId, UUID taskId, UUID dependencyId) {
+        TaskGraph graph = getGraphContaining(projectId, Set.of(taskId, dependencyId));
+        synchronized (graph) {
+            if (graph.wouldCreateCycle(taskId, dependencyId)) {
+                throw new ForbiddenException("Task with id: " + taskId + " cannot depend on task with id: "
+                        + dependencyId + " because it would create a cycle");
+            }
+        }
+    }
+
+    /**
+     * Rejects the whole batch if it would close a cycle and returns the edges, without
+     * duplicates, that are not stored yet.
+     */
+    @Override
+    public List<TaskGraph.Edge> checkDependencies(UUID projectId, List<TaskGraph.Edge> edges) {
+        TaskGraph graph = getGraphContaining(projectId, edges.stream()
+                .flatMap(edge -> Set.of(edge.taskId(), edge.dependencyId()).stream())
+                .collect(Collectors.toSet()));
+        synchronized (graph) {
+            if (graph.wouldCreateCycle(edges)) {
+                throw new ForbiddenException("These dependencies would create a cycle");
+            }
+            return new LinkedHashSet<>(edges).stream()
+                    .filter(edge -> !graph.hasDependency(edge.taskId(), edge.dependencyId()))
+                    .toList();
+        }
+    }
+
+    @Override
+    public void addDependency(UUID projectId, UUID taskId, UUID dependencyId) {
+        updateCached(projectId, graph -> graph.addDependency(taskId, dependencyId));
+    }
+
+    @Override
+    public void removeDependency(UUID projectId, UUID taskId, UUID dependencyId) {
+        updateCached(projectId, graph -> graph.removeDependency(taskId, dependencyId));
+    }
+
+    @Override
+    public void putTask(UUID projectId, UUID taskId, Double storyPoints, TaskStatus status) {
+        updateCached(projectId, graph -> graph.putTask(taskId, storyPoints == null ? 0 : storyPoints,
+                isActive(status)));
+    }
+
+    @Override
+    public void removeTask(UUID projectId, UUID taskId) {
+        updateCached(projectId, graph -> graph.removeTask(taskId));
+    }
+
+    /** Drops the cached graph now and again after commit, when the changed rows become visible to loaders. */
+    @Override
+    public void invalidate(UUID projectId) {
+        evict(projectId);
+        TransactionHooks.afterCommit(() -> evict(projectId));
+    }
+
+    private void evict(UUID projectId) {
+        synchronized (graphsByProject) {
+            graphsByProject.remove(projectId);
+        }
+    }
+
+    private void updateCached(UUID projectId, Consumer<TaskGraph> update) {
+        applyToCached(projectId, update);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionHooks.afterCommit(() -> applyToCached(projectId, update));
+            TransactionHooks.afterRollback(() -> evict(projectId));
+        }
+    }
+
+    /** Changes are idempotent, so applying one to a graph that already holds it is harmless. */
+    private void applyToCached(UUID projectId, Consumer<TaskGraph> update) {
+        TaskGraph graph;
+        synchronized (graphsByProject) {
+            graph = graphsByProject.get(projectId);
+        }
+        if (graph == null) {
+            return;
+        }
+        try {
+            synchronized (graph) {
+                update.accept(graph);
+            }
+        }
+        catch (IllegalStateException e) {
+            log.warn("Cached graph of project {} is out of date and is reloaded: {}", projectId, e.getMessage());
+            evict(projectId);
+        }
+    }
+
+    /**
+     * Returns the project graph, reloading it once if it misses one of the given tasks. Tasks that are
+     * still missing do not belong to the project.
+     */
+    private TaskGraph getGraphContaining(UUID projectId, Set<UUID> taskIds) {
+        TaskGraph graph = getGraph(projectId);
+        if (containsAll(graph, taskIds)) {
+            return graph;
+        }
+        evict(projectId);
+        graph = getGraph(projectId);
+        if (!containsAll(graph, taskIds)) {
+            throw new NotFoundException("Some tasks were not found in project with id: " + projectId);
+        }
+        return graph;
+    }
+
+    private static boolean containsAll(TaskGraph graph, Set<UUID> taskIds) {
+        synchronized (graph) {
+            return taskIds.stream().allMatch(graph::containsTask);
+        }
+    }
+
+    private TaskGraph getGraph(UUID projectId) {
+        TaskGraph graph;
+        synchronized (graphsByProject) {
+            graph = graphsByProject.get(projectId);
+        }
+        if (graph != null) {
+            return graph;
+        }
+        graph = loadGraph(projectId);
+        // The load may have flushed and read rows of the current transaction.
+        TransactionHooks.afterRollback(() -> evict(projectId));
+        synchronized (graphsByProject) {
+            TaskGraph existing = graphsByProject.putIfAbsent(projectId, graph);
+            return existing == null ? graph : existing;
+        }
+    }
+
+    private static boolean isActive(TaskStatus status) {
+        return !TaskStatus.COMPLETED.equals(status);
+    }
+
+    private TaskGraph loadGraph(UUID projectId) {
+        List<TaskGraph.Node> nodes = taskRepository.findBoardTasksByProjectId(projectId).stream()
+                .map((TaskDto task) -> new TaskGraph.Node(task.id(),
+                        task.storyPoints() == null ? 0 : task.storyPoints(), isActive(task.status())))
+                .toList();
+        List<TaskGraph.Edge> edges = taskDependencyRepository.findDependenciesByProjectId(projectId).stream()
+                .map(dependency -> new TaskGraph.Edge(dependency.taskId(), dependency.dependencyId()))
+                .toList();
+        TaskGraph graph = TaskGraph.of(nodes, edges);
+        if (graph.isCyclic()) {
+            log.warn("Dependencies of project {} contain a cycle; tasks on it are left out of the critical path",
+                    projectId);
+        }
+        return graph;
+    }
+}
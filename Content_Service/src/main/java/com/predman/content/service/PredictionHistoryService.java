@@ -0,0 +1,14 @@
+package com.predman.content.service;
+
+import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.grpc.PredictionRequestDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryPageDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryRequestDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PredictionHistoryService {
+    void recordPredictions(List<PredictionRequestDto> requests, List<PredictionDto> predictions);
+    PredictionHistoryPageDto getPredictionHistory(UUID projectId, PredictionHistoryRequestDto request);
+}
@@ -0,0 +1,80 @@
+package com.predman.content.service;
+
+import com.predman.content.common.HistoryPage;
+import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.grpc.PredictionRequestDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryPageDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.content.entity.PredictionHistory;
+import com.predman.content.repository.PredictionHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class PredictionHistoryServiceImpl implements PredictionHistoryService {
+    private final PredictionHistoryRepository predictionHistoryRepository;
+
+    @Value("${predman.prediction.history.default-page-size:100}")
+    private int defaultHistoryPageSize = 100;
+
+    @Value("${predman.prediction.history.max-page-size:1000}")
+    private int maxHistoryPageSize = 1000;
+
+    /**
+     * Appends one row per prediction, pointing at the newest statistics snapshot the prediction was
+     * made from by id and by day; the day still identifies the input after the weekly rollup has
+     * replaced the row. Predictions without a deadline are not recorded. All rows are inserted in one batch.
+     */
+    @Override
+    public void recordPredictions(List<PredictionRequestDto> requests, List<PredictionDto> predictions) {
+        LocalDateTime predictedAt = LocalDateTime.now();
+        List<PredictionHistory> history = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            PredictionRequestDto request = requests.get(i);
+            PredictionDto prediction = predictions.get(i);
+            if (!prediction.hasDeadline()) {
+                continue;
+            }
+            ProjectStatisticsDto input = request.statistics().isEmpty() ? null : request.statistics().getLast();
+            history.add(PredictionHistory.builder()
+                    .projectId(request.projectId())
+                    .modelVersion(prediction.modelVersion())
+                    .estimatedDays(request.estimatedDays())
+                    .predictedDays(prediction.predictedDays())
+                    .mu(prediction.mu())
+                    .sigma(prediction.sigma())
+                    .certaintyPercent(prediction.certaintyPercent())
+                    .statisticsId(input == null ? null : input.id())
+                    .statisticsSavedOn(input == null ? null : input.savedAt())
+                    .predictedAt(predictedAt)
+                    .build());
+        }
+        predictionHistoryRepository.saveAll(history);
+    }
+
+    /**
+     * Returns one keyset page of the predictions made for the project, ordered by {@code predicted_at}
+     * and id, as described by {@link HistoryPage}.
+     */
+    @Override
+    public PredictionHistoryPageDto getPredictionHistory(UUID projectId, PredictionHistoryRequestDto request) {
+        HistoryPage page = HistoryPage.of(request.from(), request.to(), request.cursor(), request.limit(),
+                defaultHistoryPageSize, maxHistoryPageSize, "prediction history");
+        List<PredictionHistoryDto> items = predictionHistoryRepository.findHistoryPage(
+                projectId, page.from(), page.to(), page.after(), page.afterId(), Limit.of(page.limit()));
+        return PredictionHistoryPageDto.builder()
+                .items(items)
+                .nextCursor(page.nextCursor(items, PredictionHistoryDto::predictedAt, PredictionHistoryDto::id))
+                .build();
+    }
+}
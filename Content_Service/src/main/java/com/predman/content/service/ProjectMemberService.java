@@ -13,6 +13,7 @@ import java.util.UUID;
 public interface ProjectMemberService {
     List<UserDto> getUsersByProjectId(UUID projectId);
     List<ProjectDto> getProjectsByUserId(UUID userId);
+    boolean isProjectMember(UUID userId, UUID projectId);
     UserDto addProjectMember(User fetchedUser, Project fetchedProject);
     UserDto addProjectMemberStatUpdate(User fetchedUser, Project fetchedProject);
     void removeProjectMember(ProjectMemberDto projectMemberDto);
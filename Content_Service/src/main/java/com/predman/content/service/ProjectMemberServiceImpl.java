@@ -1,7 +1,9 @@
 package com.predman.content.service;
 
+import com.predman.content.common.ProjectMembershipCache;
 import com.predman.content.dto.project.ProjectDto;
 import com.predman.content.dto.project_member.ProjectMemberDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Project;
 import com.predman.content.entity.ProjectMember;
@@ -26,26 +28,27 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
     private final ProjectMapper projectMapper;
     private final ProjectService projectService;
     private final ProjectStatisticsService projectStatisticsService;
+    private final ProjectMembershipCache projectMembershipCache;
 
     public ProjectMemberServiceImpl(ProjectMemberRepository projectMemberRepository,
                                     @Lazy UserService userService,
                                     ProjectMapper projectMapper,
                                     ProjectService projectService,
                                     UserMapper userMapper,
-                                    @Lazy ProjectStatisticsService projectStatisticsService) {
+                                    @Lazy ProjectStatisticsService projectStatisticsService,
+                                    ProjectMembershipCache projectMembershipCache) {
         this.projectMemberRepository = projectMemberRepository;
         this.projectMapper = projectMapper;
         this.projectService = projectService;
         this.userMapper = userMapper;
         this.projectStatisticsService = projectStatisticsService;
+        this.projectMembershipCache = projectMembershipCache;
     }
 
     @Override
     public List<UserDto> getUsersByProjectId(UUID projectId)
     {
-        List<ProjectMember> projectMembers = projectMemberRepository.findAllByProject_Id(projectId);
-        return projectMembers.stream().map((ProjectMember projectMember) ->
-                userMapper.convertToUserDto(projectMember.getUser())).toList();
+        return projectMemberRepository.findUsersByProjectId(projectId);
     }
 
     @Override
@@ -56,12 +59,20 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
                 projectMapper.convertToProjectDto(projectMember.getProject())).toList();
     }
 
+    @Override
+    public boolean isProjectMember(UUID userId, UUID projectId)
+    {
+        return projectMembershipCache.isMember(userId, projectId,
+                projectMemberRepository::existsByUser_IdAndProject_Id);
+    }
+
     @Override
     @Transactional
     public UserDto addProjectMemberStatUpdate(User fetchedUser, Project fetchedProject)
     {
         UserDto userDto = addProjectMember(fetchedUser, fetchedProject);
-        projectStatisticsService.updateStatistics(fetchedProject.getId());
+        projectStatisticsService.applyStatisticsDelta(fetchedProject.getId(),
+                ProjectStatisticsDeltaDto.builder().teamSize(1).build());
         return userDto;
     }
 
@@ -84,6 +95,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
                 .project(fetchedProject)
                 .joinedAt(LocalDateTime.now())
                 .build());
+        projectMembershipCache.evictUser(fetchedUser.getId());
 
         return userMapper.convertToUserDto(fetchedUser);
     }
@@ -104,22 +116,36 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
             projectMemberRepository.deleteById(entry.getId());
         }
         projectMemberRepository.deleteById(entry.getId());
+        projectMembershipCache.evictUser(projectMemberDto.userId());
         if (projectMemberRepository.findAllByProject_Id(projectMemberDto.projectId()).isEmpty()) {
             projectService.delete(projectService.getEntityById(projectMemberDto.projectId()));
         }
         else {
-            projectStatisticsService.updateStatistics(project.getId());
+            projectStatisticsService.applyStatisticsDelta(project.getId(),
+                    ProjectStatisticsDeltaDto.builder().teamSize(-1).build());
         }
     }
 
     @Override
     public void deleteAllByProjectId (UUID projectId) {
         projectMemberRepository.deleteAllByProject_Id(projectId);
+        projectMembershipCache.evictProject(projectId);
     }
 
+    /** Removes the user from every project and shrinks the team size of each of them by one. */
     @Override
+    @Transactional
     public void deleteAllByUserId (UUID userId) {
+        List<UUID> projectIds = projectMemberRepository.findAllByUser_Id(userId).stream()
+                .map(projectMember -> projectMember.getProject().getId())
+                .distinct()
+                .toList();
         projectMemberRepository.deleteAllByUser_Id(userId);
+        projectMembershipCache.evictUser(userId);
+        for (UUID projectId : projectIds) {
+            projectStatisticsService.applyStatisticsDelta(projectId,
+                    ProjectStatisticsDeltaDto.builder().teamSize(-1).build());
+        }
     }
 
     @Override
@@ -4,17 +4,21 @@ import com.predman.content.dto.project.*;
 import com.predman.content.entity.Project;
 import com.predman.content.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface ProjectService {
     Project getEntityById(UUID id);
     ProjectDto create(ProjectCreationDto projectCreationDto);
-    ProjectFullInfoDto update(Project project, ProjectUpdateDto projectUpdateDto);
-    ProjectFullInfoDto updatePrediction(Project project);
+    CompletableFuture<ProjectFullInfoDto> update(Project project, ProjectUpdateDto projectUpdateDto);
+    CompletableFuture<ProjectFullInfoDto> updatePrediction(Project project);
+    List<UUID> updatePredictions(List<Project> projects);
     ProjectDto getById(UUID id);
     ProjectTaskListDto getWithTaskListById(UUID id);
-    ProjectFullInfoDto getFullInfoById(UUID projectId);
+    CompletableFuture<ProjectFullInfoDto> getFullInfoById(UUID projectId);
+    List<Project> claimAllWithStalePrediction(LocalDateTime staleBefore, LocalDateTime retryBefore);
     List<ProjectDto> getAllByOwnerId(UUID ownerId);
     List<Project> getAllEntitiesByOwnerId(UUID ownerId);
     void delete(Project project);
@@ -1,7 +1,10 @@
 package com.predman.content.service;
 
+import com.predman.content.common.PredictionMode;
 import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.grpc.PredictionRequestDto;
 import com.predman.content.dto.project.*;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Project;
 import com.predman.content.entity.ProjectMember;
@@ -13,16 +16,24 @@ import com.predman.content.mapper.UserMapper;
 import com.predman.content.repository.ProjectRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 
+@Slf4j
 @Service
 public class ProjectServiceImpl implements ProjectService {
     private final ProjectRepository projectRepository;
@@ -34,6 +45,12 @@ public class ProjectServiceImpl implements ProjectService {
     private final TaskService taskService;
     private final StatisticsService statisticsService;
     private final UserMapper userMapper;
+    private final ProjectVersionService projectVersionService;
+    private final PredictionHistoryService predictionHistoryService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${predman.prediction.mode:LIVE}")
+    private PredictionMode predictionMode = PredictionMode.LIVE;
 
     ProjectServiceImpl(@Lazy ProjectMemberService projectMemberService,
                        @Lazy UserService userService,
@@ -42,7 +59,10 @@ public class ProjectServiceImpl implements ProjectService {
                        EntityManager entityManager,
                        @Lazy ProjectStatisticsService projectStatisticsService,
                        @Lazy TaskService taskService,
-                       StatisticsService statisticsService, UserMapper userMapper) {
+                       StatisticsService statisticsService, UserMapper userMapper,
+                       ProjectVersionService projectVersionService,
+                       PredictionHistoryService predictionHistoryService,
+                       TransactionTemplate transactionTemplate) {
         this.projectRepository = projectRepository;
         this.projectMapper = projectMapper;
         this.projectMemberService = projectMemberService;
@@ -52,6 +72,9 @@ public class ProjectServiceImpl implements ProjectService {
         this.statisticsService = statisticsService;
         this.taskService = taskService;
         this.userMapper = userMapper;
+        this.projectVersionService = projectVersionService;
+        this.predictionHistoryService = predictionHistoryService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
@@ -76,8 +99,13 @@ public class ProjectServiceImpl implements ProjectService {
         return projectMapper.convertToProjectDto(project);
     }
 
+    /**
+     * The prediction is requested from the statistics as they will be after the update, and the statistics,
+     * the project, its version and the prediction history are then written in one transaction, so a failed
+     * write leaves none of them changed.
+     */
     @Override
-    public ProjectFullInfoDto update(Project project, ProjectUpdateDto projectUpdateDto) {
+    public CompletableFuture<ProjectFullInfoDto> update(Project project, ProjectUpdateDto projectUpdateDto) {
         if (projectUpdateDto.name() != null && projectUpdateDto.name().isEmpty()) {
             throw new ForbiddenException("Project name cannot be empty");
         }
@@ -104,34 +132,118 @@ public class ProjectServiceImpl implements ProjectService {
                 || projectUpdateDto.externalRiskProbability() != null
                 || projectUpdateDto.sumExperience() != null)
         {
-            projectStatisticsService.updateStatisticsByUpdatedProject(updatedProject);
-            PredictionDto prediction = statisticsService.getPrediction(updatedProject.getId(),
-                    (int) ChronoUnit.DAYS.between(
-                    updatedProject.getCreatedDate().toLocalDate(),
-                    projectUpdateDto.dueDate() == null ? updatedProject.getDueDate()
-                            : projectUpdateDto.dueDate()));
-            updatedProject.setCertaintyPercent(prediction.certaintyPercent());
-            updatedProject.setPredictedDeadline(
-                    project.getCreatedDate().toLocalDate().plusDays(prediction.predictedDays()));
-        }
-        else {
-            updatedProject.setPredictedDeadline(project.getPredictedDeadline());
-            updatedProject.setCertaintyPercent(project.getCertaintyPercent());
+            PredictionRequestDto request = toPredictionRequest(updatedProject,
+                    projectStatisticsService.previewStatisticsByUpdatedProject(updatedProject));
+            return statisticsService.getPrediction(request)
+                    .thenApply(prediction -> transactionTemplate.execute(status -> {
+                        projectStatisticsService.updateStatisticsByUpdatedProject(updatedProject);
+                        if (prediction.hasDeadline()) {
+                            updatedProject.setCertaintyPercent(prediction.certaintyPercent());
+                            updatedProject.setPredictedDeadline(
+                                    project.getCreatedDate().toLocalDate().plusDays(prediction.predictedDays()));
+                            updatedProject.setPredictionUpdatedAt(LocalDateTime.now());
+                        }
+                        else {
+                            keepPrediction(updatedProject, project);
+                        }
+                        ProjectFullInfoDto fullInfo = saveUpdated(updatedProject);
+                        predictionHistoryService.recordPredictions(List.of(request), List.of(prediction));
+                        return fullInfo;
+                    }));
         }
-        return projectMapper.convertToProjectFullInfoDto(projectRepository.save(updatedProject));
+        keepPrediction(updatedProject, project);
+        return CompletableFuture.completedFuture(transactionTemplate.execute(status -> saveUpdated(updatedProject)));
+    }
+
+    private static void keepPrediction(Project updatedProject, Project project) {
+        updatedProject.setPredictedDeadline(project.getPredictedDeadline());
+        updatedProject.setCertaintyPercent(project.getCertaintyPercent());
+        updatedProject.setPredictionUpdatedAt(project.getPredictionUpdatedAt());
+    }
+
+    private ProjectFullInfoDto saveUpdated(Project updatedProject) {
+        Project savedProject = projectRepository.save(updatedProject);
+        projectVersionService.bumpVersion(savedProject.getId());
+        return projectMapper.convertToProjectFullInfoDto(savedProject);
+    }
+
+    @Override
+    public CompletableFuture<ProjectFullInfoDto> updatePrediction(Project project) {
+        PredictionRequestDto request = toPredictionRequest(project,
+                projectStatisticsService.getProjectStatisticsByProjectId(project.getId()));
+        return statisticsService.getPrediction(request)
+                .thenApply(prediction -> transactionTemplate.execute(status -> {
+                    Project savedProject = saveWithPrediction(project, prediction);
+                    predictionHistoryService.recordPredictions(List.of(request), List.of(prediction));
+                    return projectMapper.convertToProjectFullInfoDto(savedProject);
+                }));
     }
 
+    /**
+     * Predicts all projects with one batch call and saves each prediction on its own, so one failing
+     * save does not lose the others. A failed model call propagates; otherwise the ids of projects
+     * whose prediction could not be saved are returned.
+     */
     @Override
-    public ProjectFullInfoDto updatePrediction(Project project) {
-        PredictionDto prediction;
-        try {
-            prediction = statisticsService.getPrediction(project.getId(), (int) ChronoUnit.DAYS.between(
-                    project.getCreatedDate().toLocalDate(), project.getDueDate()));
+    public List<UUID> updatePredictions(List<Project> projects) {
+        if (projects.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<ProjectStatisticsDto>> statistics = projectStatisticsService.getProjectStatisticsByProjectIds(
+                projects.stream().map(Project::getId).toList());
+        List<PredictionRequestDto> requests = projects.stream()
+                .map(project -> toPredictionRequest(project, statistics.getOrDefault(project.getId(), List.of())))
+                .toList();
+        List<PredictionDto> predictions = statisticsService.getPredictions(requests).join();
+        List<UUID> failedProjectIds = new ArrayList<>();
+        List<PredictionRequestDto> savedRequests = new ArrayList<>(requests.size());
+        List<PredictionDto> savedPredictions = new ArrayList<>(predictions.size());
+        for (int i = 0; i < projects.size(); i++) {
+            try {
+                Project project = projects.get(i);
+                PredictionDto prediction = predictions.get(i);
+                transactionTemplate.executeWithoutResult(status -> saveWithPrediction(project, prediction));
+                savedRequests.add(requests.get(i));
+                savedPredictions.add(predictions.get(i));
+            }
+            catch (Exception e) {
+                failedProjectIds.add(projects.get(i).getId());
+                log.warn("Could not save prediction for project {}", projects.get(i).getId(), e);
+            }
+        }
+        if (!savedRequests.isEmpty()) {
+            predictionHistoryService.recordPredictions(savedRequests, savedPredictions);
+        }
+        return failedProjectIds;
+    }
+
+    private PredictionRequestDto toPredictionRequest(Project project, List<ProjectStatisticsDto> statistics) {
+        return PredictionRequestDto.builder()
+                .projectId(project.getId())
+                .estimatedDays(getEstimatedDays(project))
+                .statistics(statistics)
+                .build();
+    }
+
+    private int getEstimatedDays(Project project) {
+        return (int) ChronoUnit.DAYS.between(project.getCreatedDate().toLocalDate(), project.getDueDate());
+    }
+
+    /**
+     * Saves the predicted deadline and certainty on the project. A prediction without a deadline leaves the
+     * previous one in place rather than storing a made-up date.
+     */
+    private Project saveWithPrediction(Project project, PredictionDto prediction) {
+        if (!prediction.hasDeadline()) {
+            return project;
         }
-        catch (Exception e) {
-            prediction = PredictionDto.builder().predictedDays(0).certaintyPercent(0.0).build();
+        LocalDate predictedDeadline = project.getCreatedDate().toLocalDate().plusDays(prediction.predictedDays());
+        if (!predictedDeadline.equals(project.getPredictedDeadline())
+                || !Objects.equals(prediction.certaintyPercent(), project.getCertaintyPercent()))
+        {
+            projectVersionService.bumpVersion(project.getId());
         }
-        return projectMapper.convertToProjectFullInfoDto(projectRepository.save(Project.builder()
+        return projectRepository.save(Project.builder()
                 .id(project.getId())
                 .description(project.getDescription())
                 .name(project.getName())
@@ -140,20 +252,39 @@ public class ProjectServiceImpl implements ProjectService {
                 .sumExperience(project.getSumExperience())
                 .availableHours(project.getAvailableHours())
                 .externalRiskProbability(project.getExternalRiskProbability())
-                .predictedDeadline(project.getCreatedDate().toLocalDate().plusDays(prediction.predictedDays()))
+                .predictedDeadline(predictedDeadline)
                 .certaintyPercent(prediction.certaintyPercent())
+                .predictionUpdatedAt(LocalDateTime.now())
                 .updatedDate(LocalDateTime.now())
                 .createdDate(project.getCreatedDate())
-                .build()));
+                .build());
     }
 
     @Override
-    public ProjectFullInfoDto getFullInfoById(UUID id) {
+    public CompletableFuture<ProjectFullInfoDto> getFullInfoById(UUID id) {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Project owner not found!"));
+        if (predictionMode == PredictionMode.STORED) {
+            return CompletableFuture.completedFuture(projectMapper.convertToProjectFullInfoDto(project));
+        }
         return updatePrediction(project);
     }
 
+    /**
+     * Returns the projects due for a new prediction and records the attempt on them, so a project whose
+     * refresh keeps failing is retried once per backoff period instead of on every run.
+     */
+    @Override
+    @Transactional
+    public List<Project> claimAllWithStalePrediction(LocalDateTime staleBefore, LocalDateTime retryBefore) {
+        List<Project> projects = projectRepository.findAllWithStalePrediction(staleBefore, retryBefore);
+        if (!projects.isEmpty()) {
+            projectRepository.markPredictionAttempted(projects.stream().map(Project::getId).toList(),
+                    LocalDateTime.now());
+        }
+        return projects;
+    }
+
     @Override
     public ProjectDto getById(UUID id) {
         Project project = projectRepository.findById(id)
@@ -203,7 +334,9 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     public ProjectDto changeOwnerUnchecked(Project project, User newOwner) {
         project.setOwner(newOwner);
-        return projectMapper.convertToProjectDto(projectRepository.save(project));
+        Project savedProject = projectRepository.save(project);
+        projectVersionService.bumpVersion(savedProject.getId());
+        return projectMapper.convertToProjectDto(savedProject);
     }
 
     @Override
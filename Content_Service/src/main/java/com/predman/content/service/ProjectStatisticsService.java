@@ -1,16 +1,30 @@
 package com.predman.content.service;
 
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
 import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsHistoryRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsPageDto;
 import com.predman.content.entity.Project;
 import com.predman.content.entity.ProjectStatistics;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface ProjectStatisticsService {
     List<ProjectStatisticsDto> getProjectStatisticsByProjectId(UUID projectId);
-    ProjectStatistics updateStatistics(UUID projectId);
+    Map<UUID, List<ProjectStatisticsDto>> getProjectStatisticsByProjectIds(Collection<UUID> projectIds);
+    ProjectStatisticsPageDto getProjectStatisticsHistory(UUID projectId, ProjectStatisticsHistoryRequestDto request);
+    ProjectStatistics reconcileStatistics(UUID projectId);
+    void applyStatisticsDelta(UUID projectId, ProjectStatisticsDeltaDto delta);
     ProjectStatistics updateStatisticsByUpdatedProject(Project updatedProject);
+    List<ProjectStatisticsDto> previewStatisticsByUpdatedProject(Project updatedProject);
     void initializeStatistics(Project project);
     List<ProjectStatistics> getAllLatestStatistics();
+    int ensureStatisticsPartitions(int monthsAhead);
+    int rollUpStatistics(LocalDateTime before);
+    int dropStatisticsPartitions(LocalDate before);
 }
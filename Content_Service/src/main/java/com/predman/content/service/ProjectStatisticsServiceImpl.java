@@ -1,7 +1,15 @@
 package com.predman.content.service;
 
+import com.predman.content.common.HistoryPage;
+import com.predman.content.common.StatisticsAggregate;
+import com.predman.content.common.StatisticsBucket;
+import com.predman.content.common.TaskGraph;
 import com.predman.content.common.TaskStatus;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsBucketView;
 import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsHistoryRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsPageDto;
 import com.predman.content.dto.task.TaskDto;
 import com.predman.content.dto.task_dependency.TaskDependencyDto;
 import com.predman.content.entity.Project;
@@ -9,13 +17,18 @@ import com.predman.content.entity.ProjectStatistics;
 import com.predman.content.repository.ProjectStatisticsRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
@@ -24,46 +37,139 @@ public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
     private final ProjectMemberService projectMemberService;
     private final TaskService taskService;
     private final TaskDependencyService taskDependencyService;
+    private final CriticalPathService criticalPathService;
+    private final ProjectVersionService projectVersionService;
+
+    private static final double DRIFT_TOLERANCE = 1e-6;
+
+    @Value("${predman.statistics.history.default-page-size:100}")
+    private int defaultHistoryPageSize = 100;
+
+    @Value("${predman.statistics.history.max-page-size:1000}")
+    private int maxHistoryPageSize = 1000;
 
     @Override
-    @Transactional
     public List<ProjectStatisticsDto> getProjectStatisticsByProjectId(UUID projectId) {
-        updateStatistics(projectId);
-        List<ProjectStatistics> projectStatisticsList = projectStatisticsRepository.findAllByProjectId(projectId);
-        return projectStatisticsList.stream().map(projectStatistics ->
-                ProjectStatisticsDto
-                        .builder()
-                        .id(projectStatistics.getId())
-                        .projectId(projectId)
-                        .daysSinceStart(projectStatistics.getDaysSinceStart())
-                        .teamSize(projectStatistics.getTeamSize())
-                        .remainingTasks(projectStatistics.getRemainingTasks())
-                        .remainingStoryPoints(projectStatistics.getRemainingStoryPoints())
-                        .dependencyCoefficient(projectStatistics.getDependencyCoefficient())
-                        .criticalPathLength(projectStatistics.getCriticalPathLength())
-                        .externalRiskProbability(projectStatistics.getExternalRiskProbability())
-                        .sumExperience(projectStatistics.getSumExperience())
-                        .availableHours(projectStatistics.getAvailableHours())
-                        .savedAt(projectStatistics.getSavedAt().toLocalDate())
-                        .build()).toList();
+        return projectStatisticsRepository.findAllByProjectIdOrderBySavedAtAsc(projectId).stream()
+                .map(projectStatistics -> convertToProjectStatisticsDto(projectId, projectStatistics))
+                .toList();
+    }
+
+    /** Loads the statistics history of every project in one query, oldest first per project. */
+    @Override
+    public Map<UUID, List<ProjectStatisticsDto>> getProjectStatisticsByProjectIds(Collection<UUID> projectIds) {
+        return projectStatisticsRepository.findAllByProjectIdInOrderBySavedAtAsc(projectIds).stream()
+                .collect(Collectors.groupingBy(projectStatistics -> projectStatistics.getProject().getId(),
+                        Collectors.mapping(projectStatistics -> convertToProjectStatisticsDto(
+                                projectStatistics.getProject().getId(), projectStatistics), Collectors.toList())));
+    }
+
+    /**
+     * Returns one keyset page of the statistics history, ordered by {@code saved_at} and id as described by
+     * {@link HistoryPage}. With a bucket the rows are downsampled in the database to the last row or the
+     * average of each day, week or month, and the cursor is the start of the last bucket of the previous page.
+     */
+    @Override
+    public ProjectStatisticsPageDto getProjectStatisticsHistory(UUID projectId,
+                                                                ProjectStatisticsHistoryRequestDto request) {
+        HistoryPage page = HistoryPage.of(request.from(), request.to(), request.cursor(), request.limit(),
+                defaultHistoryPageSize, maxHistoryPageSize, "statistics history");
+        StatisticsBucket bucket = request.bucket();
+
+        List<ProjectStatisticsDto> items;
+        String nextCursor;
+        if (bucket == null) {
+            List<ProjectStatistics> rows = projectStatisticsRepository.findHistoryPage(
+                    projectId, page.from(), page.to(), page.after(), page.afterId(), Limit.of(page.limit()));
+            items = rows.stream().map(row -> convertToProjectStatisticsDto(projectId, row)).toList();
+            nextCursor = page.nextCursor(rows, ProjectStatistics::getSavedAt, ProjectStatistics::getId);
+        }
+        else if (request.aggregate() == StatisticsAggregate.AVERAGE) {
+            List<ProjectStatisticsBucketView> buckets = projectStatisticsRepository.findHistoryBucketAverages(
+                    projectId, bucket.field(), page.from(), page.to(), page.after(), page.limit());
+            items = buckets.stream().map(view -> convertToProjectStatisticsDto(projectId, view)).toList();
+            nextCursor = page.nextCursor(buckets, ProjectStatisticsBucketView::getBucketStart, view -> null);
+        }
+        else {
+            List<ProjectStatistics> rows = projectStatisticsRepository.findHistoryBucketLasts(
+                    projectId, bucket.field(), page.from(), page.to(), page.after(), page.limit());
+            items = rows.stream().map(row -> convertToProjectStatisticsDto(projectId, row)).toList();
+            nextCursor = page.nextCursor(rows, row -> bucket.truncate(row.getSavedAt()), row -> null);
+        }
+        return ProjectStatisticsPageDto.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    /**
+     * Recomputes the statistics from scratch and overwrites today's row, logging any drift
+     * between the incrementally maintained values and the recomputed ones.
+     */
     @Override
     @Transactional
-    public ProjectStatistics updateStatistics(UUID projectId) {
+    public ProjectStatistics reconcileStatistics(UUID projectId) {
         ProjectStatistics projectStatistics = projectStatisticsRepository.findLatestStatisticsByProjectId(projectId);
         ProjectStatistics updatedProjectStatistics = reevaluateProjectStatistics(projectId);
         if (projectStatistics.getSavedAt().toLocalDate().isEqual(LocalDateTime.now().toLocalDate())) {
             updatedProjectStatistics.setId(projectStatistics.getId());
+            logDrift(projectId, projectStatistics, updatedProjectStatistics);
+        }
+        return saveSnapshot(projectId, updatedProjectStatistics);
+    }
+
+    @Override
+    @Transactional
+    public void applyStatisticsDelta(UUID projectId, ProjectStatisticsDeltaDto delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        UUID statisticsId = getTodayStatistics(projectId).getId();
+        projectStatisticsRepository.applyDelta(statisticsId, delta.remainingTasks(),
+                delta.remainingStoryPoints(), delta.teamSize());
+        if (delta.remainingTasks() != 0 || delta.dependenciesChanged()) {
+            projectStatisticsRepository.refreshDependencyCoefficient(statisticsId);
+        }
+        if (delta.remainingTasks() != 0 || delta.remainingStoryPoints() != 0 || delta.dependenciesChanged()) {
+            projectStatisticsRepository.updateCriticalPathLength(statisticsId,
+                    criticalPathService.getCriticalPathLength(projectId));
         }
-        return projectStatisticsRepository.save(updatedProjectStatistics);
     }
 
     @Override
     @Transactional
     public ProjectStatistics updateStatisticsByUpdatedProject(Project updatedProject) {
+        projectVersionService.lock(updatedProject.getId());
         ProjectStatistics projectStatistics =
                 projectStatisticsRepository.findLatestStatisticsByProjectId(updatedProject.getId());
+        return saveSnapshot(updatedProject.getId(), withUpdatedProject(projectStatistics, updatedProject));
+    }
+
+    /**
+     * Returns the history as {@link #updateStatisticsByUpdatedProject} would leave it, without writing, so
+     * a prediction can be requested before the update is committed together with its result.
+     */
+    @Override
+    public List<ProjectStatisticsDto> previewStatisticsByUpdatedProject(Project updatedProject) {
+        UUID projectId = updatedProject.getId();
+        List<ProjectStatistics> history = new ArrayList<>(
+                projectStatisticsRepository.findAllByProjectIdOrderBySavedAtAsc(projectId));
+        if (history.isEmpty()) {
+            return List.of();
+        }
+        ProjectStatistics updated = withUpdatedProject(history.getLast(), updatedProject);
+        if (updated.getId() != null) {
+            history.set(history.size() - 1, updated);
+        }
+        else {
+            history.add(updated);
+        }
+        return history.stream().map(projectStatistics -> convertToProjectStatisticsDto(projectId, projectStatistics))
+                .toList();
+    }
+
+    /** Today's snapshot keeps the id of the latest row when that row is from today. */
+    private static ProjectStatistics withUpdatedProject(ProjectStatistics projectStatistics, Project updatedProject) {
         ProjectStatistics updatedProjectStatistics = ProjectStatistics.builder()
                 .project(projectStatistics.getProject())
                 .criticalPathLength(projectStatistics.getCriticalPathLength())
@@ -80,7 +186,7 @@ public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
         if (projectStatistics.getSavedAt().toLocalDate().isEqual(LocalDateTime.now().toLocalDate())) {
             updatedProjectStatistics.setId(projectStatistics.getId());
         }
-        return projectStatisticsRepository.save(updatedProjectStatistics);
+        return updatedProjectStatistics;
     }
 
     @Override
@@ -99,7 +205,7 @@ public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
                 .externalRiskProbability(0.0)
                 .savedAt(LocalDateTime.now())
                 .build();
-        projectStatisticsRepository.save(projectStatistics);
+        saveSnapshot(project.getId(), projectStatistics);
     }
 
     @Override
@@ -107,6 +213,99 @@ public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
         return projectStatisticsRepository.findLatestStatisticsForAllProjects();
     }
 
+    @Override
+    @Transactional
+    public int ensureStatisticsPartitions(int monthsAhead) {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            if (projectStatisticsRepository.createPartition(month.plusMonths(i))) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public int rollUpStatistics(LocalDateTime before) {
+        int rolledUp = projectStatisticsRepository.rollUpWeekly(StatisticsBucket.WEEK.truncate(before));
+        projectStatisticsRepository.refreshDanglingLatestStatistics();
+        return rolledUp;
+    }
+
+    @Override
+    @Transactional
+    public int dropStatisticsPartitions(LocalDate before) {
+        int dropped = projectStatisticsRepository.dropPartitionsBefore(before.withDayOfMonth(1));
+        projectStatisticsRepository.refreshDanglingLatestStatistics();
+        return dropped;
+    }
+
+    /**
+     * Saves a snapshot and moves the project's latest statistics pointer to it in the same transaction,
+     * so latest lookups stay primary key reads.
+     */
+    private ProjectStatistics saveSnapshot(UUID projectId, ProjectStatistics projectStatistics) {
+        ProjectStatistics savedStatistics = projectStatisticsRepository.save(projectStatistics);
+        projectStatisticsRepository.upsertLatestStatistics(projectId, projectStatistics.getId(),
+                projectStatistics.getSavedAt());
+        return savedStatistics;
+    }
+
+    /**
+     * Returns today's snapshot, copying the latest one forward on the first change of the day. The copy
+     * is made under the project lock and after a second read, so concurrent first changes of a day share
+     * one snapshot instead of splitting their deltas between several.
+     */
+    private ProjectStatistics getTodayStatistics(UUID projectId) {
+        ProjectStatistics latest = projectStatisticsRepository.findLatestStatisticsByProjectId(projectId);
+        if (latest.getSavedAt().toLocalDate().isEqual(LocalDateTime.now().toLocalDate())) {
+            return latest;
+        }
+        projectVersionService.lock(projectId);
+        latest = projectStatisticsRepository.findLatestStatisticsByProjectId(projectId);
+        if (latest.getSavedAt().toLocalDate().isEqual(LocalDateTime.now().toLocalDate())) {
+            return latest;
+        }
+        Project project = latest.getProject();
+        return saveSnapshot(projectId, ProjectStatistics.builder()
+                .project(project)
+                .criticalPathLength(latest.getCriticalPathLength())
+                .dependencyCoefficient(latest.getDependencyCoefficient())
+                .remainingStoryPoints(latest.getRemainingStoryPoints())
+                .remainingTasks(latest.getRemainingTasks())
+                .availableHours(latest.getAvailableHours())
+                .sumExperience(latest.getSumExperience())
+                .externalRiskProbability(latest.getExternalRiskProbability())
+                .teamSize(latest.getTeamSize())
+                .daysSinceStart((int) ChronoUnit.DAYS.between(project.getCreatedDate(), LocalDateTime.now()))
+                .savedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void logDrift(UUID projectId, ProjectStatistics incremental, ProjectStatistics recomputed) {
+        if (!Objects.equals(incremental.getRemainingTasks(), recomputed.getRemainingTasks())
+                || !Objects.equals(incremental.getTeamSize(), recomputed.getTeamSize())
+                || differs(incremental.getRemainingStoryPoints(), recomputed.getRemainingStoryPoints())
+                || differs(incremental.getDependencyCoefficient(), recomputed.getDependencyCoefficient()))
+        {
+            log.warn("Statistics drift for project {}: tasks {} -> {}, story points {} -> {}, team {} -> {}, "
+                            + "dependency coefficient {} -> {}", projectId,
+                    incremental.getRemainingTasks(), recomputed.getRemainingTasks(),
+                    incremental.getRemainingStoryPoints(), recomputed.getRemainingStoryPoints(),
+                    incremental.getTeamSize(), recomputed.getTeamSize(),
+                    incremental.getDependencyCoefficient(), recomputed.getDependencyCoefficient());
+        }
+    }
+
+    private boolean differs(Double left, Double right) {
+        if (left == null || right == null) {
+            return left != right;
+        }
+        return Math.abs(left - right) > DRIFT_TOLERANCE;
+    }
+
     private ProjectStatistics reevaluateProjectStatistics(UUID projectId) {
         Project project = projectService.getEntityById(projectId);
         List<TaskDto> taskList = taskService.getAllByProjectId(projectId);
@@ -122,46 +321,20 @@ public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
                 .distinct()
                 .count();
 
-        Map<UUID, List<UUID>> depsMap = new HashMap<>();
-        for (TaskDependencyDto dep : dependencyList) {
-            depsMap.computeIfAbsent(dep.taskId(), k -> new ArrayList<>()).add(dep.dependencyId());
-        }
-
-        Map<UUID, Double> longestPath = new HashMap<>();
-
         double remainingStoryPoints = 0;
-        for (UUID taskId : remainingTaskMap.keySet()) {
-            TaskDto taskDto = remainingTaskMap.get(taskId);
-
+        for (TaskDto taskDto : remainingTaskMap.values()) {
             remainingStoryPoints += taskDto.storyPoints();
-
-            // calculating critical path
-
-            if (taskDto.status().equals(TaskStatus.COMPLETED)) {
-                continue;
-            }
-
-            List<UUID> taskDeps = depsMap.getOrDefault(taskId, Collections.emptyList());
-            double maxDepPath = 0;
-
-            for (UUID depId : taskDeps) {
-                TaskDto depTask = remainingTaskMap.get(depId);
-                if (depTask != null && !depTask.status().equals(TaskStatus.COMPLETED)
-                        && longestPath.containsKey(depId)) {
-                    maxDepPath = Math.max(maxDepPath, longestPath.get(depId));
-                }
-            }
-
-            longestPath.put(taskId, taskDto.storyPoints() + maxDepPath);
         }
 
-        double criticalPathLength = 0;
-
-        if (!longestPath.isEmpty()) {
-            for (double pathLength : longestPath.values()) {
-                criticalPathLength = Math.max(criticalPathLength, pathLength);
-            }
-        }
+        TaskGraph taskGraph = TaskGraph.of(
+                remainingTaskMap.values().stream()
+                        .map(taskDto -> new TaskGraph.Node(taskDto.id(), taskDto.storyPoints(), true))
+                        .toList(),
+                dependencyList.stream()
+                        .map(dependency -> new TaskGraph.Edge(dependency.taskId(), dependency.dependencyId()))
+                        .toList());
+        double criticalPathLength = taskGraph.getCriticalPathLength();
+        criticalPathService.invalidate(projectId);
 
         return ProjectStatistics
                 .builder()
@@ -170,7 +343,8 @@ public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
                 .sumExperience(project.getSumExperience())
                 .externalRiskProbability(project.getExternalRiskProbability())
                 .criticalPathLength(criticalPathLength)
-                .dependencyCoefficient((double)dependentTaskNumber/remainingTaskMap.size())
+                .dependencyCoefficient(remainingTaskMap.isEmpty() ? 0.0
+                        : (double)dependentTaskNumber/remainingTaskMap.size())
                 .remainingTasks(remainingTaskMap.size())
                 .remainingStoryPoints(remainingStoryPoints)
                 .teamSize(projectMemberService.getUsersByProjectId(projectId).size())
@@ -178,4 +352,43 @@ public class ProjectStatisticsServiceImpl implements ProjectStatisticsService {
                 .savedAt(LocalDateTime.now())
                 .build();
     }
+
+    private ProjectStatisticsDto convertToProjectStatisticsDto(UUID projectId, ProjectStatistics projectStatistics) {
+        return ProjectStatisticsDto
+                .builder()
+                .id(projectStatistics.getId())
+                .projectId(projectId)
+                .daysSinceStart(projectStatistics.getDaysSinceStart())
+                .teamSize(projectStatistics.getTeamSize())
+                .remainingTasks(projectStatistics.getRemainingTasks())
+                .remainingStoryPoints(projectStatistics.getRemainingStoryPoints())
+                .dependencyCoefficient(projectStatistics.getDependencyCoefficient())
+                .criticalPathLength(projectStatistics.getCriticalPathLength())
+                .externalRiskProbability(projectStatistics.getExternalRiskProbability())
+                .sumExperience(projectStatistics.getSumExperience())
+                .availableHours(projectStatistics.getAvailableHours())
+                .savedAt(projectStatistics.getSavedAt().toLocalDate())
+                .build();
+    }
+
+    private ProjectStatisticsDto convertToProjectStatisticsDto(UUID projectId, ProjectStatisticsBucketView bucket) {
+        return ProjectStatisticsDto
+                .builder()
+                .projectId(projectId)
+                .daysSinceStart(roundOrNull(bucket.getDaysSinceStart()))
+                .teamSize(roundOrNull(bucket.getTeamSize()))
+                .remainingTasks(roundOrNull(bucket.getRemainingTasks()))
+                .remainingStoryPoints(bucket.getRemainingStoryPoints())
+                .dependencyCoefficient(bucket.getDependencyCoefficient())
+                .criticalPathLength(bucket.getCriticalPathLength())
+                .externalRiskProbability(bucket.getExternalRiskProbability())
+                .sumExperience(bucket.getSumExperience())
+                .availableHours(bucket.getAvailableHours())
+                .savedAt(bucket.getBucketStart().toLocalDate())
+                .build();
+    }
+
+    private static Integer roundOrNull(Double value) {
+        return value == null ? null : (int) Math.round(value);
+    }
 }
@@ -0,0 +1,10 @@
+package com.predman.content.service;
+
+import java.util.UUID;
+
+public interface ProjectVersionService {
+    long getVersion(UUID projectId);
+    String getETag(UUID projectId);
+    void bumpVersion(UUID projectId);
+    void lock(UUID projectId);
+}
@@ -0,0 +1,48 @@
+package com.predman.content.service;
+
+import com.predman.content.exception.NotFoundException;
+import com.predman.content.repository.ProjectRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Per-project counter bumped by every mutation visible on the board or in the project info.
+ * The column is not mapped on {@code Project}, so bumping it is a single atomic UPDATE that
+ * never races with entity saves.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProjectVersionServiceImpl implements ProjectVersionService {
+    private final ProjectRepository projectRepository;
+
+    @Override
+    public long getVersion(UUID projectId) {
+        return projectRepository.findBoardVersion(projectId)
+                .orElseThrow(() -> new NotFoundException("Project not found!"));
+    }
+
+    @Override
+    public String getETag(UUID projectId) {
+        return "\"" + projectId + "-" + getVersion(projectId) + "\"";
+    }
+
+    @Override
+    @Transactional
+    public void bumpVersion(UUID projectId) {
+        projectRepository.incrementBoardVersion(projectId);
+    }
+
+    /**
+     * Serializes writers of one project until the caller's transaction ends, for checks that must
+     * see every concurrent change before they write.
+     */
+    @Override
+    @Transactional
+    public void lock(UUID projectId) {
+        projectRepository.lockById(projectId)
+                .orElseThrow(() -> new NotFoundException("Project not found!"));
+    }
+}
@@ -1,9 +1,12 @@
 package com.predman.content.service;
 
 import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.grpc.PredictionRequestDto;
 
-import java.util.UUID;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface StatisticsService {
-    PredictionDto getPrediction(UUID projectId, int estimatedDays);
+    CompletableFuture<PredictionDto> getPrediction(PredictionRequestDto request);
+    CompletableFuture<List<PredictionDto>> getPredictions(List<PredictionRequestDto> requests);
 }
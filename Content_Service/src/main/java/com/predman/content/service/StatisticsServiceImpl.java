@@ -1,29 +1,186 @@
 package com.predman.content.service;
 
+import com.predman.content.common.BurndownEstimator;
+import com.predman.content.common.PredictionCircuitBreaker;
 import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.grpc.PredictionRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.statistics.PredictionBatchReply;
+import com.predman.statistics.PredictionBatchRequest;
 import com.predman.statistics.PredictionReply;
 import com.predman.statistics.PredictionRequest;
+import com.predman.statistics.StatisticsSnapshot;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.predman.statistics.StatisticsServiceGrpc;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+/**
+ * Calls the model through the async stub. No caller thread waits on the network; futures are
+ * completed on the channel's callback executor, so continuations run there too. Every call carries
+ * a deadline, so a hung replica fails the call with DEADLINE_EXCEEDED instead of holding it open.
+ * Calls that fail in transport or time out, and calls refused while the circuit breaker is open, are
+ * answered by the {@link BurndownEstimator} from the statistics sent with the request; any other
+ * failure, such as a malformed reply, propagates.
+ */
 @Service
 @RequiredArgsConstructor
 public class StatisticsServiceImpl implements StatisticsService {
-    private final StatisticsServiceGrpc.StatisticsServiceBlockingStub stub;
+    private final StatisticsServiceGrpc.StatisticsServiceStub stub;
+    private final PredictionCircuitBreaker circuitBreaker;
+
+    @Value("${predman.grpc.prediction-batch-size:64}")
+    private int batchSize = 64;
+
+    @Value("${predman.grpc.deadline-ms:2000}")
+    private long deadlineMs = 2000;
+
+    @Value("${predman.grpc.batch-deadline-ms:10000}")
+    private long batchDeadlineMs = 10000;
+
+    @Override
+    public CompletableFuture<PredictionDto> getPrediction(PredictionRequestDto request) {
+        PredictionRequest predictionRequest = convertToPredictionRequest(request);
+        return withFallback(() -> this.<PredictionReply>call(observer -> stub
+                                .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                                .predict(predictionRequest, observer))
+                        .thenApply(this::convertToPredictionDto),
+                () -> estimate(request));
+    }
+
+    /** Sends all batches at once and completes with the predictions in request order. */
     @Override
-    public PredictionDto getPrediction(UUID projectId, int estimatedDays) {
-        PredictionReply predictionReply = stub.predict(PredictionRequest
+    public CompletableFuture<List<PredictionDto>> getPredictions(List<PredictionRequestDto> requests) {
+        List<CompletableFuture<List<PredictionDto>>> batches = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            List<PredictionRequestDto> batchRequests = requests.subList(from, Math.min(from + batchSize, requests.size()));
+            PredictionBatchRequest.Builder batch = PredictionBatchRequest.newBuilder();
+            batchRequests.forEach(request -> batch.addRequests(convertToPredictionRequest(request)));
+            PredictionBatchRequest batchRequest = batch.build();
+            batches.add(withFallback(() -> this.<PredictionBatchReply>call(observer -> stub
+                                    .withDeadlineAfter(batchDeadlineMs, TimeUnit.MILLISECONDS)
+                                    .predictBatch(batchRequest, observer))
+                            .thenApply(reply -> {
+                                if (reply.getRepliesCount() != batchRequests.size()) {
+                                    throw new IllegalStateException(
+                                            "Prediction batch returned %d replies for %d requests"
+                                            .formatted(reply.getRepliesCount(), batchRequests.size()));
+                                }
+                                return reply.getRepliesList().stream()
+                                        .map(this::convertToPredictionDto)
+                                        .toList();
+                            }),
+                    () -> batchRequests.stream().map(this::estimate).toList()));
+        }
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> batches.stream()
+                        .flatMap(batch -> batch.join().stream())
+                        .toList());
+    }
+
+    private <T> CompletableFuture<T> withFallback(Supplier<CompletableFuture<T>> call, Supplier<T> fallback) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.completedFuture(fallback.get());
+        }
+        return call.get()
+                .whenComplete((reply, throwable) -> {
+                    if (throwable == null) {
+                        circuitBreaker.onSuccess();
+                    }
+                    else {
+                        circuitBreaker.onFailure();
+                    }
+                })
+                .exceptionally(throwable -> {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause()
+                            : throwable;
+                    if (cause instanceof StatusRuntimeException || cause instanceof TimeoutException) {
+                        return fallback.get();
+                    }
+                    throw throwable instanceof CompletionException completionException
+                            ? completionException
+                            : new CompletionException(cause);
+                });
+    }
+
+    private PredictionDto estimate(PredictionRequestDto request) {
+        return BurndownEstimator.estimate(request.statistics(), request.estimatedDays());
+    }
+
+    private <T> CompletableFuture<T> call(Consumer<StreamObserver<T>> unaryCall) {
+        CompletableFuture<T> reply = new CompletableFuture<>();
+        unaryCall.accept(new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                reply.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                reply.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                reply.completeExceptionally(new IllegalStateException("Prediction call completed without a reply"));
+            }
+        });
+        return reply;
+    }
+
+    private PredictionRequest convertToPredictionRequest(PredictionRequestDto request) {
+        PredictionRequest.Builder predictionRequest = PredictionRequest
                 .newBuilder()
-                .setEstimatedDays(estimatedDays)
-                .setProjectId(projectId.toString())
-                .build());
+                .setEstimatedDays(request.estimatedDays())
+                .setProjectId(request.projectId().toString());
+        request.statistics().forEach(statistics ->
+                predictionRequest.addStatistics(convertToStatisticsSnapshot(statistics)));
+        return predictionRequest.build();
+    }
+
+    private StatisticsSnapshot convertToStatisticsSnapshot(ProjectStatisticsDto statistics) {
+        return StatisticsSnapshot
+                .newBuilder()
+                .setDaysSinceStart(orZero(statistics.daysSinceStart()))
+                .setRemainingTasks(orZero(statistics.remainingTasks()))
+                .setRemainingStoryPoints(orZero(statistics.remainingStoryPoints()))
+                .setDependencyCoefficient(orZero(statistics.dependencyCoefficient()))
+                .setCriticalPathLength(orZero(statistics.criticalPathLength()))
+                .setTeamSize(orZero(statistics.teamSize()))
+                .setSumExperience(orZero(statistics.sumExperience()))
+                .setAvailableHours(orZero(statistics.availableHours()))
+                .setExternalRiskProbability(orZero(statistics.externalRiskProbability()))
+                .build();
+    }
+
+    private static int orZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static double orZero(Double value) {
+        return value == null ? 0.0 : value;
+    }
+
+    private PredictionDto convertToPredictionDto(PredictionReply predictionReply) {
         return PredictionDto
                 .builder()
                 .predictedDays(predictionReply.getPredictedDays())
                 .certaintyPercent(predictionReply.getEstimatedDaysCertainty())
+                .mu(predictionReply.getMu())
+                .sigma(predictionReply.getSigma())
+                .modelVersion(predictionReply.getModelVersion())
                 .build();
     }
 }
@@ -1,14 +1,16 @@
 package com.predman.content.service;
 
+import com.predman.content.common.BoardEventType;
+import com.predman.content.dto.board_event.BoardEventDto;
 import com.predman.content.dto.task.TaskDto;
 import com.predman.content.dto.task_assignment.TaskAssignmentDto;
 import com.predman.content.dto.user.detailed.UserDto;
+import com.predman.content.entity.Task;
 import com.predman.content.entity.TaskAssignment;
 import com.predman.content.entity.User;
 import com.predman.content.exception.NotFoundException;
-import com.predman.content.mapper.TaskMapper;
-import com.predman.content.mapper.UserMapper;
 import com.predman.content.repository.TaskAssignmentRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -20,30 +22,32 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TaskAssignmentServiceImpl implements TaskAssignmentService {
     private final TaskAssignmentRepository taskAssignmentRepository;
-    private final UserMapper userMapper;
-    private final TaskMapper taskMapper;
     private final TaskService taskService;
+    private final ProjectVersionService projectVersionService;
+    private final BoardEventService boardEventService;
 
     @Override
     public List<UserDto> getAllAssigneesByTaskId(UUID taskId) {
-        return taskAssignmentRepository.findAllByTask_Id(taskId).stream().map(taskAssignment ->
-                userMapper.convertToUserDto(taskAssignment.getUser())).toList();
+        return taskAssignmentRepository.findAssigneesByTaskId(taskId);
     }
 
     @Override
     public List<TaskDto> getAllTasksByUserId(UUID userId) {
-        return taskAssignmentRepository.findAllByUser_Id(userId).stream().map(taskAssignment ->
-                taskMapper.convertToTaskDto(taskAssignment.getTask())).toList();
+        return taskAssignmentRepository.findTasksByUserId(userId);
     }
 
     @Override
+    @Transactional
     public UserDto assignTask(UUID taskId, User user) {
+        Task task = taskService.getEntityById(taskId);
         TaskAssignment newEntry = TaskAssignment.builder()
                 .joinedAt(LocalDateTime.now())
-                .task(taskService.getEntityById(taskId))
+                .task(task)
                 .user(user)
                 .build();
         taskAssignmentRepository.save(newEntry);
+        projectVersionService.bumpVersion(task.getProject().getId());
+        publishAssignmentEvent(BoardEventType.ASSIGNEE_ADDED, task, user);
         return UserDto
                 .builder()
                 .id(user.getId())
@@ -53,10 +57,22 @@ public class TaskAssignmentServiceImpl implements TaskAssignmentService {
     }
 
     @Override
+    @Transactional
     public void removeAssignment(UUID taskId, User user) {
         TaskAssignment entry = taskAssignmentRepository.findAllByTask_Id(taskId).stream().filter(taskAssignment ->
                 taskAssignment.getUser().getId().equals(user.getId())).findAny().orElseThrow(() ->
                 new NotFoundException("User is not assigned to this task"));
         taskAssignmentRepository.deleteById(entry.getId());
+        projectVersionService.bumpVersion(entry.getTask().getProject().getId());
+        publishAssignmentEvent(BoardEventType.ASSIGNEE_REMOVED, entry.getTask(), user);
+    }
+
+    private void publishAssignmentEvent(BoardEventType type, Task task, User user) {
+        boardEventService.publish(BoardEventDto.builder()
+                .type(type)
+                .projectId(task.getProject().getId())
+                .taskId(task.getId())
+                .userId(user.getId())
+                .build());
     }
 }
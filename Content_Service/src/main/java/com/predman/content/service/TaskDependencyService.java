@@ -1,5 +1,6 @@
 package com.predman.content.service;
 
+import com.predman.content.dto.task_dependency.TaskDependencyBulkDto;
 import com.predman.content.dto.task_dependency.TaskDependencyDto;
 
 import java.util.List;
@@ -9,5 +10,6 @@ public interface TaskDependencyService {
     List<TaskDependencyDto> getTaskDependencies(UUID taskId);
     List<TaskDependencyDto> getAllProjectDependencies(UUID projectId);
     TaskDependencyDto createTaskDependency(TaskDependencyDto taskDependencyDto);
+    List<TaskDependencyDto> createTaskDependencies(TaskDependencyBulkDto taskDependencyBulkDto);
     void deleteTaskDependency(TaskDependencyDto taskDependencyDto);
 }
@@ -1,57 +1,178 @@
 package com.predman.content.service;
 
+import com.predman.content.common.BoardEventType;
+import com.predman.content.common.TaskGraph;
+import com.predman.content.dto.board_event.BoardEventDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
+import com.predman.content.dto.task_dependency.TaskDependencyBulkDto;
 import com.predman.content.dto.task_dependency.TaskDependencyDto;
+import com.predman.content.entity.Task;
 import com.predman.content.entity.TaskDependency;
+import com.predman.content.exception.BadRequestException;
 import com.predman.content.exception.ForbiddenException;
 import com.predman.content.exception.NotFoundException;
+import com.predman.content.repository.TaskBatchRepository;
 import com.predman.content.repository.TaskDependencyRepository;
 import com.predman.content.repository.TaskRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class TaskDependencyServiceImpl implements TaskDependencyService {
+    private static final ProjectStatisticsDeltaDto DEPENDENCIES_CHANGED = ProjectStatisticsDeltaDto.builder()
+            .dependenciesChanged(true)
+            .build();
+
     private final TaskDependencyRepository taskDependencyRepository;
     private final TaskRepository taskRepository;
+    private final TaskBatchRepository taskBatchRepository;
+    private final ProjectStatisticsService projectStatisticsService;
+    private final CriticalPathService criticalPathService;
+    private final ProjectVersionService projectVersionService;
+    private final BoardEventService boardEventService;
+
+    @Value("${predman.tasks.dependency-bulk-max-size:10000}")
+    private int bulkMaxSize = 10000;
+
+    TaskDependencyServiceImpl(TaskDependencyRepository taskDependencyRepository,
+                              TaskRepository taskRepository,
+                              TaskBatchRepository taskBatchRepository,
+                              @Lazy ProjectStatisticsService projectStatisticsService,
+                              CriticalPathService criticalPathService,
+                              ProjectVersionService projectVersionService,
+                              BoardEventService boardEventService) {
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.taskRepository = taskRepository;
+        this.taskBatchRepository = taskBatchRepository;
+        this.projectStatisticsService = projectStatisticsService;
+        this.criticalPathService = criticalPathService;
+        this.projectVersionService = projectVersionService;
+        this.boardEventService = boardEventService;
+    }
 
     public List<TaskDependencyDto> getTaskDependencies(UUID taskId) {
-        return taskDependencyRepository.findAllByTaskId(taskId)
-                .stream().map(taskDependency -> TaskDependencyDto
-                .builder()
-                .taskId(taskDependency.getTask().getId())
-                .dependencyId(taskDependency.getDependency().getId())
-                .build()).toList();
+        return taskDependencyRepository.findDependenciesByTaskId(taskId);
     }
 
     public List<TaskDependencyDto> getAllProjectDependencies(UUID projectId) {
-        return taskDependencyRepository.findAllByProjectId(projectId)
-                .stream().map(taskDependency -> TaskDependencyDto
-                .builder()
-                .taskId(taskDependency.getTask().getId())
-                .dependencyId(taskDependency.getDependency().getId())
-                .build()).toList();
+        return taskDependencyRepository.findDependenciesByProjectId(projectId);
     }
 
+    @Transactional
     public TaskDependencyDto createTaskDependency(TaskDependencyDto taskDependencyDto) {
         if (taskDependencyDto.dependencyId().equals(taskDependencyDto.taskId())) {
             throw new ForbiddenException("Task with id: " + taskDependencyDto.taskId()
                     + " cannot be dependent on itself");
         }
+        Task dependency = taskRepository.findById(taskDependencyDto.dependencyId())
+                .orElseThrow(() -> new NotFoundException("Dependency task not found!"));
+        Task task = taskRepository.findById(taskDependencyDto.taskId())
+                .orElseThrow(() -> new NotFoundException("Dependent task not found!"));
+        UUID projectId = task.getProject().getId();
+        if (!projectId.equals(dependency.getProject().getId())) {
+            throw new BadRequestException("Task with id: " + task.getId() + " cannot depend on task with id: "
+                    + dependency.getId() + " from another project");
+        }
+        // Held until commit, so a concurrent reverse edge is checked against this one.
+        projectVersionService.lock(projectId);
+        criticalPathService.checkDependency(projectId, task.getId(), dependency.getId());
         taskDependencyRepository.save(TaskDependency
                 .builder()
-                .dependency(taskRepository.findById(taskDependencyDto.dependencyId())
-                        .orElseThrow(() -> new NotFoundException("Dependency task not found!")))
-                .task(taskRepository.findById(taskDependencyDto.taskId())
-                        .orElseThrow(() -> new NotFoundException("Dependent task not found!")))
+                .dependency(dependency)
+                .task(task)
                 .build());
+        criticalPathService.addDependency(projectId, task.getId(), dependency.getId());
+        projectStatisticsService.applyStatisticsDelta(projectId, DEPENDENCIES_CHANGED);
+        projectVersionService.bumpVersion(projectId);
+        publishDependencyEvent(BoardEventType.DEPENDENCY_ADDED, projectId, taskDependencyDto);
         return taskDependencyDto;
     }
 
+    /**
+     * Imports a whole edge list at once: membership is checked with one count query, cycles with
+     * one pass over the cached project graph, and the new edges are written with batched inserts.
+     * Edges that already exist are skipped. The project lock is held from the cycle check to commit.
+     * Subscribers get a single {@code BOARD_CHANGED} event.
+     */
+    @Transactional
+    public List<TaskDependencyDto> createTaskDependencies(TaskDependencyBulkDto taskDependencyBulkDto) {
+        List<TaskDependencyDto> dependencies = taskDependencyBulkDto.dependencies();
+        if (dependencies.isEmpty()) {
+            throw new BadRequestException("No dependencies given");
+        }
+        if (dependencies.size() > bulkMaxSize) {
+            throw new BadRequestException("At most " + bulkMaxSize + " dependencies can be added at once");
+        }
+        Set<TaskGraph.Edge> edges = new LinkedHashSet<>(dependencies.size() * 2);
+        Set<UUID> taskIds = new HashSet<>();
+        for (TaskDependencyDto dependency : dependencies) {
+            if (dependency.taskId() == null || dependency.dependencyId() == null) {
+                throw new BadRequestException("Task and dependency ids must be given");
+            }
+            if (dependency.dependencyId().equals(dependency.taskId())) {
+                throw new ForbiddenException("Task with id: " + dependency.taskId()
+                        + " cannot be dependent on itself");
+            }
+            edges.add(new TaskGraph.Edge(dependency.taskId(), dependency.dependencyId()));
+            taskIds.add(dependency.taskId());
+            taskIds.add(dependency.dependencyId());
+        }
+        UUID projectId = taskDependencyBulkDto.projectId();
+        if (taskRepository.countByProjectIdAndIdIn(projectId, taskIds) != taskIds.size()) {
+            throw new NotFoundException("Some tasks were not found in project with id: " + projectId);
+        }
+
+        projectVersionService.lock(projectId);
+        List<TaskGraph.Edge> added = criticalPathService.checkDependencies(projectId, new ArrayList<>(edges));
+        if (!added.isEmpty()) {
+            taskBatchRepository.insertDependencies(added);
+            criticalPathService.invalidate(projectId);
+            projectStatisticsService.applyStatisticsDelta(projectId, DEPENDENCIES_CHANGED);
+            projectVersionService.bumpVersion(projectId);
+            boardEventService.publish(BoardEventDto.builder()
+                    .type(BoardEventType.BOARD_CHANGED)
+                    .projectId(projectId)
+                    .build());
+        }
+        return added.stream()
+                .map(edge -> TaskDependencyDto.builder()
+                        .taskId(edge.taskId())
+                        .dependencyId(edge.dependencyId())
+                        .build())
+                .toList();
+    }
+
+    @Transactional
     public void deleteTaskDependency(TaskDependencyDto taskDependencyDto) {
-        taskDependencyRepository.deleteByIdPair(taskDependencyDto.taskId(), taskDependencyDto.dependencyId());
+        int deleted = taskDependencyRepository.deleteByIdPair(taskDependencyDto.taskId(),
+                taskDependencyDto.dependencyId());
+        if (deleted > 0) {
+            taskRepository.findById(taskDependencyDto.taskId()).ifPresent(task -> {
+                UUID projectId = task.getProject().getId();
+                criticalPathService.removeDependency(projectId, taskDependencyDto.taskId(),
+                        taskDependencyDto.dependencyId());
+                projectStatisticsService.applyStatisticsDelta(projectId, DEPENDENCIES_CHANGED);
+                projectVersionService.bumpVersion(projectId);
+                publishDependencyEvent(BoardEventType.DEPENDENCY_REMOVED, projectId, taskDependencyDto);
+            });
+        }
+    }
+
+    private void publishDependencyEvent(BoardEventType type, UUID projectId, TaskDependencyDto taskDependencyDto) {
+        boardEventService.publish(BoardEventDto.builder()
+                .type(type)
+                .projectId(projectId)
+                .taskId(taskDependencyDto.taskId())
+                .dependencyId(taskDependencyDto.dependencyId())
+                .build());
     }
 }
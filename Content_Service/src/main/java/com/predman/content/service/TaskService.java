@@ -1,9 +1,6 @@
 package com.predman.content.service;
 
-import com.predman.content.dto.task.SortedTasksDto;
-import com.predman.content.dto.task.TaskCreationDto;
-import com.predman.content.dto.task.TaskDto;
-import com.predman.content.dto.task.TaskUpdateDto;
+import com.predman.content.dto.task.*;
 import com.predman.content.entity.Task;
 
 import java.util.List;
@@ -13,8 +10,13 @@ public interface TaskService {
     TaskDto create(TaskCreationDto taskCreationDto);
     void deleteById(UUID id);
     TaskDto update(Task task, TaskUpdateDto taskUpdateDto);
+    List<TaskDto> createAll(TaskBulkCreationDto taskBulkCreationDto);
+    List<TaskDto> updateAll(TaskBulkUpdateDto taskBulkUpdateDto);
+    void deleteAll(TaskBulkDeletionDto taskBulkDeletionDto);
     TaskDto getById(UUID id);
     Task getEntityById(UUID id);
     List<TaskDto> getAllByProjectId(UUID projectId);
     SortedTasksDto getSortedAllByProjectId(UUID projectId);
+    void rebalanceRanks(UUID projectId);
+    List<UUID> getProjectIdsNeedingRankRebalance(int maxRankLength);
 }
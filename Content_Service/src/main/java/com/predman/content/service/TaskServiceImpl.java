@@ -1,34 +1,73 @@
 package com.predman.content.service;
 
+import com.predman.content.common.BoardEventType;
+import com.predman.content.common.TaskOrdering;
+import com.predman.content.common.TaskRank;
 import com.predman.content.common.TaskStatus;
-import com.predman.content.dto.task.SortedTasksDto;
-import com.predman.content.dto.task.TaskCreationDto;
-import com.predman.content.dto.task.TaskDto;
-import com.predman.content.dto.task.TaskUpdateDto;
+import com.predman.content.dto.board_event.BoardEventDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
+import com.predman.content.dto.task.*;
 import com.predman.content.entity.Task;
+import com.predman.content.exception.BadRequestException;
 import com.predman.content.exception.ForbiddenException;
 import com.predman.content.exception.NotFoundException;
 import com.predman.content.mapper.TaskMapper;
+import com.predman.content.repository.TaskBatchRepository;
 import com.predman.content.repository.TaskRepository;
 import jakarta.persistence.EntityManager;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
     public final TaskRepository taskRepository;
+    public final TaskBatchRepository taskBatchRepository;
     public final TaskMapper taskMapper;
     public final EntityManager entityManager;
+    public final ProjectStatisticsService projectStatisticsService;
+    public final CriticalPathService criticalPathService;
+    public final ProjectVersionService projectVersionService;
+    public final BoardEventService boardEventService;
     private record NextPrev(Task next, Task prev) {}
 
+    private static final int MAX_RANK_LENGTH = 255;
+
+    @Value("${predman.tasks.ordering:LINKED}")
+    private TaskOrdering taskOrdering = TaskOrdering.LINKED;
+
+    @Value("${predman.tasks.bulk-max-size:500}")
+    private int bulkMaxSize = 500;
+
+    TaskServiceImpl(TaskRepository taskRepository,
+                    TaskBatchRepository taskBatchRepository,
+                    TaskMapper taskMapper,
+                    EntityManager entityManager,
+                    @Lazy ProjectStatisticsService projectStatisticsService,
+                    CriticalPathService criticalPathService,
+                    ProjectVersionService projectVersionService,
+                    BoardEventService boardEventService) {
+        this.taskRepository = taskRepository;
+        this.taskBatchRepository = taskBatchRepository;
+        this.taskMapper = taskMapper;
+        this.entityManager = entityManager;
+        this.projectStatisticsService = projectStatisticsService;
+        this.criticalPathService = criticalPathService;
+        this.projectVersionService = projectVersionService;
+        this.boardEventService = boardEventService;
+    }
+
     @Override
     @Transactional
     public TaskDto create(TaskCreationDto taskCreationDto) {
+        if (taskOrdering == TaskOrdering.RANK) {
+            return createRanked(taskCreationDto);
+        }
         NextPrev nextPrev = findNextPrevByNewNext(taskCreationDto.next(), TaskStatus.PLANNED);
 
         if (nextPrev.next() != null && !nextPrev.next().getStatus().equals(TaskStatus.PLANNED)) {
@@ -40,7 +79,9 @@ public class TaskServiceImpl implements TaskService {
             nextPrev.prev().setNext(newTask);
             taskRepository.save(nextPrev.prev());
         }
-        return taskMapper.convertToTaskDto(taskRepository.save(newTask));
+        Task savedTask = taskRepository.save(newTask);
+        applyStatisticsDelta(null, savedTask, false);
+        return publishTaskEvent(BoardEventType.TASK_CREATED, taskMapper.convertToTaskDto(savedTask));
     }
 
     @Override
@@ -57,16 +98,22 @@ public class TaskServiceImpl implements TaskService {
                         originalTask.getStoryPoints() : taskUpdateDto.storyPoints())
                 .updatedAt(LocalDateTime.now())
                 .createdAt(originalTask.getCreatedAt())
+                .boardRank(originalTask.getBoardRank())
                 .build();
-        if (taskUpdateDto.isNextUpdated()) {
+        boolean statusChanged = !updatedTask.getStatus().equals(originalTask.getStatus());
+        if (taskOrdering == TaskOrdering.RANK) {
+            moveRanked(originalTask, updatedTask, taskUpdateDto);
+        }
+        else if (taskUpdateDto.isNextUpdated() || statusChanged) {
+            updatedTask.setBoardRank(null);
             Task prevOriginal = findPrevByCurrentEntity(originalTask);
             if (prevOriginal != null) {
                 Task nextOriginal = originalTask.getNext();
                 prevOriginal.setNext(nextOriginal);
                 taskRepository.save(prevOriginal);
             }
-            NextPrev nextPrev = findNextPrevByNewNext(taskUpdateDto.next(),
-                    taskUpdateDto.status() == null ? originalTask.getStatus() : taskUpdateDto.status());
+            NextPrev nextPrev = findNextPrevByNewNext(taskUpdateDto.isNextUpdated() ? taskUpdateDto.next() : null,
+                    updatedTask.getStatus());
             if (taskUpdateDto.status() != null && nextPrev.next() != null &&
                     !nextPrev.next().getStatus().equals(taskUpdateDto.status())) {
                 throw new ForbiddenException("Cannot link a task to a task of different status " +
@@ -82,7 +129,191 @@ public class TaskServiceImpl implements TaskService {
             updatedTask.setNext(originalTask.getNext());
         }
 
-        return taskMapper.convertToTaskDto(taskRepository.save(updatedTask));
+        TaskStatus originalStatus = originalTask.getStatus();
+        Double originalStoryPoints = originalTask.getStoryPoints();
+        Task savedTask = taskRepository.save(updatedTask);
+        applyStatisticsDelta(Task.builder()
+                .project(originalTask.getProject())
+                .status(originalStatus)
+                .storyPoints(originalStoryPoints)
+                .build(), savedTask, false);
+        TaskDto taskDto = taskMapper.convertToTaskDto(savedTask);
+        if (!taskUpdateDto.isNextUpdated() && originalStatus == savedTask.getStatus()) {
+            return publishTaskEvent(BoardEventType.TASK_UPDATED, taskDto);
+        }
+        publishTaskEvent(BoardEventType.TASK_MOVED, taskOrdering == TaskOrdering.RANK
+                ? TaskDto.builder()
+                        .id(taskDto.id())
+                        .projectId(taskDto.projectId())
+                        .name(taskDto.name())
+                        .description(taskDto.description())
+                        .storyPoints(taskDto.storyPoints())
+                        .next(taskUpdateDto.isNextUpdated() ? taskUpdateDto.next() : null)
+                        .status(taskDto.status())
+                        .build()
+                : taskDto);
+        return taskDto;
+    }
+
+    /**
+     * Inserts the whole batch with JDBC batching in one transaction. The board is read once and
+     * the ordering is fixed up once: new ranks in rank mode, or only the changed links otherwise.
+     */
+    @Override
+    @Transactional
+    public List<TaskDto> createAll(TaskBulkCreationDto taskBulkCreationDto) {
+        UUID projectId = taskBulkCreationDto.projectId();
+        UUID nextId = taskBulkCreationDto.next();
+        Set<UUID> ids = checkBulk(taskBulkCreationDto.tasks(), TaskBulkItemDto::id);
+        if (taskBulkCreationDto.tasks().stream().anyMatch(item -> item.name() == null)) {
+            throw new BadRequestException("Every new task needs a name");
+        }
+        if (taskRepository.countByIdIn(ids) > 0) {
+            throw new ForbiddenException("Some of the task ids are already taken");
+        }
+        if (taskOrdering == TaskOrdering.RANK) {
+            ensureRanked(projectId);
+        }
+        List<TaskDto> board = taskRepository.findBoardTasksByProjectId(projectId);
+        Map<TaskStatus, List<UUID>> columns = boardColumns(board);
+        List<UUID> planned = columns.get(TaskStatus.PLANNED);
+        int position = planned.size();
+        if (nextId != null) {
+            position = planned.indexOf(nextId);
+            if (position < 0 && board.stream().anyMatch(task -> task.id().equals(nextId))) {
+                throw new ForbiddenException("Cannot link a new task to not a planned task");
+            }
+            if (position < 0) {
+                throw new NotFoundException("Could not find a task with such ID to link to");
+            }
+        }
+        planned.addAll(position, ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> newTasks = taskBulkCreationDto.tasks().stream().map(item -> Task.builder()
+                .id(item.id())
+                .name(item.name())
+                .description(item.description())
+                .storyPoints(item.storyPoints())
+                .status(TaskStatus.PLANNED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).toList();
+        if (taskOrdering == TaskOrdering.RANK) {
+            List<String> ranks = ranksBefore(projectId, TaskStatus.PLANNED, nextId, newTasks.size());
+            for (int i = 0; i < newTasks.size(); i++) {
+                newTasks.get(i).setBoardRank(ranks.get(i));
+            }
+        }
+        taskBatchRepository.insertAll(projectId, newTasks);
+        Map<UUID, UUID> nextById = linkColumns(columns);
+        if (taskOrdering == TaskOrdering.LINKED) {
+            taskBatchRepository.updateNext(changedLinks(nextById, board));
+        }
+
+        applyBulkStatisticsDelta(projectId, List.of(), newTasks, false);
+        return newTasks.stream()
+                .map(task -> publishTaskEvent(BoardEventType.TASK_CREATED,
+                        toTaskDto(projectId, task, nextById.get(task.getId()))))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public List<TaskDto> updateAll(TaskBulkUpdateDto taskBulkUpdateDto) {
+        UUID projectId = taskBulkUpdateDto.projectId();
+        checkBulk(taskBulkUpdateDto.tasks(), TaskBulkItemDto::id);
+        if (taskOrdering == TaskOrdering.RANK) {
+            ensureRanked(projectId);
+        }
+        List<TaskDto> board = taskRepository.findBoardTasksByProjectId(projectId);
+        Map<UUID, TaskDto> boardById = indexById(board);
+        Map<TaskStatus, List<UUID>> columns = boardColumns(board);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> originalTasks = new ArrayList<>();
+        List<Task> updatedTasks = new ArrayList<>();
+        Map<TaskStatus, List<Task>> movedTasks = new EnumMap<>(TaskStatus.class);
+        for (TaskBulkItemDto item : taskBulkUpdateDto.tasks()) {
+            TaskDto original = boardById.get(item.id());
+            if (original == null) {
+                throw new NotFoundException("Task not found");
+            }
+            Task updatedTask = Task.builder()
+                    .id(original.id())
+                    .name(item.name() == null ? original.name() : item.name())
+                    .description(item.description() == null ? original.description() : item.description())
+                    .storyPoints(item.storyPoints() == null ? original.storyPoints() : item.storyPoints())
+                    .status(item.status() == null ? original.status() : item.status())
+                    .updatedAt(now)
+                    .build();
+            if (updatedTask.getStatus() != original.status()) {
+                columns.get(original.status()).remove(original.id());
+                columns.get(updatedTask.getStatus()).add(original.id());
+                movedTasks.computeIfAbsent(updatedTask.getStatus(), status -> new ArrayList<>()).add(updatedTask);
+            }
+            originalTasks.add(toTaskEntity(original));
+            updatedTasks.add(updatedTask);
+        }
+        if (taskOrdering == TaskOrdering.RANK) {
+            movedTasks.forEach((status, tasks) -> {
+                String tailRank = taskRepository.findFirstByProjectIdAndStatusOrderByBoardRankDesc(projectId, status)
+                        .map(Task::getBoardRank).orElse(null);
+                List<String> ranks = TaskRank.between(tailRank, null, tasks.size());
+                for (int i = 0; i < tasks.size(); i++) {
+                    tasks.get(i).setBoardRank(ranks.get(i));
+                }
+            });
+        }
+        Set<UUID> movedIds = new HashSet<>();
+        movedTasks.values().forEach(tasks -> tasks.forEach(task -> movedIds.add(task.getId())));
+        taskBatchRepository.updateAll(updatedTasks);
+        Map<UUID, UUID> nextById = linkColumns(columns);
+        if (taskOrdering == TaskOrdering.LINKED) {
+            taskBatchRepository.updateNext(changedLinks(nextById, board));
+            if (!movedIds.isEmpty()) {
+                taskRepository.clearBoardRanks(movedIds);
+            }
+        }
+
+        applyBulkStatisticsDelta(projectId, originalTasks, updatedTasks, false);
+        return updatedTasks.stream()
+                .map(task -> publishTaskEvent(movedIds.contains(task.getId())
+                        ? BoardEventType.TASK_MOVED : BoardEventType.TASK_UPDATED,
+                        toTaskDto(projectId, task, nextById.get(task.getId()))))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll(TaskBulkDeletionDto taskBulkDeletionDto) {
+        UUID projectId = taskBulkDeletionDto.projectId();
+        Set<UUID> ids = checkBulk(taskBulkDeletionDto.taskIds(), Function.identity());
+        List<TaskDto> board = taskRepository.findBoardTasksByProjectId(projectId);
+        Map<UUID, TaskDto> boardById = indexById(board);
+        Map<TaskStatus, List<UUID>> columns = boardColumns(board);
+        List<Task> deletedTasks = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            TaskDto deleted = boardById.get(id);
+            if (deleted == null) {
+                throw new NotFoundException("Task not found");
+            }
+            columns.get(deleted.status()).remove(id);
+            deletedTasks.add(toTaskEntity(deleted));
+        }
+        if (taskOrdering == TaskOrdering.LINKED) {
+            taskBatchRepository.updateNext(changedLinks(linkColumns(columns), board));
+        }
+        taskBatchRepository.deleteAll(projectId, ids);
+
+        applyBulkStatisticsDelta(projectId, deletedTasks, List.of(), true);
+        for (UUID id : ids) {
+            boardEventService.publish(BoardEventDto.builder()
+                    .type(BoardEventType.TASK_DELETED)
+                    .projectId(projectId)
+                    .taskId(id)
+                    .build());
+        }
     }
 
     @Override
@@ -102,12 +333,30 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public SortedTasksDto getSortedAllByProjectId(UUID projectId) {
-        return sortLinkedTasks(taskRepository.findByProjectId(projectId));
+        List<TaskDto> tasks = taskRepository.findBoardTasksByProjectId(projectId);
+        if (taskOrdering == TaskOrdering.RANK) {
+            return groupRankedTasks(tasks);
+        }
+        return sortLinkedTasks(tasks);
+    }
+
+    @Override
+    @Transactional
+    public void rebalanceRanks(UUID projectId) {
+        projectVersionService.lock(projectId);
+        if (!seedRanksFromLinks(projectId)) {
+            taskRepository.rebalanceRanks(projectId);
+        }
+    }
+
+    @Override
+    public List<UUID> getProjectIdsNeedingRankRebalance(int maxRankLength) {
+        return taskRepository.findProjectIdsNeedingRankRebalance(maxRankLength);
     }
 
     @Override
     public List<TaskDto> getAllByProjectId(UUID projectId) {
-        return taskRepository.findByProjectId(projectId).stream().map(taskMapper::convertToTaskDto).toList();
+        return taskRepository.findBoardTasksByProjectId(projectId);
     }
 
     @Override
@@ -115,6 +364,13 @@ public class TaskServiceImpl implements TaskService {
     public void deleteById(UUID taskId) {
         Task currentTask = taskRepository.findById(taskId).orElseThrow(() ->
                 new NotFoundException("Could not find a task with such ID to link to"));
+        if (taskOrdering == TaskOrdering.RANK) {
+            taskRepository.clearNextReferences(taskId);
+            taskRepository.deleteById(taskId);
+            applyStatisticsDelta(currentTask, null, true);
+            publishTaskDeleted(currentTask);
+            return;
+        }
         Task next = currentTask.getNext();
         Task prev = taskRepository.findByNext(currentTask).stream()
                 .filter((task)-> task.getStatus().equals(currentTask.getStatus())).findFirst().orElse(null);
@@ -128,77 +384,349 @@ public class TaskServiceImpl implements TaskService {
         }
 
         taskRepository.deleteById(taskId);
+        applyStatisticsDelta(currentTask, null, true);
+        publishTaskDeleted(currentTask);
     }
 
-    private SortedTasksDto sortLinkedTasks(List<Task> tasks) {
-        Set<UUID> plannedNextIds = new HashSet<>();
-        Set<UUID> inProgressNextIds = new HashSet<>();
-        Set<UUID> completedNextIds = new HashSet<>();
+    private void applyStatisticsDelta(Task before, Task after, boolean dependenciesChanged) {
+        Task task = after == null ? before : after;
+        projectVersionService.bumpVersion(task.getProject().getId());
+        if (after == null) {
+            criticalPathService.removeTask(task.getProject().getId(), task.getId());
+        }
+        else {
+            criticalPathService.putTask(task.getProject().getId(), task.getId(), task.getStoryPoints(),
+                    task.getStatus());
+        }
+        projectStatisticsService.applyStatisticsDelta(task.getProject().getId(), ProjectStatisticsDeltaDto.builder()
+                .remainingTasks(remainingTasks(after) - remainingTasks(before))
+                .remainingStoryPoints(remainingStoryPoints(after) - remainingStoryPoints(before))
+                .dependenciesChanged(dependenciesChanged)
+                .build());
+    }
 
-        for (Task task : tasks) {
-            Task next = task.getNext();
-            if (next != null) {
-                switch (task.getStatus()) {
-                    case PLANNED -> plannedNextIds.add(next.getId());
-                    case IN_PROGRESS -> inProgressNextIds.add(next.getId());
-                    case COMPLETED -> completedNextIds.add(next.getId());
-                }
+    private <T> Set<UUID> checkBulk(List<T> items, Function<T, UUID> idOf) {
+        if (items.isEmpty()) {
+            throw new BadRequestException("No tasks given");
+        }
+        if (items.size() > bulkMaxSize) {
+            throw new BadRequestException("At most " + bulkMaxSize + " tasks can be changed at once");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(items.size() * 2);
+        for (T item : items) {
+            UUID id = idOf.apply(item);
+            if (id == null || !ids.add(id)) {
+                throw new BadRequestException("Task ids must be given and unique");
             }
         }
+        return ids;
+    }
 
-        Task headPlanned = null;
-        Task headInProgress = null;
-        Task headCompleted = null;
+    private Map<TaskStatus, List<UUID>> boardColumns(List<TaskDto> board) {
+        SortedTasksDto sorted = taskOrdering == TaskOrdering.RANK ? groupRankedTasks(board) : sortLinkedTasks(board);
+        Map<TaskStatus, List<UUID>> columns = new EnumMap<>(TaskStatus.class);
+        columns.put(TaskStatus.PLANNED, new ArrayList<>(sorted.planned().stream().map(TaskDto::id).toList()));
+        columns.put(TaskStatus.IN_PROGRESS, new ArrayList<>(sorted.inprogress().stream().map(TaskDto::id).toList()));
+        columns.put(TaskStatus.COMPLETED, new ArrayList<>(sorted.completed().stream().map(TaskDto::id).toList()));
+        return columns;
+    }
+
+    private static Map<UUID, UUID> linkColumns(Map<TaskStatus, List<UUID>> columns) {
+        Map<UUID, UUID> nextById = new HashMap<>();
+        for (List<UUID> column : columns.values()) {
+            for (int i = 0; i < column.size(); i++) {
+                nextById.put(column.get(i), i + 1 < column.size() ? column.get(i + 1) : null);
+            }
+        }
+        return nextById;
+    }
 
-        for (Task task : tasks) {
-            UUID id = task.getId();
-            switch (task.getStatus()) {
-                case PLANNED:
-                    if (!plannedNextIds.contains(id)) headPlanned = task;
-                    break;
-                case IN_PROGRESS:
-                    if (!inProgressNextIds.contains(id)) headInProgress = task;
-                    break;
-                case COMPLETED:
-                    if (!completedNextIds.contains(id)) headCompleted = task;
-                    break;
+    /** Keeps only the links that differ from the stored ones; tasks missing from the board are new. */
+    private static Map<UUID, UUID> changedLinks(Map<UUID, UUID> nextById, List<TaskDto> board) {
+        Map<UUID, TaskDto> boardById = indexById(board);
+        Map<UUID, UUID> changed = new HashMap<>();
+        nextById.forEach((id, next) -> {
+            TaskDto stored = boardById.get(id);
+            if (!Objects.equals(next, stored == null ? null : stored.next())) {
+                changed.put(id, next);
+            }
+        });
+        return changed;
+    }
+
+    private static Map<UUID, TaskDto> indexById(List<TaskDto> tasks) {
+        Map<UUID, TaskDto> tasksById = new HashMap<>(tasks.size() * 2);
+        tasks.forEach(task -> tasksById.put(task.id(), task));
+        return tasksById;
+    }
+
+    private static Task toTaskEntity(TaskDto taskDto) {
+        return Task.builder()
+                .id(taskDto.id())
+                .storyPoints(taskDto.storyPoints())
+                .status(taskDto.status())
+                .build();
+    }
+
+    private static TaskDto toTaskDto(UUID projectId, Task task, UUID next) {
+        return TaskDto.builder()
+                .id(task.getId())
+                .projectId(projectId)
+                .name(task.getName())
+                .description(task.getDescription())
+                .storyPoints(task.getStoryPoints())
+                .next(next)
+                .status(task.getStatus())
+                .build();
+    }
+
+    private void applyBulkStatisticsDelta(UUID projectId, List<Task> before, List<Task> after,
+                                          boolean dependenciesChanged) {
+        Set<UUID> remainingIds = new HashSet<>();
+        int remainingTasks = 0;
+        double remainingStoryPoints = 0;
+        for (Task task : after) {
+            remainingIds.add(task.getId());
+            remainingTasks += remainingTasks(task);
+            remainingStoryPoints += remainingStoryPoints(task);
+            criticalPathService.putTask(projectId, task.getId(), task.getStoryPoints(), task.getStatus());
+        }
+        for (Task task : before) {
+            remainingTasks -= remainingTasks(task);
+            remainingStoryPoints -= remainingStoryPoints(task);
+            if (!remainingIds.contains(task.getId())) {
+                criticalPathService.removeTask(projectId, task.getId());
             }
+        }
+        projectVersionService.bumpVersion(projectId);
+        projectStatisticsService.applyStatisticsDelta(projectId, ProjectStatisticsDeltaDto.builder()
+                .remainingTasks(remainingTasks)
+                .remainingStoryPoints(remainingStoryPoints)
+                .dependenciesChanged(dependenciesChanged)
+                .build());
+    }
+
+    private TaskDto publishTaskEvent(BoardEventType type, TaskDto taskDto) {
+        boardEventService.publish(BoardEventDto.builder()
+                .type(type)
+                .projectId(taskDto.projectId())
+                .taskId(taskDto.id())
+                .task(taskDto)
+                .build());
+        return taskDto;
+    }
+
+    private void publishTaskDeleted(Task task) {
+        boardEventService.publish(BoardEventDto.builder()
+                .type(BoardEventType.TASK_DELETED)
+                .projectId(task.getProject().getId())
+                .taskId(task.getId())
+                .build());
+    }
+
+    private int remainingTasks(Task task) {
+        return task == null || TaskStatus.COMPLETED.equals(task.getStatus()) ? 0 : 1;
+    }
+
+    private double remainingStoryPoints(Task task) {
+        return remainingTasks(task) == 0 || task.getStoryPoints() == null ? 0 : task.getStoryPoints();
+    }
+
+    private TaskDto createRanked(TaskCreationDto taskCreationDto) {
+        ensureRanked(taskCreationDto.projectId());
+        Task next = findNextInColumn(taskCreationDto.projectId(), taskCreationDto.next(), TaskStatus.PLANNED,
+                "Cannot link a new task to not a planned task");
+        Task newTask = taskMapper.convertToNewTaskEntity(taskCreationDto, null);
+        newTask.setBoardRank(rankBefore(taskCreationDto.projectId(), TaskStatus.PLANNED, next));
+        Task savedTask = taskRepository.save(newTask);
+        applyStatisticsDelta(null, savedTask, false);
+        return publishTaskEvent(BoardEventType.TASK_CREATED, taskMapper.convertToTaskDto(savedTask));
+    }
+
+    /**
+     * A move only rewrites the moved task's rank: it lands right before {@code next} in its
+     * (possibly new) status column, or at the end of the column when no next task is given.
+     */
+    private void moveRanked(Task originalTask, Task updatedTask, TaskUpdateDto taskUpdateDto) {
+        updatedTask.setNext(null);
+        boolean statusChanged = !updatedTask.getStatus().equals(originalTask.getStatus());
+        if (!taskUpdateDto.isNextUpdated() && !statusChanged) {
+            return;
+        }
+        UUID projectId = originalTask.getProject().getId();
+        ensureRanked(projectId);
+        Task next = taskUpdateDto.isNextUpdated() ? findNextInColumn(projectId, taskUpdateDto.next(),
+                updatedTask.getStatus(),
+                "Cannot link a task to a task of different status without changing its status") : null;
+        if (next != null && next.getId().equals(originalTask.getId())) {
+            throw new ForbiddenException("Task cannot be linked to itself");
+        }
+        updatedTask.setBoardRank(rankBefore(projectId, updatedTask.getStatus(), next));
+    }
 
-            if (headPlanned != null && headInProgress != null && headCompleted != null) break;
+    private Task findNextInColumn(UUID projectId, UUID nextId, TaskStatus status, String statusMismatchMessage) {
+        if (nextId == null) {
+            return null;
         }
+        Task next = taskRepository.findById(nextId)
+                .filter(task -> task.getProject() != null && projectId.equals(task.getProject().getId()))
+                .orElseThrow(() -> new NotFoundException("Could not find a task with such ID to link to"));
+        if (!next.getStatus().equals(status)) {
+            throw new ForbiddenException(statusMismatchMessage);
+        }
+        return next;
+    }
 
-        if (headPlanned == null && !plannedNextIds.isEmpty()) {
-            throw new IllegalStateException("Planned linked list has cycle or is broken");
+    /**
+     * Takes the project lock before any rank is read, so rank writers and rebalances of one project
+     * never interleave.
+     */
+    private void ensureRanked(UUID projectId) {
+        projectVersionService.lock(projectId);
+        seedRanksFromLinks(projectId);
+    }
+
+    /**
+     * LINKED writes drop the rank of every task they reposition, so an unranked task means the
+     * {@code next} chains hold the current order; the whole project is then ranked from them.
+     */
+    private boolean seedRanksFromLinks(UUID projectId) {
+        if (!taskRepository.existsByProjectIdAndBoardRankIsNull(projectId)) {
+            return false;
         }
-        else if (headInProgress == null && !inProgressNextIds.isEmpty()) {
-            throw new IllegalStateException("In_progress linked list has cycle or is broken");
+        taskRepository.seedRanksFromLinks(projectId);
+        return true;
+    }
+
+    private String rankBefore(UUID projectId, TaskStatus status, Task next) {
+        String rank = rankBefore(projectId, status, next == null ? null : next.getBoardRank());
+        if (rank.length() > MAX_RANK_LENGTH) {
+            taskRepository.rebalanceRanks(projectId);
+            rank = rankBefore(projectId, status, next == null ? null
+                    : taskRepository.findById(next.getId()).map(Task::getBoardRank).orElse(null));
         }
-        else if (headCompleted == null && !completedNextIds.isEmpty()) {
-            throw new IllegalStateException("Completed linked list has cycle or is broken");
+        return rank;
+    }
+
+    private String rankBefore(UUID projectId, TaskStatus status, String nextRank) {
+        return TaskRank.between(findPrevRank(projectId, status, nextRank), nextRank);
+    }
+
+    private List<String> ranksBefore(UUID projectId, TaskStatus status, UUID nextId, int count) {
+        String nextRank = findRank(nextId);
+        List<String> ranks = TaskRank.between(findPrevRank(projectId, status, nextRank), nextRank, count);
+        if (ranks.stream().anyMatch(rank -> rank.length() > MAX_RANK_LENGTH)) {
+            taskRepository.rebalanceRanks(projectId);
+            nextRank = findRank(nextId);
+            ranks = TaskRank.between(findPrevRank(projectId, status, nextRank), nextRank, count);
         }
+        return ranks;
+    }
+
+    private String findRank(UUID taskId) {
+        return taskId == null ? null : taskRepository.findById(taskId).map(Task::getBoardRank).orElse(null);
+    }
 
-        List<Task> sortedPlanned = new ArrayList<>();
-        List<Task> sortedInProgress = new ArrayList<>();
-        List<Task> sortedCompleted = new ArrayList<>();
-        while (headPlanned != null) {
-            sortedPlanned.add(headPlanned);
-            headPlanned = headPlanned.getNext();
+    private String findPrevRank(UUID projectId, TaskStatus status, String nextRank) {
+        Optional<Task> prev = nextRank == null
+                ? taskRepository.findFirstByProjectIdAndStatusOrderByBoardRankDesc(projectId, status)
+                : taskRepository.findFirstByProjectIdAndStatusAndBoardRankLessThanOrderByBoardRankDesc(
+                        projectId, status, nextRank);
+        return prev.map(Task::getBoardRank).orElse(null);
+    }
+
+    private SortedTasksDto groupRankedTasks(List<TaskDto> tasks) {
+        Map<TaskStatus, List<TaskDto>> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            columns.put(status, new ArrayList<>());
         }
-        while (headInProgress != null) {
-            sortedInProgress.add(headInProgress);
-            headInProgress = headInProgress.getNext();
+        for (TaskDto task : tasks) {
+            columns.get(task.status()).add(task);
         }
-        while (headCompleted != null) {
-            sortedCompleted.add(headCompleted);
-            headCompleted = headCompleted.getNext();
+        return SortedTasksDto.builder()
+                .planned(linkColumn(columns.get(TaskStatus.PLANNED)))
+                .inprogress(linkColumn(columns.get(TaskStatus.IN_PROGRESS)))
+                .completed(linkColumn(columns.get(TaskStatus.COMPLETED)))
+                .build();
+    }
+
+    private List<TaskDto> linkColumn(List<TaskDto> column) {
+        List<TaskDto> linked = new ArrayList<>(column.size());
+        for (int i = 0; i < column.size(); i++) {
+            TaskDto taskDto = column.get(i);
+            linked.add(TaskDto.builder()
+                    .id(taskDto.id())
+                    .projectId(taskDto.projectId())
+                    .name(taskDto.name())
+                    .description(taskDto.description())
+                    .storyPoints(taskDto.storyPoints())
+                    .status(taskDto.status())
+                    .next(i + 1 < column.size() ? column.get(i + 1).id() : null)
+                    .build());
+        }
+        return linked;
+    }
+
+    /**
+     * Rebuilds the linked columns from the flat board rows by id, so reading the board never
+     * walks the {@code next} associations of the entities. A column must form exactly one chain;
+     * several heads or tasks the chain does not reach fail the read instead of being dropped.
+     */
+    private SortedTasksDto sortLinkedTasks(List<TaskDto> tasks) {
+        Map<UUID, TaskDto> tasksById = new HashMap<>(tasks.size() * 2);
+        Map<TaskStatus, Set<UUID>> nextIds = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, List<TaskDto>> heads = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, Integer> sizes = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            nextIds.put(status, new HashSet<>());
+            heads.put(status, new ArrayList<>());
+            sizes.put(status, 0);
+        }
+        for (TaskDto task : tasks) {
+            tasksById.put(task.id(), task);
+            sizes.merge(task.status(), 1, Integer::sum);
+            if (task.next() != null) {
+                nextIds.get(task.status()).add(task.next());
+            }
+        }
+        for (TaskDto task : tasks) {
+            if (!nextIds.get(task.status()).contains(task.id())) {
+                heads.get(task.status()).add(task);
+            }
         }
+
         return SortedTasksDto.builder()
-                .planned(sortedPlanned.stream().map(taskMapper::convertToTaskDto).toList())
-                .inprogress(sortedInProgress.stream().map(taskMapper::convertToTaskDto).toList())
-                .completed(sortedCompleted.stream().map(taskMapper::convertToTaskDto).toList())
+                .planned(followLinks(heads.get(TaskStatus.PLANNED), tasksById,
+                        sizes.get(TaskStatus.PLANNED), "Planned"))
+                .inprogress(followLinks(heads.get(TaskStatus.IN_PROGRESS), tasksById,
+                        sizes.get(TaskStatus.IN_PROGRESS), "In_progress"))
+                .completed(followLinks(heads.get(TaskStatus.COMPLETED), tasksById,
+                        sizes.get(TaskStatus.COMPLETED), "Completed"))
                 .build();
     }
 
+    private List<TaskDto> followLinks(List<TaskDto> heads, Map<UUID, TaskDto> tasksById, int size,
+                                      String columnName) {
+        if (heads.size() > 1) {
+            throw new IllegalStateException(columnName + " linked list has " + heads.size() + " heads");
+        }
+        List<TaskDto> column = new ArrayList<>(size);
+        Set<UUID> visited = new HashSet<>();
+        TaskDto current = heads.isEmpty() ? null : heads.getFirst();
+        while (current != null) {
+            if (!visited.add(current.id())) {
+                throw new IllegalStateException(columnName + " linked list has cycle or is broken");
+            }
+            column.add(current);
+            TaskDto next = current.next() == null ? null : tasksById.get(current.next());
+            current = next != null && next.status() == current.status() ? next : null;
+        }
+        if (column.size() != size) {
+            throw new IllegalStateException(columnName + " linked list has cycle or is broken");
+        }
+        return column;
+    }
+
     private Task findPrevByCurrentEntity(Task task) {
         List<Task> list = taskRepository.findByNext(task);
         return list.isEmpty() ? null : list.getFirst();
@@ -3,6 +3,8 @@ package com.predman.content.service;
 import com.predman.content.auth.CustomUserDetails;
 import com.predman.content.auth.JwtTokenProvider;
 import com.predman.content.auth.PasswordUtil;
+import com.predman.content.auth.PrincipalCache;
+import com.predman.content.common.TransactionHooks;
 import com.predman.content.dto.user.auth.UserAuthResponseDto;
 import com.predman.content.dto.user.auth.UserLoginDto;
 import com.predman.content.dto.user.detailed.UserDto;
@@ -41,7 +43,7 @@ public class UserServiceImpl implements UserService {
     private final EntityManager entityManager;
     private final ProjectService projectService;
     private final ProjectMemberService projectMemberService;
-
+    private final PrincipalCache principalCache;
 
     @Override
     public User getEntityById(UUID id)
@@ -140,6 +142,8 @@ public class UserServiceImpl implements UserService {
         }
         projectMemberService.deleteAllByUserId(userId);
         userRepository.deleteById(userId);
+        // Invalidating earlier would let a concurrent request cache the user again until the TTL ends.
+        TransactionHooks.afterCommit(() -> principalCache.invalidateByUserId(userId));
     }
 
     @Override
@@ -0,0 +1,48 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true
+ALTER TABLE tasks
+    ADD COLUMN board_rank varchar(255) COLLATE "C";
+
+WITH RECURSIVE chain AS (
+    SELECT t.id AS head_id, t.id, t.next, t.status, 0 AS pos
+    FROM tasks t
+    WHERE NOT EXISTS (
+        SELECT 1
+        FROM tasks p
+        WHERE p.next = t.id
+        AND p.status = t.status
+        AND p.project_id = t.project_id
+    )
+    UNION ALL
+    SELECT c.head_id, n.id, n.next, n.status, c.pos + 1
+    FROM chain c
+    JOIN tasks n ON n.id = c.next AND n.status = c.status
+    WHERE c.pos < 100000
+),
+first_visit AS (
+    SELECT DISTINCT ON (id) id, head_id, pos
+    FROM chain
+    ORDER BY id, pos
+),
+ordered AS (
+    SELECT t.id, row_number() OVER (
+        PARTITION BY t.project_id, t.status
+        ORDER BY f.id IS NULL, h.created_at, f.head_id, f.pos, t.created_at, t.id
+    ) AS pos
+    FROM tasks t
+    LEFT JOIN first_visit f ON f.id = t.id
+    LEFT JOIN tasks h ON h.id = f.head_id
+)
+UPDATE tasks t
+SET board_rank = rtrim(lpad((o.pos * 1000)::text, 12, '0'), '0')
+FROM ordered o
+WHERE o.id = t.id;
+
+CREATE INDEX idx_tasks_project_status_rank ON tasks (project_id, status, board_rank);
+
+/* liquibase rollback
+DROP INDEX idx_tasks_project_status_rank;
+ALTER TABLE tasks
+    DROP COLUMN board_rank;
+*/
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true
+CREATE INDEX idx_project_statistics_project_saved_at ON project_statistics (project_id, saved_at);
+
+/* liquibase rollback
+DROP INDEX idx_project_statistics_project_saved_at;
+*/
@@ -0,0 +1,112 @@
+--liquibase formatted sql
+
+--changeset author:Koteron splitStatements:false failOnError:true
+ALTER TABLE project_statistics RENAME TO project_statistics_unpartitioned;
+ALTER TABLE project_statistics_unpartitioned
+    RENAME CONSTRAINT project_statistics_pkey TO project_statistics_unpartitioned_pkey;
+ALTER TABLE project_statistics_unpartitioned
+    RENAME CONSTRAINT project_statistics_fk1 TO project_statistics_unpartitioned_fk1;
+DROP INDEX idx_project_statistics_project_saved_at;
+
+CREATE TABLE project_statistics
+(
+    id                        uuid      not null default gen_random_uuid(),
+    project_id                uuid      not null,
+    team_size                 int,
+    days_since_start          int,
+    remaining_tasks           int,
+    remaining_story_points    double precision,
+    dependency_coefficient    double precision,
+    critical_path_length      double precision,
+    sum_experience            double precision,
+    available_hours           double precision,
+    external_risk_probability double precision,
+    saved_at                  timestamp not null,
+
+    constraint project_statistics_pkey primary key (id, saved_at),
+    constraint project_statistics_fk1 foreign key (project_id) references projects (id) on delete cascade
+) PARTITION BY RANGE (saved_at);
+
+CREATE INDEX idx_project_statistics_project_saved_at ON project_statistics (project_id, saved_at);
+
+CREATE TABLE project_statistics_default PARTITION OF project_statistics DEFAULT;
+
+CREATE FUNCTION create_project_statistics_partition(month date) RETURNS boolean AS $$
+DECLARE
+    month_start date := date_trunc('month', month);
+    partition_name text := 'project_statistics_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF project_statistics FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, (month_start + interval '1 month')::date);
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION drop_project_statistics_partitions_before(month date) RETURNS integer AS $$
+DECLARE
+    expired record;
+    dropped integer := 0;
+BEGIN
+    FOR expired IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'project_statistics'::regclass
+        AND c.relname ~ '^project_statistics_[0-9]{4}_[0-9]{2}$'
+        AND to_date(right(c.relname, 7), 'YYYY_MM') < date_trunc('month', month)
+    LOOP
+        EXECUTE format('DROP TABLE %I', expired.relname);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_project_statistics_partition(month::date)
+FROM generate_series(
+    date_trunc('month', coalesce((SELECT min(saved_at) FROM project_statistics_unpartitioned), now())),
+    date_trunc('month', now()) + interval '3 months',
+    interval '1 month') AS month;
+
+INSERT INTO project_statistics (id, project_id, team_size, days_since_start, remaining_tasks,
+                                remaining_story_points, dependency_coefficient, critical_path_length,
+                                sum_experience, available_hours, external_risk_probability, saved_at)
+SELECT id, project_id, team_size, days_since_start, remaining_tasks,
+       remaining_story_points, dependency_coefficient, critical_path_length,
+       sum_experience, available_hours, external_risk_probability, coalesce(saved_at, now())
+FROM project_statistics_unpartitioned;
+
+DROP TABLE project_statistics_unpartitioned;
+
+/* liquibase rollback
+CREATE TABLE project_statistics_unpartitioned
+(
+    id                        uuid default gen_random_uuid(),
+    project_id                uuid not null,
+    team_size                 int,
+    days_since_start          int,
+    remaining_tasks           int,
+    remaining_story_points    double precision,
+    dependency_coefficient    double precision,
+    critical_path_length      double precision,
+    sum_experience            double precision,
+    available_hours           double precision,
+    external_risk_probability double precision,
+    saved_at                  timestamp
+);
+INSERT INTO project_statistics_unpartitioned SELECT id, project_id, team_size, days_since_start, remaining_tasks,
+    remaining_story_points, dependency_coefficient, critical_path_length,
+    sum_experience, available_hours, external_risk_probability, saved_at
+FROM project_statistics;
+DROP TABLE project_statistics;
+DROP FUNCTION create_project_statistics_partition(date);
+DROP FUNCTION drop_project_statistics_partitions_before(date);
+ALTER TABLE project_statistics_unpartitioned RENAME TO project_statistics;
+ALTER TABLE project_statistics ADD CONSTRAINT project_statistics_pkey PRIMARY KEY (id);
+ALTER TABLE project_statistics ADD CONSTRAINT project_statistics_fk1
+    FOREIGN KEY (project_id) REFERENCES projects (id) ON DELETE CASCADE;
+CREATE INDEX idx_project_statistics_project_saved_at ON project_statistics (project_id, saved_at);
+*/
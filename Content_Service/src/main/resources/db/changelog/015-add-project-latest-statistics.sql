@@ -0,0 +1,26 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true
+CREATE TABLE project_latest_statistics
+(
+    project_id    uuid primary key,
+    statistics_id uuid      not null,
+    saved_at      timestamp not null,
+
+    constraint project_latest_statistics_fk1 foreign key (project_id) references projects (id) on delete cascade
+);
+
+INSERT INTO project_latest_statistics (project_id, statistics_id, saved_at)
+SELECT p.id, s.id, s.saved_at
+FROM projects p
+CROSS JOIN LATERAL (
+    SELECT id, saved_at
+    FROM project_statistics
+    WHERE project_id = p.id
+    ORDER BY saved_at DESC
+    LIMIT 1
+) s;
+
+/* liquibase rollback
+DROP TABLE project_latest_statistics;
+*/
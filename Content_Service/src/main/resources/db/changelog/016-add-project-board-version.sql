@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true
+ALTER TABLE projects
+    ADD COLUMN board_version bigint NOT NULL DEFAULT 0;
+
+/* liquibase rollback
+ALTER TABLE projects
+    DROP COLUMN board_version;
+*/
@@ -0,0 +1,16 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_next ON tasks (next);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_dependencies_dependency_id ON task_dependencies (dependency_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_assignments_task_id ON task_assignments (task_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_project_members_project_id ON project_members (project_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_owner_id ON projects (owner_id);
+
+/* liquibase rollback
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_next;
+DROP INDEX CONCURRENTLY IF EXISTS idx_task_dependencies_dependency_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_task_assignments_task_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_project_members_project_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_projects_owner_id;
+*/
@@ -0,0 +1,25 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true
+CREATE TABLE prediction_history
+(
+    id                uuid             not null default gen_random_uuid(),
+    project_id        uuid             not null,
+    model_version     varchar(64),
+    estimated_days    int              not null,
+    predicted_days    int              not null,
+    mu                double precision,
+    sigma             double precision,
+    certainty_percent double precision not null,
+    statistics_id     uuid,
+    predicted_at      timestamp        not null,
+
+    constraint prediction_history_pkey primary key (id),
+    constraint prediction_history_fk1 foreign key (project_id) references projects (id) on delete cascade
+);
+
+CREATE INDEX idx_prediction_history_project_predicted_at ON prediction_history (project_id, predicted_at);
+
+/* liquibase rollback
+DROP TABLE prediction_history;
+*/
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true
+ALTER TABLE projects
+    ADD COLUMN prediction_attempted_at timestamp;
+
+/* liquibase rollback
+ALTER TABLE projects
+    DROP COLUMN prediction_attempted_at;
+*/
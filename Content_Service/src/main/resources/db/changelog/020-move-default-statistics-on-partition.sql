@@ -0,0 +1,43 @@
+--liquibase formatted sql
+
+--changeset author:Koteron splitStatements:false failOnError:true
+CREATE OR REPLACE FUNCTION create_project_statistics_partition(month date) RETURNS boolean AS $$
+DECLARE
+    month_start date := date_trunc('month', month);
+    month_end date := (date_trunc('month', month) + interval '1 month')::date;
+    partition_name text := 'project_statistics_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    -- Rows of the month may already sit in the default partition, which would make a plain
+    -- PARTITION OF fail; move them into the new table first and attach it afterwards.
+    EXECUTE format('CREATE TABLE %I (LIKE project_statistics INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (
+                        DELETE FROM project_statistics_default
+                        WHERE saved_at >= %L AND saved_at < %L
+                        RETURNING *
+                    )
+                    INSERT INTO %I SELECT * FROM moved',
+                   month_start, month_end, partition_name);
+    EXECUTE format('ALTER TABLE project_statistics ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_end);
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+/* liquibase rollback
+CREATE OR REPLACE FUNCTION create_project_statistics_partition(month date) RETURNS boolean AS $$
+DECLARE
+    month_start date := date_trunc('month', month);
+    partition_name text := 'project_statistics_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF project_statistics FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, (month_start + interval '1 month')::date);
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+*/
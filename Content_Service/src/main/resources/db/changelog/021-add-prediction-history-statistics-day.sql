@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset author:Koteron failOnError:true
+ALTER TABLE prediction_history
+    ADD COLUMN statistics_saved_on date;
+
+/* liquibase rollback
+ALTER TABLE prediction_history
+    DROP COLUMN statistics_saved_on;
+*/
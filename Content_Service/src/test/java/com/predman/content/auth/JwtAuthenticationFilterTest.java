@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,6 +31,7 @@ class JwtAuthenticationFilterTest {
     @Mock private HttpServletRequest request;
     @Mock private HttpServletResponse response;
     @Mock private FilterChain filterChain;
+    @Spy private PrincipalCache principalCache = new PrincipalCache(10, 60);
 
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
@@ -62,6 +64,26 @@ class JwtAuthenticationFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void doFilterInternal_withRepeatedToken_loadsUserOnce() throws ServletException, IOException {
+        UserDetails userDetails = new CustomUserDetails(
+                User.builder().email(email).passwordHash("password").build());
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
+        when(jwtTokenProvider.extractEmail(token)).thenReturn(email);
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertEquals(email, SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(userDetailsService, times(1)).loadUserByUsername(email);
+        assertEquals(1, principalCache.getHitCount());
+        assertEquals(1, principalCache.getMissCount());
+    }
+
     @Test
     void doFilterInternal_withNoToken_doesNotSetAuthentication() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn(null);
@@ -85,7 +107,8 @@ class JwtAuthenticationFilterTest {
 
     @Test
     void getTokenFromRequest_shouldExtractTokenProperly() throws Exception {
-        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(userDetailsService, jwtTokenProvider);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(userDetailsService, jwtTokenProvider,
+                principalCache);
 
         HttpServletRequest mockRequest = mock(HttpServletRequest.class);
         when(mockRequest.getHeader("Authorization")).thenReturn("Bearer abc.def.ghi");
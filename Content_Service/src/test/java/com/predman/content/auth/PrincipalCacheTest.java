@@ -0,0 +1,31 @@
+package com.predman.content.auth;
+
+import com.predman.content.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+    private final PrincipalCache principalCache = new PrincipalCache(10, 60);
+
+    private CustomUserDetails load(String subject) {
+        return new CustomUserDetails(User.builder().email(subject).passwordHash("password").build());
+    }
+
+    @Test
+    void bindTo_publishesHitsMissesAndSize() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        principalCache.bindTo(registry);
+
+        principalCache.get("first@predman.test", this::load);
+        principalCache.get("first@predman.test", this::load);
+        principalCache.get("second@predman.test", this::load);
+
+        assertEquals(1.0, registry.get("predman.principal_cache.gets").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("predman.principal_cache.gets").tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("predman.principal_cache.size").gauge().value());
+    }
+}
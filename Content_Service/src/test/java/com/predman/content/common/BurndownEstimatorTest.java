@@ -0,0 +1,86 @@
+package com.predman.content.common;
+
+import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BurndownEstimatorTest {
+    private static final UUID PROJECT_ID = UUID.randomUUID();
+
+    private static ProjectStatisticsDto point(int day, Double remainingStoryPoints) {
+        return ProjectStatisticsDto.builder()
+                .projectId(PROJECT_ID)
+                .daysSinceStart(day)
+                .remainingStoryPoints(remainingStoryPoints)
+                .build();
+    }
+
+    @Test
+    void estimate_linearBurndown_finishesWherePointsReachZero() {
+        PredictionDto prediction = BurndownEstimator.estimate(
+                List.of(point(0, 40.0), point(2, 32.0), point(4, 24.0), point(6, 16.0)), 10);
+
+        assertEquals(10, prediction.predictedDays());
+        assertEquals(1 / Math.sqrt(2 * Math.PI), prediction.certaintyPercent(), 1e-9);
+    }
+
+    @Test
+    void estimate_noisyBurndown_isLessCertainAtTheSameDistance() {
+        PredictionDto exact = BurndownEstimator.estimate(
+                List.of(point(0, 40.0), point(2, 32.0), point(4, 24.0), point(6, 16.0)), 14);
+        PredictionDto noisy = BurndownEstimator.estimate(
+                List.of(point(0, 44.0), point(2, 28.0), point(4, 20.0), point(6, 20.0)), 14);
+
+        assertEquals(10, noisy.predictedDays());
+        assertTrue(noisy.certaintyPercent() > 0);
+        assertTrue(noisy.certaintyPercent() > exact.certaintyPercent(),
+                "A wider spread puts more density four days away from the estimate");
+    }
+
+    @Test
+    void estimate_estimatedDaysOnPrediction_isMostCertain() {
+        List<ProjectStatisticsDto> history =
+                List.of(point(0, 44.0), point(2, 28.0), point(4, 20.0), point(6, 20.0));
+
+        double onTime = BurndownEstimator.estimate(history, 10).certaintyPercent();
+
+        assertTrue(onTime > BurndownEstimator.estimate(history, 7).certaintyPercent());
+        assertTrue(onTime > BurndownEstimator.estimate(history, 13).certaintyPercent());
+    }
+
+    @Test
+    void estimate_noProgress_predictsNoDeadline() {
+        PredictionDto prediction = BurndownEstimator.estimate(
+                List.of(point(0, 10.0), point(1, 12.0), point(2, 12.0)), 30);
+
+        assertFalse(prediction.hasDeadline());
+        assertNull(prediction.predictedDays());
+        assertEquals(0.0, prediction.certaintyPercent());
+    }
+
+    @Test
+    void estimate_tooLittleHistory_predictsNoDeadline() {
+        assertFalse(BurndownEstimator.estimate(List.of(), 30).hasDeadline());
+        assertFalse(BurndownEstimator.estimate(List.of(point(0, 10.0), point(3, null)), 30).hasDeadline());
+    }
+
+    @Test
+    void estimate_finishedProject_predictsLastDay() {
+        PredictionDto prediction = BurndownEstimator.estimate(List.of(point(0, 10.0), point(5, 0.0)), 20);
+
+        assertEquals(5, prediction.predictedDays());
+    }
+
+    @Test
+    void estimate_neverPredictsBeforeLastObservedDay() {
+        PredictionDto prediction = BurndownEstimator.estimate(
+                List.of(point(0, 40.0), point(1, 1.0), point(8, 2.0)), 20);
+
+        assertTrue(prediction.predictedDays() >= 8);
+    }
+}
@@ -0,0 +1,96 @@
+package com.predman.content.common;
+
+import com.predman.content.entity.Project;
+import com.predman.content.entity.ProjectStatistics;
+import com.predman.content.service.ProjectService;
+import com.predman.content.service.ProjectStatisticsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyUpdateTest {
+
+    @Mock private ProjectStatisticsService projectStatisticsService;
+    @Mock private ProjectService projectService;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DailyUpdate dailyUpdate;
+
+    @Test
+    void run_isolatesFailingProjects() {
+        Project healthy = Project.builder().id(UUID.randomUUID()).build();
+        Project broken = Project.builder().id(UUID.randomUUID()).build();
+        when(projectStatisticsService.getAllLatestStatistics()).thenReturn(List.of(
+                ProjectStatistics.builder().project(healthy).build(),
+                ProjectStatistics.builder().project(broken).build()));
+        doThrow(new RuntimeException()).when(projectStatisticsService).reconcileStatistics(broken.getId());
+        when(projectService.getEntityById(healthy.getId())).thenReturn(healthy);
+
+        DailyUpdateReport report = dailyUpdate.run();
+
+        assertEquals(1, report.successes());
+        assertEquals(1, report.failures());
+        verify(projectService).updatePredictions(argThat(projects -> projects.equals(List.of(healthy))));
+        verify(projectService, never()).getEntityById(broken.getId());
+    }
+
+    @Test
+    void run_countsFailedPredictionBatch() {
+        Project project = Project.builder().id(UUID.randomUUID()).build();
+        when(projectStatisticsService.getAllLatestStatistics())
+                .thenReturn(List.of(ProjectStatistics.builder().project(project).build()));
+        when(projectService.getEntityById(project.getId())).thenReturn(project);
+        doThrow(new RuntimeException()).when(projectService).updatePredictions(anyList());
+
+        DailyUpdateReport report = dailyUpdate.run();
+
+        assertEquals(0, report.successes());
+        assertEquals(1, report.failures());
+    }
+
+    @Test
+    void run_countsProjectsWhosePredictionWasNotSaved() {
+        Project saved = Project.builder().id(UUID.randomUUID()).build();
+        Project unsaved = Project.builder().id(UUID.randomUUID()).build();
+        when(projectStatisticsService.getAllLatestStatistics()).thenReturn(List.of(
+                ProjectStatistics.builder().project(saved).build(),
+                ProjectStatistics.builder().project(unsaved).build()));
+        when(projectService.getEntityById(saved.getId())).thenReturn(saved);
+        when(projectService.getEntityById(unsaved.getId())).thenReturn(unsaved);
+        when(projectService.updatePredictions(anyList())).thenReturn(List.of(unsaved.getId()));
+
+        DailyUpdateReport report = dailyUpdate.run();
+
+        assertEquals(1, report.successes());
+        assertEquals(1, report.failures());
+    }
+
+    @Test
+    void dailyStatisticsUpdate_recordsDurationAndOutcomes() {
+        Project project = Project.builder().id(UUID.randomUUID()).build();
+        when(projectStatisticsService.getAllLatestStatistics())
+                .thenReturn(List.of(ProjectStatistics.builder().project(project).build()));
+        when(projectService.getEntityById(project.getId())).thenReturn(project);
+
+        dailyUpdate.dailyStatisticsUpdate();
+
+        assertEquals(1, meterRegistry.timer("predman.daily_update").count());
+        assertEquals(1, meterRegistry.counter("predman.daily_update.projects", "result", "success").count());
+        assertEquals(0, meterRegistry.counter("predman.daily_update.projects", "result", "failure").count());
+    }
+}
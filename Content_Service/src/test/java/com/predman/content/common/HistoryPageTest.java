@@ -0,0 +1,68 @@
+package com.predman.content.common;
+
+import com.predman.content.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryPageTest {
+
+    @Test
+    void of_defaultsRangeAndLimit() {
+        HistoryPage page = HistoryPage.of(null, null, null, null, 100, 1000, "history");
+
+        assertEquals(LocalDateTime.of(1970, 1, 1, 0, 0), page.from());
+        assertEquals(LocalDate.now().plusDays(1).atStartOfDay(), page.to());
+        assertEquals(page.from(), page.after());
+        assertEquals(100, page.limit());
+    }
+
+    @Test
+    void nextCursor_roundTripsTimestampAndId() {
+        LocalDateTime savedAt = LocalDateTime.of(2024, 3, 2, 3, 0, 15, 120_000_000);
+        UUID id = UUID.randomUUID();
+        HistoryPage page = HistoryPage.of(null, null, null, 1, 100, 1000, "history");
+
+        String cursor = page.nextCursor(List.of(savedAt), Function.identity(), row -> id);
+        HistoryPage next = HistoryPage.of(null, null, cursor, 1, 100, 1000, "history");
+
+        assertEquals(savedAt, next.after());
+        assertEquals(id, next.afterId());
+    }
+
+    @Test
+    void nextCursor_withoutId_isTimestampOnlyAndContinuesAfterIt() {
+        LocalDateTime bucketStart = LocalDateTime.of(2024, 3, 4, 0, 0);
+        HistoryPage page = HistoryPage.of(null, null, null, 1, 100, 1000, "history");
+
+        String cursor = page.nextCursor(List.of(bucketStart), Function.identity(), row -> null);
+        HistoryPage next = HistoryPage.of(null, null, cursor, 1, 100, 1000, "history");
+
+        assertEquals(bucketStart.toString(), cursor);
+        assertEquals(bucketStart, next.after());
+        assertEquals(new UUID(-1L, -1L), next.afterId());
+    }
+
+    @Test
+    void nextCursor_partialPage_isNull() {
+        HistoryPage page = HistoryPage.of(null, null, null, 2, 100, 1000, "history");
+
+        assertNull(page.nextCursor(List.of(LocalDateTime.now()), Function.identity(), row -> UUID.randomUUID()));
+    }
+
+    @Test
+    void of_invalidRequest_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> HistoryPage.of(null, null, null, 0, 100, 1000, "history"));
+        assertThrows(BadRequestException.class, () -> HistoryPage.of(null, null, null, 1001, 100, 1000, "history"));
+        assertThrows(BadRequestException.class,
+                () -> HistoryPage.of(null, null, "yesterday", null, 100, 1000, "history"));
+        assertThrows(BadRequestException.class,
+                () -> HistoryPage.of(null, null, "2024-03-02T03:00_not-an-id", null, 100, 1000, "history"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.predman.content.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectMembershipCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final ProjectMembershipCache cache = new ProjectMembershipCache(2, 60, now::get);
+    private final UUID userId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicBoolean member = new AtomicBoolean(true);
+    private final BiPredicate<UUID, UUID> loader = (user, project) -> {
+        loads.incrementAndGet();
+        return member.get();
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isMember_cachesPositiveAnswers() {
+        assertTrue(cache.isMember(userId, projectId, loader));
+        assertTrue(cache.isMember(userId, projectId, loader));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void isMember_doesNotCacheNegativeAnswers() {
+        member.set(false);
+        assertFalse(cache.isMember(userId, projectId, loader));
+        member.set(true);
+
+        assertTrue(cache.isMember(userId, projectId, loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void isMember_reloadsAfterTtl() {
+        cache.isMember(userId, projectId, loader);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        member.set(false);
+
+        assertFalse(cache.isMember(userId, projectId, loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void isMember_dropsLeastRecentlyUsedUsers() {
+        cache.isMember(userId, projectId, loader);
+        cache.isMember(UUID.randomUUID(), projectId, loader);
+        cache.isMember(UUID.randomUUID(), projectId, loader);
+
+        cache.isMember(userId, projectId, loader);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evictUser_inTransaction_evictsAgainAfterCommit() {
+        cache.isMember(userId, projectId, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictUser(userId);
+        // A concurrent check reloads the row that the open transaction is deleting.
+        assertTrue(cache.isMember(userId, projectId, loader));
+        member.set(false);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(cache.isMember(userId, projectId, loader));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictProject_removesProjectForEveryUser() {
+        UUID otherUserId = UUID.randomUUID();
+        cache.isMember(userId, projectId, loader);
+        cache.isMember(otherUserId, projectId, loader);
+
+        cache.evictProject(projectId);
+        member.set(false);
+
+        assertFalse(cache.isMember(userId, projectId, loader));
+        assertFalse(cache.isMember(otherUserId, projectId, loader));
+    }
+}
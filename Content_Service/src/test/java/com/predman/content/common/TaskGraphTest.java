@@ -0,0 +1,262 @@
+package com.predman.content.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskGraphTest {
+
+    private static UUID[] ids(int count) {
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        return ids;
+    }
+
+    @Test
+    void of_computesLongestPathRegardlessOfInputOrder() {
+        UUID[] ids = ids(4);
+        List<TaskGraph.Node> nodes = new ArrayList<>(List.of(
+                new TaskGraph.Node(ids[0], 1, true),
+                new TaskGraph.Node(ids[1], 2, true),
+                new TaskGraph.Node(ids[2], 3, true),
+                new TaskGraph.Node(ids[3], 10, true)));
+        Collections.reverse(nodes);
+        List<TaskGraph.Edge> edges = List.of(
+                new TaskGraph.Edge(ids[2], ids[1]),
+                new TaskGraph.Edge(ids[1], ids[0]));
+
+        TaskGraph graph = TaskGraph.of(nodes, edges);
+
+        assertEquals(10.0, graph.getCriticalPathLength());
+        assertEquals(6.0, graph.getPathLength(ids[2]));
+        assertFalse(graph.isCyclic());
+    }
+
+    @Test
+    void completedTasksBreakChains() {
+        UUID[] ids = ids(3);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 4, true),
+                        new TaskGraph.Node(ids[1], 4, false),
+                        new TaskGraph.Node(ids[2], 4, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0]), new TaskGraph.Edge(ids[2], ids[1])));
+
+        assertEquals(4.0, graph.getCriticalPathLength());
+
+        graph.putTask(ids[1], 4, true);
+        assertEquals(12.0, graph.getCriticalPathLength());
+    }
+
+    @Test
+    void incrementalChanges_matchFullRebuild() {
+        UUID[] ids = ids(5);
+        List<TaskGraph.Node> nodes = new ArrayList<>();
+        for (UUID id : ids) {
+            nodes.add(new TaskGraph.Node(id, 1, true));
+        }
+        TaskGraph graph = TaskGraph.of(nodes, List.of());
+
+        graph.addDependency(ids[1], ids[0]);
+        graph.addDependency(ids[2], ids[1]);
+        graph.addDependency(ids[4], ids[3]);
+        assertEquals(3.0, graph.getCriticalPathLength());
+
+        graph.putTask(ids[3], 7, true);
+        assertEquals(8.0, graph.getCriticalPathLength());
+
+        graph.removeDependency(ids[4], ids[3]);
+        assertEquals(7.0, graph.getCriticalPathLength());
+
+        graph.removeTask(ids[3]);
+        assertEquals(3.0, graph.getCriticalPathLength());
+        assertFalse(graph.containsTask(ids[3]));
+    }
+
+    @Test
+    void removeTask_handlesTaskWithoutDependents() {
+        UUID[] ids = ids(2);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true), new TaskGraph.Node(ids[1], 2, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0])));
+
+        graph.removeTask(ids[1]);
+
+        assertEquals(1.0, graph.getCriticalPathLength());
+        assertFalse(graph.containsTask(ids[1]));
+    }
+
+    @Test
+    void wouldCreateCycle_detectsDownstreamDependency() {
+        UUID[] ids = ids(3);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true),
+                        new TaskGraph.Node(ids[1], 1, true),
+                        new TaskGraph.Node(ids[2], 1, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0]), new TaskGraph.Edge(ids[2], ids[1])));
+
+        assertTrue(graph.wouldCreateCycle(ids[0], ids[2]));
+        assertTrue(graph.wouldCreateCycle(ids[0], ids[0]));
+        assertFalse(graph.wouldCreateCycle(ids[2], ids[0]));
+        assertThrows(IllegalStateException.class, () -> graph.addDependency(ids[0], ids[2]));
+    }
+
+    @Test
+    void wouldCreateCycle_checksNewEdgesTogether() {
+        UUID[] ids = ids(4);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true),
+                        new TaskGraph.Node(ids[1], 1, true),
+                        new TaskGraph.Node(ids[2], 1, true),
+                        new TaskGraph.Node(ids[3], 1, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0])));
+
+        assertFalse(graph.wouldCreateCycle(List.of(
+                new TaskGraph.Edge(ids[2], ids[1]), new TaskGraph.Edge(ids[3], ids[2]))));
+        assertTrue(graph.wouldCreateCycle(List.of(
+                new TaskGraph.Edge(ids[2], ids[3]), new TaskGraph.Edge(ids[3], ids[2]))));
+        assertTrue(graph.wouldCreateCycle(List.of(
+                new TaskGraph.Edge(ids[2], ids[1]), new TaskGraph.Edge(ids[0], ids[2]))));
+        assertTrue(graph.wouldCreateCycle(List.of(new TaskGraph.Edge(ids[3], ids[3]))));
+        assertFalse(graph.wouldCreateCycle(List.of(new TaskGraph.Edge(UUID.randomUUID(), ids[0]))));
+    }
+
+    @Test
+    void wouldCreateCycle_ignoresCycleAlreadyStored() {
+        UUID[] ids = ids(3);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true),
+                        new TaskGraph.Node(ids[1], 1, true),
+                        new TaskGraph.Node(ids[2], 1, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0]), new TaskGraph.Edge(ids[0], ids[1])));
+
+        assertFalse(graph.wouldCreateCycle(List.of(new TaskGraph.Edge(ids[0], ids[2]))));
+        assertTrue(graph.wouldCreateCycle(List.of(
+                new TaskGraph.Edge(ids[0], ids[2]), new TaskGraph.Edge(ids[2], ids[1]))));
+    }
+
+    @Test
+    void wouldCreateCycle_checksTenThousandEdgesQuickly() {
+        int size = 10_001;
+        UUID[] ids = ids(size);
+        List<TaskGraph.Node> nodes = new ArrayList<>(size);
+        List<TaskGraph.Edge> edges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(new TaskGraph.Node(ids[i], 1, true));
+            if (i > 0) {
+                edges.add(new TaskGraph.Edge(ids[i], ids[i - 1]));
+            }
+        }
+        TaskGraph graph = TaskGraph.of(nodes, List.of());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertFalse(graph.wouldCreateCycle(edges));
+            List<TaskGraph.Edge> closed = new ArrayList<>(edges);
+            closed.add(new TaskGraph.Edge(ids[0], ids[size - 1]));
+            assertTrue(graph.wouldCreateCycle(closed));
+        });
+    }
+
+    @Test
+    void of_marksExistingCycle() {
+        UUID[] ids = ids(3);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true),
+                        new TaskGraph.Node(ids[1], 1, true),
+                        new TaskGraph.Node(ids[2], 5, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0]), new TaskGraph.Edge(ids[0], ids[1])));
+
+        assertTrue(graph.isCyclic());
+        assertEquals(5.0, graph.getCriticalPathLength());
+    }
+
+    @Test
+    void removeDependency_breakingLastCycle_clearsCyclic() {
+        UUID[] ids = ids(3);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true),
+                        new TaskGraph.Node(ids[1], 1, true),
+                        new TaskGraph.Node(ids[2], 5, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0]), new TaskGraph.Edge(ids[0], ids[1])));
+
+        assertTrue(graph.removeDependency(ids[0], ids[1]));
+
+        assertFalse(graph.isCyclic());
+        assertEquals(2.0, graph.getPathLength(ids[1]));
+        assertFalse(graph.wouldCreateCycle(List.of(new TaskGraph.Edge(ids[2], ids[1]))));
+    }
+
+    @Test
+    void removeDependency_otherCycleLeft_staysCyclic() {
+        UUID[] ids = ids(4);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true),
+                        new TaskGraph.Node(ids[1], 1, true),
+                        new TaskGraph.Node(ids[2], 1, true),
+                        new TaskGraph.Node(ids[3], 1, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0]), new TaskGraph.Edge(ids[0], ids[1]),
+                        new TaskGraph.Edge(ids[3], ids[2]), new TaskGraph.Edge(ids[2], ids[3])));
+
+        graph.removeDependency(ids[0], ids[1]);
+        assertTrue(graph.isCyclic());
+
+        graph.removeTask(ids[3]);
+        assertFalse(graph.isCyclic());
+        assertEquals(2.0, graph.getCriticalPathLength());
+    }
+
+    @Test
+    void removeTask_freedSlotIsReused() {
+        UUID[] ids = ids(3);
+        TaskGraph graph = TaskGraph.of(
+                List.of(new TaskGraph.Node(ids[0], 1, true), new TaskGraph.Node(ids[1], 2, true)),
+                List.of(new TaskGraph.Edge(ids[1], ids[0])));
+
+        for (int i = 0; i < 100; i++) {
+            graph.removeTask(ids[1]);
+            graph.putTask(ids[1], 2, true);
+            graph.addDependency(ids[1], ids[0]);
+        }
+        graph.removeTask(ids[1]);
+        graph.putTask(ids[2], 4, true);
+        graph.addDependency(ids[2], ids[0]);
+
+        assertEquals(2, graph.slotCount());
+        assertFalse(graph.containsTask(ids[1]));
+        assertEquals(0.0, graph.getPathLength(ids[1]));
+        assertEquals(5.0, graph.getPathLength(ids[2]));
+        assertEquals(5.0, graph.getCriticalPathLength());
+    }
+
+    @Test
+    void handlesHundredThousandTaskChain() {
+        int size = 100_000;
+        UUID[] ids = ids(size);
+        List<TaskGraph.Node> nodes = new ArrayList<>(size);
+        List<TaskGraph.Edge> edges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(new TaskGraph.Node(ids[i], 1, true));
+            if (i > 0) {
+                edges.add(new TaskGraph.Edge(ids[i], ids[i - 1]));
+            }
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            TaskGraph graph = TaskGraph.of(nodes, edges);
+            assertEquals(size, graph.getCriticalPathLength());
+
+            graph.putTask(ids[size - 1], 3, true);
+            assertEquals(size + 2, graph.getCriticalPathLength());
+
+            graph.removeDependency(ids[size / 2], ids[size / 2 - 1]);
+            assertEquals(size / 2 + 2, graph.getCriticalPathLength());
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.predman.content.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRankTest {
+
+    @Test
+    void between_emptyColumn_returnsFirstRank() {
+        assertEquals("000000001", TaskRank.between(null, null));
+    }
+
+    @Test
+    void between_returnsKeyStrictlyBetweenNeighbours() {
+        String rank = TaskRank.between("000000001", "000000002");
+
+        assertTrue(rank.compareTo("000000001") > 0);
+        assertTrue(rank.compareTo("000000002") < 0);
+        assertNotEquals('0', rank.charAt(rank.length() - 1));
+    }
+
+    @Test
+    void between_beforeFirst_staysAboveEmptyKey() {
+        String rank = TaskRank.between(null, "000000001");
+
+        assertTrue(rank.compareTo("000000001") < 0);
+        assertFalse(rank.isEmpty());
+    }
+
+    @Test
+    void between_repeatedAppends_keepKeyLength() {
+        String rank = TaskRank.between(null, null);
+        for (int i = 0; i < 100_000; i++) {
+            String next = TaskRank.between(rank, null);
+            assertTrue(next.compareTo(rank) > 0);
+            rank = next;
+        }
+
+        assertEquals(9, rank.length());
+    }
+
+    @Test
+    void between_randomInserts_keepColumnOrdered() {
+        Random random = new Random(42);
+        List<String> column = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int position = random.nextInt(column.size() + 1);
+            String lower = position == 0 ? null : column.get(position - 1);
+            String upper = position == column.size() ? null : column.get(position);
+            column.add(position, TaskRank.between(lower, upper));
+        }
+
+        for (int i = 1; i < column.size(); i++) {
+            assertTrue(column.get(i - 1).compareTo(column.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void between_manyInserts_keepKeysShortAndOrdered() {
+        List<String> ranks = TaskRank.between("000000001", "000000002", 500);
+
+        String previous = "000000001";
+        for (String rank : ranks) {
+            assertTrue(previous.compareTo(rank) < 0);
+            assertTrue(rank.length() <= 12);
+            previous = rank;
+        }
+        assertTrue(previous.compareTo("000000002") < 0);
+    }
+
+    @Test
+    void between_manyAppends_countUp() {
+        assertEquals(List.of("000000002", "000000003", "000000004"), TaskRank.between("000000001", null, 3));
+    }
+
+    @Test
+    void between_unorderedNeighbours_throws() {
+        assertThrows(IllegalArgumentException.class, () -> TaskRank.between("2", "1"));
+        assertThrows(IllegalArgumentException.class, () -> TaskRank.between("1", "1"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.predman.content.config;
+
+import com.predman.content.service.StatisticsService;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MethodTimingAspectTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MethodTimingAspect aspect = new MethodTimingAspect(registry);
+    private final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+
+    @BeforeEach
+    void setUp() {
+        Signature signature = mock(Signature.class);
+        when(signature.getDeclaringType()).thenReturn(StatisticsService.class);
+        when(signature.getName()).thenReturn("getPrediction");
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void timeService_completionStage_isTimedUntilItCompletes() throws Throwable {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        when(joinPoint.proceed()).thenReturn(future);
+
+        assertSame(future, aspect.timeService(joinPoint));
+        assertNull(registry.find("predman.service").timer());
+
+        future.complete("prediction");
+
+        assertEquals(1, registry.get("predman.service").tag("outcome", "success").tag("exception", "none")
+                .timer().count());
+    }
+
+    @Test
+    void timeService_failedCompletionStage_tagsTheCause() throws Throwable {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        when(joinPoint.proceed()).thenReturn(future.thenApply(value -> value));
+
+        aspect.timeService(joinPoint);
+        future.completeExceptionally(Status.UNAVAILABLE.asRuntimeException());
+
+        assertEquals(1, registry.get("predman.service").tag("outcome", "exception")
+                .tag("exception", "StatusRuntimeException").timer().count());
+    }
+
+    @Test
+    void timeService_thrownException_isTimedAndRethrown() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("failed"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.timeService(joinPoint));
+        assertEquals(1, registry.get("predman.service").tag("outcome", "exception")
+                .tag("exception", "IllegalStateException").timer().count());
+    }
+}
@@ -1,6 +1,8 @@
 package com.predman.content.controller;
 
 import com.predman.content.common.ProjectMembershipUtil;
+import com.predman.content.dto.prediction_history.PredictionHistoryDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryPageDto;
 import com.predman.content.dto.project.*;
 import com.predman.content.dto.project_member.ProjectMemberDto;
 import com.predman.content.dto.project_member.ProjectMemberUpdateDto;
@@ -8,19 +10,27 @@ import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Project;
 import com.predman.content.entity.User;
+import com.predman.content.service.PredictionHistoryService;
 import com.predman.content.service.ProjectMemberService;
 import com.predman.content.service.ProjectService;
 import com.predman.content.service.ProjectStatisticsService;
+import com.predman.content.service.ProjectVersionService;
 import com.predman.content.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +42,8 @@ class ProjectControllerTest {
     @Mock private UserService userService;
     @Mock private ProjectStatisticsService projectStatisticsService;
     @Mock private ProjectMembershipUtil projectMembershipUtil;
+    @Mock private ProjectVersionService projectVersionService;
+    @Mock private PredictionHistoryService predictionHistoryService;
 
     @InjectMocks
     private ProjectController projectController;
@@ -83,11 +95,29 @@ class ProjectControllerTest {
                 .name("Full Info")
                 .build();
         doNothing().when(projectMembershipUtil).checkSelfProjectMembership(projectId);
-        when(projectService.getFullInfoById(projectId)).thenReturn(dto);
+        when(projectVersionService.getETag(projectId)).thenReturn("\"v-7\"");
+        when(projectService.getFullInfoById(projectId)).thenReturn(CompletableFuture.completedFuture(dto));
 
-        ProjectFullInfoDto result = projectController.getProjectFullInfoById(projectId);
+        ResponseEntity<ProjectFullInfoDto> result = projectController.getProjectFullInfoById(projectId,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse())).join();
 
-        assertEquals(dto, result);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("\"v-7\"", result.getHeaders().getETag());
+        assertEquals(dto, result.getBody());
+    }
+
+    @Test
+    void getProjectFullInfoById_shouldReturnNotModifiedForMatchingETag() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", "\"v-7\"");
+        doNothing().when(projectMembershipUtil).checkSelfProjectMembership(projectId);
+        when(projectVersionService.getETag(projectId)).thenReturn("\"v-7\"");
+
+        ResponseEntity<ProjectFullInfoDto> result = projectController.getProjectFullInfoById(projectId,
+                new ServletWebRequest(request, new MockHttpServletResponse())).join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        verify(projectService, never()).getFullInfoById(projectId);
     }
 
     @Test
@@ -117,9 +147,9 @@ class ProjectControllerTest {
 
         when(projectService.getEntityById(projectId)).thenReturn(project);
         doNothing().when(projectMembershipUtil).checkSelfProjectMembership(projectId);
-        when(projectService.update(project, updateDto)).thenReturn(fullInfo);
+        when(projectService.update(project, updateDto)).thenReturn(CompletableFuture.completedFuture(fullInfo));
 
-        ProjectFullInfoDto result = projectController.updateProject(projectId, updateDto);
+        ProjectFullInfoDto result = projectController.updateProject(projectId, updateDto).join();
 
         assertEquals(fullInfo, result);
     }
@@ -244,6 +274,22 @@ class ProjectControllerTest {
         assertEquals(stats, result);
     }
 
+    @Test
+    void getPredictionHistory_shouldCheckMembershipAndReturnPage() {
+        doNothing().when(projectMembershipUtil).checkSelfProjectMembership(projectId);
+        PredictionHistoryPageDto page = PredictionHistoryPageDto.builder()
+                .items(List.of(PredictionHistoryDto.builder().predictedDays(7).build()))
+                .build();
+        when(predictionHistoryService.getPredictionHistory(eq(projectId),
+                argThat(request -> request.limit() == 10 && request.cursor() == null))).thenReturn(page);
+
+        PredictionHistoryPageDto result = projectController.getPredictionHistory(projectId, null, null, null, 10);
+
+        assertEquals(page, result);
+        verify(projectMembershipUtil).checkSelfProjectMembership(projectId);
+        verifyNoInteractions(projectService);
+    }
+
     @Test
     void getProjectById_shouldCheckMembershipAndReturnProject() {
         doNothing().when(projectMembershipUtil).checkSelfProjectMembership(projectId);
@@ -3,11 +3,14 @@ package com.predman.content.controller;
 import com.predman.content.common.ProjectMembershipUtil;
 import com.predman.content.common.TaskStatus;
 import com.predman.content.dto.task.*;
+import com.predman.content.dto.task_dependency.TaskDependencyBulkDto;
 import com.predman.content.dto.task_dependency.TaskDependencyDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Project;
 import com.predman.content.entity.Task;
 import com.predman.content.entity.User;
+import com.predman.content.service.BoardEventService;
+import com.predman.content.service.ProjectVersionService;
 import com.predman.content.service.TaskAssignmentService;
 import com.predman.content.service.TaskDependencyService;
 import com.predman.content.service.TaskService;
@@ -17,12 +20,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.junit.jupiter.api.Test;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +43,8 @@ class TaskControllerTest {
     @Mock private ProjectMembershipUtil projectMembershipUtil;
     @Mock private TaskAssignmentService taskAssignmentService;
     @Mock private TaskDependencyService taskDependencyService;
+    @Mock private ProjectVersionService projectVersionService;
+    @Mock private BoardEventService boardEventService;
 
     @InjectMocks
     private TaskController taskController;
@@ -106,12 +118,74 @@ class TaskControllerTest {
         SortedTasksDto sortedTasksDto =
                 new SortedTasksDto(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
 
+        when(projectVersionService.getETag(projectId)).thenReturn("\"v-3\"");
         when(taskService.getSortedAllByProjectId(projectId)).thenReturn(sortedTasksDto);
 
-        SortedTasksDto result = taskController.getAllTasksByProjectId(projectId);
+        ResponseEntity<SortedTasksDto> result = taskController.getAllTasksByProjectId(projectId,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse()));
 
         verify(projectMembershipUtil).checkSelfProjectMembership(projectId);
-        assertSame(sortedTasksDto, result);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("\"v-3\"", result.getHeaders().getETag());
+        assertSame(sortedTasksDto, result.getBody());
+    }
+
+    @Test
+    void getAllTasksByProjectId_shouldReturnNotModifiedWithoutLoadingTasks() {
+        UUID projectId = UUID.randomUUID();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", "\"v-3\"");
+        when(projectVersionService.getETag(projectId)).thenReturn("\"v-3\"");
+
+        ResponseEntity<SortedTasksDto> result = taskController.getAllTasksByProjectId(projectId,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertNull(result.getBody());
+        verify(taskService, never()).getSortedAllByProjectId(projectId);
+    }
+
+    @Test
+    void createTasks_shouldCheckMembershipAndCreateBatch() {
+        UUID projectId = UUID.randomUUID();
+        TaskBulkCreationDto dto = TaskBulkCreationDto.builder()
+                .projectId(projectId)
+                .tasks(List.of(TaskBulkItemDto.builder().id(UUID.randomUUID()).name("Task").build()))
+                .build();
+        List<TaskDto> created = List.of(TaskDto.builder().id(dto.tasks().getFirst().id()).build());
+        when(taskService.createAll(dto)).thenReturn(created);
+
+        List<TaskDto> result = taskController.createTasks(dto);
+
+        verify(projectMembershipUtil).checkSelfProjectMembership(projectId);
+        assertSame(created, result);
+    }
+
+    @Test
+    void addDependencies_shouldCheckMembershipAndImportBatch() {
+        UUID projectId = UUID.randomUUID();
+        TaskDependencyBulkDto dto = TaskDependencyBulkDto.builder()
+                .projectId(projectId)
+                .dependencies(List.of(new TaskDependencyDto(UUID.randomUUID(), UUID.randomUUID())))
+                .build();
+        when(taskDependencyService.createTaskDependencies(dto)).thenReturn(dto.dependencies());
+
+        List<TaskDependencyDto> result = taskController.addDependencies(dto);
+
+        verify(projectMembershipUtil).checkSelfProjectMembership(projectId);
+        assertSame(dto.dependencies(), result);
+    }
+
+    @Test
+    void streamBoardEvents_shouldCheckMembershipAndSubscribe() {
+        UUID projectId = UUID.randomUUID();
+        SseEmitter emitter = new SseEmitter();
+        when(boardEventService.subscribe(projectId)).thenReturn(emitter);
+
+        SseEmitter result = taskController.streamBoardEvents(projectId);
+
+        verify(projectMembershipUtil).checkSelfProjectMembership(projectId);
+        assertSame(emitter, result);
     }
 
     @Test
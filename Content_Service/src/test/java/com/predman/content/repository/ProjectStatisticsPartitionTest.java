@@ -0,0 +1,52 @@
+package com.predman.content.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the partition maintenance functions of the Liquibase schema on PostgreSQL. Skipped without Docker. */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ProjectStatisticsPartitionTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired ProjectStatisticsRepository projectStatisticsRepository;
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+
+    @Test
+    void createPartition_movesRowsOutOfDefaultPartition() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1).plusYears(2);
+        jdbcTemplate.update("INSERT INTO users (id, email) VALUES (md5('u')::uuid, 'user@predman.test')");
+        jdbcTemplate.update("INSERT INTO projects (id, name, owner_id) VALUES (md5('p')::uuid, 'p', md5('u')::uuid)");
+        jdbcTemplate.update("""
+                INSERT INTO project_statistics (project_id, team_size, saved_at)
+                VALUES (md5('p')::uuid, 1, ?), (md5('p')::uuid, 2, ?)
+                """, month.atTime(12, 0), month.plusMonths(1).atTime(12, 0));
+        assertEquals(2, count("project_statistics_default"));
+
+        assertTrue(projectStatisticsRepository.createPartition(month));
+        assertFalse(projectStatisticsRepository.createPartition(month));
+
+        String partition = "project_statistics_%d_%02d".formatted(month.getYear(), month.getMonthValue());
+        assertEquals(1, count(partition));
+        assertEquals(1, count("project_statistics_default"));
+        assertEquals(2, count("project_statistics"));
+    }
+}
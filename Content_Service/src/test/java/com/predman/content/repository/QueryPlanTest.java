@@ -0,0 +1,250 @@
+package com.predman.content.repository;
+
+import com.predman.content.common.TaskStatus;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the per-project and per-task repository queries against PostgreSQL with the Liquibase schema
+ * and a large fixture, then checks the generic plan of every captured statement for sequential scans
+ * on large tables. Jobs that read whole tables on purpose (stale predictions, rank rebalance
+ * candidates, statistics rollups and partition maintenance) are left out. Skipped without Docker.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+    private static final int USERS = 4000;
+    private static final int PROJECTS = 2000;
+    private static final int TASKS_PER_PROJECT = 50;
+    private static final int MEMBERS_PER_PROJECT = 5;
+    private static final int STATISTICS_PER_PROJECT = 15;
+    private static final int LARGE_TABLE_ROWS = 1000;
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\S+)");
+
+    private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @TestConfiguration
+    static class StatementCapture {
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> {
+                        statements.add(sql);
+                        return sql;
+                    });
+        }
+    }
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManager entityManager;
+    @Autowired TaskRepository taskRepository;
+    @Autowired TaskDependencyRepository taskDependencyRepository;
+    @Autowired TaskAssignmentRepository taskAssignmentRepository;
+    @Autowired ProjectRepository projectRepository;
+    @Autowired ProjectMemberRepository projectMemberRepository;
+    @Autowired ProjectStatisticsRepository projectStatisticsRepository;
+    @Autowired PredictionHistoryRepository predictionHistoryRepository;
+    @Autowired UserRepository userRepository;
+
+    private UUID uuid(String key) {
+        return jdbcTemplate.queryForObject("SELECT md5(?)::uuid", UUID.class, key);
+    }
+
+    private void insertFixture() {
+        jdbcTemplate.execute("""
+                INSERT INTO users (id, email)
+                SELECT md5('u' || u)::uuid, 'user' || u || '@predman.test'
+                FROM generate_series(1, %d) u
+                """.formatted(USERS));
+        jdbcTemplate.execute("""
+                INSERT INTO projects (id, name, owner_id)
+                SELECT md5('p' || p)::uuid, 'project ' || p, md5('u' || p)::uuid
+                FROM generate_series(1, %d) p
+                """.formatted(PROJECTS));
+        jdbcTemplate.execute("""
+                INSERT INTO tasks (id, project_id, name, story_points, status, created_at, updated_at,
+                                   next, board_rank)
+                SELECT md5('t' || p || '-' || t)::uuid, md5('p' || p)::uuid, 'task ' || t, 1, 'PLANNED',
+                       now(), now(), CASE WHEN t < %2$d THEN md5('t' || p || '-' || (t + 1))::uuid END,
+                       lpad(t::text, 4, '0')
+                FROM generate_series(1, %1$d) p, generate_series(1, %2$d) t
+                """.formatted(PROJECTS, TASKS_PER_PROJECT));
+        jdbcTemplate.execute("""
+                INSERT INTO task_dependencies (task_id, dependency_id)
+                SELECT md5('t' || p || '-' || t)::uuid, md5('t' || p || '-' || (t - 1))::uuid
+                FROM generate_series(1, %d) p, generate_series(2, %d) t
+                """.formatted(PROJECTS, TASKS_PER_PROJECT));
+        jdbcTemplate.execute("""
+                INSERT INTO task_assignments (user_id, task_id)
+                SELECT md5('u' || ((p * %2$d + t) %% %3$d + 1))::uuid, md5('t' || p || '-' || t)::uuid
+                FROM generate_series(1, %1$d) p, generate_series(1, %2$d) t
+                """.formatted(PROJECTS, TASKS_PER_PROJECT, USERS));
+        jdbcTemplate.execute("""
+                INSERT INTO project_members (user_id, project_id)
+                SELECT md5('u' || ((p * %2$d + m) %% %3$d + 1))::uuid, md5('p' || p)::uuid
+                FROM generate_series(1, %1$d) p, generate_series(1, %2$d) m
+                """.formatted(PROJECTS, MEMBERS_PER_PROJECT, USERS));
+        jdbcTemplate.execute("""
+                SELECT create_project_statistics_partition((now() - interval '1 month')::date)
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO project_statistics (id, project_id, team_size, remaining_tasks, saved_at)
+                SELECT gen_random_uuid(), md5('p' || p)::uuid, 5, 10, now() - s * interval '1 day'
+                FROM generate_series(1, %d) p, generate_series(0, %d) s
+                """.formatted(PROJECTS, STATISTICS_PER_PROJECT - 1));
+        jdbcTemplate.execute("""
+                INSERT INTO project_latest_statistics (project_id, statistics_id, saved_at)
+                SELECT DISTINCT ON (project_id) project_id, id, saved_at
+                FROM project_statistics
+                ORDER BY project_id, saved_at DESC
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void runRepositoryQueries() {
+        UUID projectId = uuid("p1");
+        UUID userId = uuid("u1");
+        UUID taskId = uuid("t1-2");
+        UUID dependencyId = uuid("t1-1");
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        LocalDateTime from = to.minusDays(60);
+
+        taskRepository.findById(taskId);
+        taskRepository.findByNext(taskRepository.getReferenceById(taskId));
+        taskRepository.findFirstByProjectIdAndStatusOrderByBoardRankDesc(projectId, TaskStatus.PLANNED);
+        taskRepository.findFirstByProjectIdAndStatusAndBoardRankLessThanOrderByBoardRankDesc(
+                projectId, TaskStatus.PLANNED, "0010");
+        taskRepository.existsByProjectIdAndBoardRankIsNull(projectId);
+        taskRepository.countByIdIn(List.of(taskId, dependencyId));
+        taskRepository.countByProjectIdAndIdIn(projectId, List.of(taskId, dependencyId));
+        taskRepository.findBoardTasksByProjectId(projectId);
+        taskRepository.clearNextReferences(taskId);
+        taskRepository.rebalanceRanks(projectId);
+
+        taskDependencyRepository.findDependenciesByTaskId(taskId);
+        taskDependencyRepository.findDependenciesByProjectId(projectId);
+        taskDependencyRepository.deleteByIdPair(taskId, dependencyId);
+
+        taskAssignmentRepository.findAllByTask_Id(taskId);
+        taskAssignmentRepository.findTasksByUserId(userId);
+        taskAssignmentRepository.findAssigneesByTaskId(taskId);
+
+        projectRepository.findById(projectId);
+        projectRepository.findByOwner_Id(userId);
+        projectRepository.findBoardVersion(projectId);
+        projectRepository.lockById(projectId);
+        projectRepository.incrementBoardVersion(projectId);
+
+        projectMemberRepository.findAllByProject_Id(projectId);
+        projectMemberRepository.findUsersByProjectId(projectId);
+        projectMemberRepository.findAllByUser_Id(userId);
+        projectMemberRepository.existsByUser_IdAndProject_Id(userId, projectId);
+        projectMemberRepository.findAllByProjectIds(List.of(projectId, uuid("p2")));
+
+        UUID statisticsId = projectStatisticsRepository.findLatestStatisticsByProjectId(projectId).getId();
+        projectStatisticsRepository.findAllByProjectIdOrderBySavedAtAsc(projectId);
+        projectStatisticsRepository.findAllByProjectIdInOrderBySavedAtAsc(List.of(projectId, uuid("p2")));
+        projectStatisticsRepository.findHistoryPage(projectId, from, to, from.minusDays(1), UUID.randomUUID(),
+                Limit.of(100));
+        projectStatisticsRepository.findHistoryBucketLasts(projectId, "week", from, to, from.minusDays(7), 100);
+        projectStatisticsRepository.findHistoryBucketAverages(projectId, "week", from, to, from.minusDays(7), 100);
+        projectStatisticsRepository.applyDelta(statisticsId, 1, 1.0, 0);
+        projectStatisticsRepository.refreshDependencyCoefficient(statisticsId);
+        projectStatisticsRepository.updateCriticalPathLength(statisticsId, 3.0);
+
+        predictionHistoryRepository.findHistoryPage(projectId, from, to, from.minusDays(1), UUID.randomUUID(),
+                Limit.of(100));
+
+        userRepository.findByEmail("user1@predman.test");
+        userRepository.existsByEmail("user1@predman.test");
+
+        taskAssignmentRepository.deleteAllByUser_Id(userId);
+        projectMemberRepository.deleteAllByUser_Id(userId);
+        entityManager.flush();
+        projectMemberRepository.deleteAllByProject_Id(uuid("p2"));
+        entityManager.flush();
+    }
+
+    /** Plans the statement the way a reused prepared statement runs, without executing it. */
+    private String explainGeneric(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        jdbcTemplate.execute("PREPARE plan_check AS " + numbered);
+        try {
+            String arguments = parameters == 0 ? ""
+                    : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+            return String.join("\n",
+                    jdbcTemplate.queryForList("EXPLAIN EXECUTE plan_check" + arguments, String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE plan_check");
+        }
+    }
+
+    @Test
+    void repositoryQueries_doNotScanLargeTablesSequentially() {
+        insertFixture();
+        statements.clear();
+        runRepositoryQueries();
+
+        Set<String> captured = new LinkedHashSet<>(statements);
+        assertFalse(captured.isEmpty());
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        List<String> violations = new ArrayList<>();
+        for (String sql : captured) {
+            if (sql.stripLeading().toLowerCase().startsWith("insert")) {
+                continue;
+            }
+            String plan = explainGeneric(sql);
+            Matcher matcher = SEQ_SCAN.matcher(plan);
+            while (matcher.find()) {
+                Double rows = jdbcTemplate.queryForObject(
+                        "SELECT reltuples::double precision FROM pg_class WHERE relname = ?",
+                        Double.class, matcher.group(1));
+                if (rows != null && rows >= LARGE_TABLE_ROWS) {
+                    violations.add(sql + "\n" + plan);
+                    break;
+                }
+            }
+        }
+
+        assertTrue(violations.isEmpty(), "Sequential scans on large tables:\n\n" + String.join("\n\n", violations));
+    }
+}
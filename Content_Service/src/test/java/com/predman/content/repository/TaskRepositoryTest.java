@@ -0,0 +1,90 @@
+package com.predman.content.repository;
+
+import com.predman.content.common.TaskStatus;
+import com.predman.content.dto.task.TaskDto;
+import com.predman.content.entity.Project;
+import com.predman.content.entity.Task;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TaskRepositoryTest {
+    @Autowired TaskRepository taskRepository;
+    @Autowired TestEntityManager testEntityManager;
+
+    /** Persists a single planned chain and returns its head. */
+    private Task persistChain(int size) {
+        Project project = testEntityManager.persist(Project.builder().name("board").build());
+        Task head = null;
+        for (int i = 0; i < size; i++) {
+            head = testEntityManager.persist(Task.builder()
+                    .project(project)
+                    .name("task " + i)
+                    .storyPoints(1.0)
+                    .status(TaskStatus.PLANNED)
+                    .next(head)
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        return head;
+    }
+
+    private Statistics clearedStatistics() {
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private long countBoardStatements(int size) {
+        Task head = persistChain(size);
+        Statistics statistics = clearedStatistics();
+        taskRepository.findBoardTasksByProjectId(head.getProject().getId());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void findBoardTasksByProjectId_statementCountDoesNotGrowWithTasks() {
+        long small = countBoardStatements(3);
+        long large = countBoardStatements(300);
+
+        assertEquals(1, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void findBoardTasksByProjectId_returnsNextIdsWithoutLoadingEntities() {
+        Task head = persistChain(4);
+        Statistics statistics = clearedStatistics();
+
+        List<TaskDto> tasks = taskRepository.findBoardTasksByProjectId(head.getProject().getId());
+
+        assertEquals(4, tasks.size());
+        assertEquals(3, tasks.stream().filter(task -> task.next() != null).count());
+        assertTrue(tasks.stream().allMatch(task -> head.getProject().getId().equals(task.projectId())));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findById_doesNotFollowNextChain() {
+        Task head = persistChain(50);
+        Statistics statistics = clearedStatistics();
+
+        taskRepository.findById(head.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
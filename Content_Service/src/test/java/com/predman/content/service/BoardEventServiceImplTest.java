@@ -0,0 +1,79 @@
+package com.predman.content.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.predman.content.common.BoardEventType;
+import com.predman.content.dto.board_event.BoardEventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoardEventServiceImplTest {
+    @Mock private ObjectMapper objectMapper;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID projectId = UUID.randomUUID();
+    private BoardEventServiceImpl boardEventService;
+
+    @BeforeEach
+    void setUp() {
+        boardEventService = new BoardEventServiceImpl(objectMapper, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        boardEventService.shutdown();
+    }
+
+    @Test
+    void publish_withoutSubscribers_skipsSerialization() {
+        boardEventService.publish(event());
+
+        verifyNoInteractions(objectMapper);
+    }
+
+    @Test
+    void subscribe_countsOpenStreams() {
+        boardEventService.subscribe(projectId);
+        boardEventService.subscribe(projectId);
+        boardEventService.subscribe(UUID.randomUUID());
+
+        assertEquals(3.0, meterRegistry.get("predman.board_events.subscribers").gauge().value());
+    }
+
+    @Test
+    void publish_insideTransaction_sendsOnlyAfterCommit() throws Exception {
+        BoardEventDto event = event();
+        boardEventService.subscribe(projectId);
+        when(objectMapper.writeValueAsString(event)).thenReturn("{}");
+        TransactionSynchronizationManager.initSynchronization();
+
+        boardEventService.publish(event);
+
+        verifyNoInteractions(objectMapper);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(objectMapper).writeValueAsString(event);
+    }
+
+    private BoardEventDto event() {
+        return BoardEventDto.builder()
+                .type(BoardEventType.TASK_DELETED)
+                .projectId(projectId)
+                .taskId(UUID.randomUUID())
+                .build();
+    }
+}
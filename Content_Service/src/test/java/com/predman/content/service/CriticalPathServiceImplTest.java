@@ -0,0 +1,148 @@
+package com.predman.content.service;
+
+import com.predman.content.common.TaskGraph;
+import com.predman.content.common.TaskStatus;
+import com.predman.content.dto.task.TaskDto;
+import com.predman.content.dto.task_dependency.TaskDependencyDto;
+import com.predman.content.exception.ForbiddenException;
+import com.predman.content.exception.NotFoundException;
+import com.predman.content.repository.TaskDependencyRepository;
+import com.predman.content.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CriticalPathServiceImplTest {
+    @Mock private TaskRepository taskRepository;
+    @Mock private TaskDependencyRepository taskDependencyRepository;
+
+    private CriticalPathServiceImpl criticalPathService;
+
+    private static final UUID PROJECT_ID = UUID.randomUUID();
+    private final TaskDto first = TaskDto.builder().id(UUID.randomUUID()).storyPoints(2.0).status(TaskStatus.PLANNED).build();
+    private final TaskDto second = TaskDto.builder().id(UUID.randomUUID()).storyPoints(3.0).status(TaskStatus.PLANNED).build();
+
+    @BeforeEach
+    void setUp() {
+        criticalPathService = new CriticalPathServiceImpl(taskRepository, taskDependencyRepository, 10);
+        when(taskRepository.findBoardTasksByProjectId(PROJECT_ID)).thenReturn(List.of(first, second));
+        when(taskDependencyRepository.findDependenciesByProjectId(PROJECT_ID)).thenReturn(List.of(
+                new TaskDependencyDto(second.id(), first.id())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    @Test
+    void getCriticalPathLength_loadsGraphOnce() {
+        assertEquals(5.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+        assertEquals(5.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+
+        verify(taskRepository, times(1)).findBoardTasksByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void cachedGraph_isUpdatedIncrementally() {
+        criticalPathService.getCriticalPathLength(PROJECT_ID);
+
+        criticalPathService.putTask(PROJECT_ID, first.id(), 2.0, TaskStatus.COMPLETED);
+        assertEquals(3.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+
+        UUID third = UUID.randomUUID();
+        criticalPathService.putTask(PROJECT_ID, third, 4.0, TaskStatus.PLANNED);
+        criticalPathService.addDependency(PROJECT_ID, third, second.id());
+        assertEquals(7.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+
+        criticalPathService.removeTask(PROJECT_ID, second.id());
+        assertEquals(4.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+        verify(taskRepository, times(1)).findBoardTasksByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void checkDependency_rejectsCycle() {
+        assertThrows(ForbiddenException.class,
+                () -> criticalPathService.checkDependency(PROJECT_ID, first.id(), second.id()));
+        assertDoesNotThrow(() -> criticalPathService.checkDependency(PROJECT_ID, second.id(), first.id()));
+    }
+
+    @Test
+    void checkDependencies_rejectsCycleAndSkipsStoredEdges() {
+        TaskGraph.Edge stored = new TaskGraph.Edge(second.id(), first.id());
+        TaskGraph.Edge reversed = new TaskGraph.Edge(first.id(), second.id());
+
+        assertThrows(ForbiddenException.class,
+                () -> criticalPathService.checkDependencies(PROJECT_ID, List.of(reversed)));
+        assertEquals(List.of(), criticalPathService.checkDependencies(PROJECT_ID, List.of(stored, stored)));
+    }
+
+    @Test
+    void checkDependency_unknownTask_reloadsOnceThenThrows() {
+        criticalPathService.getCriticalPathLength(PROJECT_ID);
+
+        assertThrows(NotFoundException.class,
+                () -> criticalPathService.checkDependency(PROJECT_ID, first.id(), UUID.randomUUID()));
+        verify(taskRepository, times(2)).findBoardTasksByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void rolledBackChange_dropsCachedGraph() {
+        criticalPathService.getCriticalPathLength(PROJECT_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        criticalPathService.putTask(PROJECT_ID, first.id(), 10.0, TaskStatus.PLANNED);
+        assertEquals(13.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(5.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+        verify(taskRepository, times(2)).findBoardTasksByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void committedChange_reachesGraphLoadedDuringTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        UUID third = UUID.randomUUID();
+        criticalPathService.putTask(PROJECT_ID, third, 4.0, TaskStatus.PLANNED);
+        criticalPathService.addDependency(PROJECT_ID, third, second.id());
+
+        // Another request loads the graph from committed rows before this transaction commits.
+        assertEquals(5.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(9.0, criticalPathService.getCriticalPathLength(PROJECT_ID));
+        verify(taskRepository, times(1)).findBoardTasksByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void invalidate_reloadsOnNextRead() {
+        criticalPathService.getCriticalPathLength(PROJECT_ID);
+        criticalPathService.invalidate(PROJECT_ID);
+        criticalPathService.getCriticalPathLength(PROJECT_ID);
+
+        verify(taskRepository, times(2)).findBoardTasksByProjectId(PROJECT_ID);
+    }
+}
@@ -0,0 +1,171 @@
+package com.predman.content.service;
+
+import com.predman.content.common.BurndownEstimator;
+import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.grpc.PredictionRequestDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryPageDto;
+import com.predman.content.dto.prediction_history.PredictionHistoryRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.content.entity.PredictionHistory;
+import com.predman.content.exception.BadRequestException;
+import com.predman.content.repository.PredictionHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PredictionHistoryServiceImplTest {
+    @Mock private PredictionHistoryRepository predictionHistoryRepository;
+
+    @InjectMocks
+    private PredictionHistoryServiceImpl predictionHistoryService;
+
+    private final UUID PROJECT_ID = UUID.randomUUID();
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void recordPredictions_savesOneRowPerPredictionWithNewestStatistics() {
+        UUID otherId = UUID.randomUUID();
+        UUID newestStatisticsId = UUID.randomUUID();
+        List<PredictionRequestDto> requests = List.of(
+                PredictionRequestDto.builder()
+                        .projectId(PROJECT_ID)
+                        .estimatedDays(12)
+                        .statistics(List.of(
+                                ProjectStatisticsDto.builder().id(UUID.randomUUID()).projectId(PROJECT_ID).build(),
+                                ProjectStatisticsDto.builder().id(newestStatisticsId).projectId(PROJECT_ID)
+                                        .savedAt(LocalDate.of(2024, 3, 2)).build()))
+                        .build(),
+                PredictionRequestDto.builder()
+                        .projectId(otherId)
+                        .estimatedDays(5)
+                        .statistics(List.of())
+                        .build());
+        List<PredictionDto> predictions = List.of(
+                PredictionDto.builder()
+                        .predictedDays(10).certaintyPercent(0.2).mu(10.4).sigma(2.0).modelVersion("tft-best_model")
+                        .build(),
+                PredictionDto.builder()
+                        .predictedDays(5).certaintyPercent(0.0).modelVersion(BurndownEstimator.MODEL_VERSION)
+                        .build());
+
+        predictionHistoryService.recordPredictions(requests, predictions);
+
+        ArgumentCaptor<List<PredictionHistory>> captor = ArgumentCaptor.forClass(List.class);
+        verify(predictionHistoryRepository).saveAll(captor.capture());
+        List<PredictionHistory> rows = captor.getValue();
+        assertEquals(2, rows.size());
+        assertEquals(PROJECT_ID, rows.get(0).getProjectId());
+        assertEquals("tft-best_model", rows.get(0).getModelVersion());
+        assertEquals(12, rows.get(0).getEstimatedDays());
+        assertEquals(10, rows.get(0).getPredictedDays());
+        assertEquals(10.4, rows.get(0).getMu());
+        assertEquals(2.0, rows.get(0).getSigma());
+        assertEquals(newestStatisticsId, rows.get(0).getStatisticsId());
+        assertEquals(LocalDate.of(2024, 3, 2), rows.get(0).getStatisticsSavedOn());
+        assertEquals(otherId, rows.get(1).getProjectId());
+        assertEquals(BurndownEstimator.MODEL_VERSION, rows.get(1).getModelVersion());
+        assertNull(rows.get(1).getStatisticsId());
+        assertNull(rows.get(1).getStatisticsSavedOn());
+        assertEquals(rows.get(0).getPredictedAt(), rows.get(1).getPredictedAt());
+    }
+
+    @Test
+    void recordPredictions_predictionWithoutDeadline_isNotRecorded() {
+        List<PredictionRequestDto> requests = List.of(PredictionRequestDto.builder()
+                .projectId(PROJECT_ID)
+                .estimatedDays(12)
+                .statistics(List.of())
+                .build());
+
+        predictionHistoryService.recordPredictions(requests, List.of(PredictionDto.builder()
+                .certaintyPercent(0.0).modelVersion(BurndownEstimator.MODEL_VERSION).build()));
+
+        verify(predictionHistoryRepository).saveAll(List.of());
+    }
+
+    private PredictionHistoryDto historyRow(LocalDateTime predictedAt) {
+        return historyRow(UUID.randomUUID(), predictedAt);
+    }
+
+    private PredictionHistoryDto historyRow(UUID id, LocalDateTime predictedAt) {
+        return PredictionHistoryDto.builder()
+                .id(id)
+                .predictedDays(7)
+                .predictedAt(predictedAt)
+                .build();
+    }
+
+    @Test
+    void getPredictionHistory_fullPage_returnsPredictedAtAndIdCursor() {
+        LocalDateTime first = LocalDateTime.of(2024, 3, 1, 3, 0);
+        LocalDateTime second = LocalDateTime.of(2024, 3, 2, 3, 0);
+        UUID secondId = UUID.randomUUID();
+        when(predictionHistoryRepository.findHistoryPage(eq(PROJECT_ID), any(), any(), any(), any(),
+                eq(Limit.of(2)))).thenReturn(List.of(historyRow(first), historyRow(secondId, second)));
+
+        PredictionHistoryPageDto page = predictionHistoryService.getPredictionHistory(PROJECT_ID,
+                PredictionHistoryRequestDto.builder().limit(2).build());
+
+        assertEquals(2, page.items().size());
+        assertEquals(second + "_" + secondId, page.nextCursor());
+    }
+
+    @Test
+    void getPredictionHistory_lastPage_hasNoCursor() {
+        LocalDateTime after = LocalDateTime.of(2024, 3, 2, 3, 0);
+        UUID afterId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 4, 1);
+        when(predictionHistoryRepository.findHistoryPage(PROJECT_ID, from.atStartOfDay(), to.atStartOfDay(), after,
+                afterId, Limit.of(2))).thenReturn(List.of(historyRow(after.plusDays(1))));
+
+        PredictionHistoryPageDto page = predictionHistoryService.getPredictionHistory(PROJECT_ID,
+                PredictionHistoryRequestDto.builder().from(from).to(to).limit(2).cursor(after + "_" + afterId)
+                        .build());
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getPredictionHistory_noLimit_usesDefaultPageSize() {
+        when(predictionHistoryRepository.findHistoryPage(eq(PROJECT_ID), any(), any(), any(), any(),
+                eq(Limit.of(100)))).thenReturn(List.of());
+
+        PredictionHistoryPageDto page = predictionHistoryService.getPredictionHistory(PROJECT_ID,
+                PredictionHistoryRequestDto.builder().build());
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getPredictionHistory_limitAboveMax_throws() {
+        assertThrows(BadRequestException.class, () -> predictionHistoryService.getPredictionHistory(PROJECT_ID,
+                PredictionHistoryRequestDto.builder().limit(1001).build()));
+        verifyNoInteractions(predictionHistoryRepository);
+    }
+
+    @Test
+    void getPredictionHistory_invalidCursor_throws() {
+        assertThrows(BadRequestException.class, () -> predictionHistoryService.getPredictionHistory(PROJECT_ID,
+                PredictionHistoryRequestDto.builder().cursor("yesterday").build()));
+        verifyNoInteractions(predictionHistoryRepository);
+    }
+}
@@ -1,6 +1,8 @@
 package com.predman.content.service;
 
+import com.predman.content.common.ProjectMembershipCache;
 import com.predman.content.dto.project_member.ProjectMemberDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
 import com.predman.content.dto.project.ProjectDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Project;
@@ -19,6 +21,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.BiPredicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +35,7 @@ class ProjectMemberServiceImplTest {
     @Mock private ProjectMapper projectMapper;
     @Mock private ProjectService projectService;
     @Mock private ProjectStatisticsService projectStatisticsService;
+    @Mock private ProjectMembershipCache projectMembershipCache;
 
     @InjectMocks
     private ProjectMemberServiceImpl projectMemberService;
@@ -51,7 +55,8 @@ class ProjectMemberServiceImplTest {
                 member.getUser().equals(user) &&
                         member.getProject().equals(project)
         ));
-        verify(projectStatisticsService).updateStatistics(projectId);
+        verify(projectStatisticsService).applyStatisticsDelta(projectId,
+                ProjectStatisticsDeltaDto.builder().teamSize(1).build());
         assertEquals(userDto, result);
     }
 
@@ -78,22 +83,21 @@ class ProjectMemberServiceImplTest {
         projectMemberService.removeProjectMember(new ProjectMemberDto(userId, projectId));
 
         verify(projectMemberRepository).deleteById(member.getId());
-        verify(projectStatisticsService).updateStatistics(projectId);
+        verify(projectStatisticsService).applyStatisticsDelta(projectId,
+                ProjectStatisticsDeltaDto.builder().teamSize(-1).build());
     }
 
     @Test
     void getUsersByProjectId_returnsUserDtoList() {
         UUID projectId = UUID.randomUUID();
-        User user = User.builder().id(UUID.randomUUID()).build();
-        ProjectMember member = ProjectMember.builder().user(user).build();
-        when(projectMemberRepository.findAllByProject_Id(projectId)).thenReturn(List.of(member));
-        UserDto userDto = UserDto.builder().id(user.getId()).build();
-        when(userMapper.convertToUserDto(user)).thenReturn(userDto);
+        UserDto userDto = UserDto.builder().id(UUID.randomUUID()).build();
+        when(projectMemberRepository.findUsersByProjectId(projectId)).thenReturn(List.of(userDto));
 
         List<UserDto> result = projectMemberService.getUsersByProjectId(projectId);
 
-        assertEquals(1, result.size());
-        assertEquals(user.getId(), result.get(0).id());
+        assertEquals(List.of(userDto), result);
+        verify(projectMemberRepository, never()).findAllByProject_Id(projectId);
+        verifyNoInteractions(userMapper);
     }
 
     @Test
@@ -122,7 +126,8 @@ class ProjectMemberServiceImplTest {
         UserDto result = projectMemberService.addProjectMemberStatUpdate(user, project);
 
         verify(projectMemberRepository).save(any(ProjectMember.class));
-        verify(projectStatisticsService).updateStatistics(project.getId());
+        verify(projectStatisticsService).applyStatisticsDelta(project.getId(),
+                ProjectStatisticsDeltaDto.builder().teamSize(1).build());
         assertEquals(user.getId(), result.id());
     }
 
@@ -170,7 +175,9 @@ class ProjectMemberServiceImplTest {
         projectMemberService.removeProjectMember(new ProjectMemberDto(userId, projectId));
 
         verify(projectMemberRepository, times(1)).deleteById(member.getId());
-        verify(projectStatisticsService).updateStatistics(projectId);
+        verify(projectMembershipCache).evictUser(userId);
+        verify(projectStatisticsService).applyStatisticsDelta(projectId,
+                ProjectStatisticsDeltaDto.builder().teamSize(-1).build());
     }
 
     @Test
@@ -200,6 +207,7 @@ class ProjectMemberServiceImplTest {
         UUID id = UUID.randomUUID();
         projectMemberService.deleteAllByProjectId(id);
         verify(projectMemberRepository).deleteAllByProject_Id(id);
+        verify(projectMembershipCache).evictProject(id);
     }
 
     @Test
@@ -207,6 +215,37 @@ class ProjectMemberServiceImplTest {
         UUID id = UUID.randomUUID();
         projectMemberService.deleteAllByUserId(id);
         verify(projectMemberRepository).deleteAllByUser_Id(id);
+        verify(projectMembershipCache).evictUser(id);
+    }
+
+    @Test
+    void deleteAllByUserId_shrinksTeamOfEveryProject() {
+        UUID userId = UUID.randomUUID();
+        Project first = Project.builder().id(UUID.randomUUID()).build();
+        Project second = Project.builder().id(UUID.randomUUID()).build();
+        when(projectMemberRepository.findAllByUser_Id(userId)).thenReturn(List.of(
+                ProjectMember.builder().project(first).build(),
+                ProjectMember.builder().project(second).build()));
+
+        projectMemberService.deleteAllByUserId(userId);
+
+        verify(projectMemberRepository).deleteAllByUser_Id(userId);
+        verify(projectStatisticsService).applyStatisticsDelta(first.getId(),
+                ProjectStatisticsDeltaDto.builder().teamSize(-1).build());
+        verify(projectStatisticsService).applyStatisticsDelta(second.getId(),
+                ProjectStatisticsDeltaDto.builder().teamSize(-1).build());
+    }
+
+    @Test
+    void isProjectMember_usesExistenceQueryBehindCache() {
+        UUID userId = UUID.randomUUID();
+        UUID projectId = UUID.randomUUID();
+        when(projectMembershipCache.isMember(eq(userId), eq(projectId), any())).thenAnswer(invocation ->
+                invocation.<BiPredicate<UUID, UUID>>getArgument(2).test(userId, projectId));
+        when(projectMemberRepository.existsByUser_IdAndProject_Id(userId, projectId)).thenReturn(true);
+
+        assertTrue(projectMemberService.isProjectMember(userId, projectId));
+        verify(projectMemberRepository, never()).findAllByProject_Id(projectId);
     }
 
     @Test
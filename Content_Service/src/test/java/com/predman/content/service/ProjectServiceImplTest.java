@@ -1,7 +1,9 @@
 package com.predman.content.service;
 
+import com.predman.content.common.PredictionMode;
 import com.predman.content.dto.grpc.PredictionDto;
 import com.predman.content.dto.project.*;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
 import com.predman.content.dto.task.TaskDto;
 import com.predman.content.dto.user.detailed.UserDto;
 import com.predman.content.entity.Project;
@@ -15,16 +17,26 @@ import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,6 +54,9 @@ class ProjectServiceImplTest {
     @Mock private TaskService taskService;
     @Mock private StatisticsService statisticsService;
     @Mock private UserMapper userMapper;
+    @Mock private ProjectVersionService projectVersionService;
+    @Mock private PredictionHistoryService predictionHistoryService;
+    @Mock private TransactionTemplate transactionTemplate;
 
     @Spy
     @InjectMocks
@@ -77,6 +92,16 @@ class ProjectServiceImplTest {
             .description("New Desc2")
             .build();
 
+    @BeforeEach
+    void runTransactionsInline() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
     @Test
     void create_savesProject_andAddsMemberAndStats() {
         Project saved = Project.builder()
@@ -124,37 +149,199 @@ class ProjectServiceImplTest {
         ProjectFullInfoDto fullDto = ProjectFullInfoDto.builder().id(PROJECT_ID).build();
 
         when(projectStatisticsService.updateStatisticsByUpdatedProject(any())).thenReturn(null);
-        when(statisticsService.getPrediction(eq(PROJECT_ID), anyInt())).thenReturn(pred);
+        when(statisticsService.getPrediction(argThat(request -> request.projectId().equals(PROJECT_ID))))
+                .thenReturn(CompletableFuture.completedFuture(pred));
         when(projectRepository.save(any())).thenReturn(updated);
         when(projectMapper.convertToProjectFullInfoDto(updated)).thenReturn(fullDto);
 
-        ProjectFullInfoDto result = projectService.update(PROJECT, UPDATE_DTO_VALID);
+        ProjectFullInfoDto result = projectService.update(PROJECT, UPDATE_DTO_VALID).join();
 
         assertEquals(PROJECT_ID, result.id());
-        verify(statisticsService).getPrediction(eq(PROJECT_ID), anyInt());
+        verify(statisticsService).getPrediction(argThat(request -> request.projectId().equals(PROJECT_ID)));
+        verify(projectVersionService).bumpVersion(PROJECT_ID);
+        verify(predictionHistoryService).recordPredictions(
+                argThat(requests -> requests.getFirst().projectId().equals(PROJECT_ID)), eq(List.of(pred)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void update_writesStatisticsProjectAndHistoryOnlyInsideOneTransaction() {
+        PredictionDto pred = PredictionDto.builder().predictedDays(7).certaintyPercent(0.75).build();
+        List<ProjectStatisticsDto> preview = List.of(ProjectStatisticsDto.builder().projectId(PROJECT_ID).build());
+        when(projectStatisticsService.previewStatisticsByUpdatedProject(any())).thenReturn(preview);
+        when(statisticsService.getPrediction(argThat(request -> request.statistics() == preview)))
+                .thenReturn(CompletableFuture.completedFuture(pred));
+        when(projectRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        ProjectFullInfoDto fullDto = ProjectFullInfoDto.builder().id(PROJECT_ID).build();
+        when(projectMapper.convertToProjectFullInfoDto(any())).thenReturn(fullDto);
+        ArgumentCaptor<TransactionCallback<ProjectFullInfoDto>> callback =
+                ArgumentCaptor.forClass(TransactionCallback.class);
+        when(transactionTemplate.execute(callback.capture())).thenReturn(null);
+
+        projectService.update(PROJECT, UPDATE_DTO_VALID).join();
+
+        verify(projectStatisticsService, never()).updateStatisticsByUpdatedProject(any());
+        verify(projectRepository, never()).save(any());
+        verifyNoInteractions(projectVersionService, predictionHistoryService);
+
+        assertEquals(fullDto, callback.getValue().doInTransaction(null));
+        InOrder inOrder = inOrder(projectStatisticsService, projectRepository, projectVersionService,
+                predictionHistoryService);
+        inOrder.verify(projectStatisticsService).updateStatisticsByUpdatedProject(any());
+        inOrder.verify(projectRepository).save(any());
+        inOrder.verify(projectVersionService).bumpVersion(PROJECT_ID);
+        inOrder.verify(predictionHistoryService).recordPredictions(any(), eq(List.of(pred)));
+    }
+
+    @Test
+    void updatePrediction_failure_keepsStoredPrediction() {
+        when(statisticsService.getPrediction(argThat(request -> request.projectId().equals(PROJECT_ID))))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException()));
+
+        CompletableFuture<ProjectFullInfoDto> result = projectService.updatePrediction(PROJECT);
+
+        assertThrows(CompletionException.class, result::join);
+        verify(projectRepository, never()).save(any());
+        verifyNoInteractions(predictionHistoryService);
+    }
+
+    @Test
+    void updatePrediction_noDeadline_keepsStoredPrediction() {
+        when(statisticsService.getPrediction(argThat(request -> request.projectId().equals(PROJECT_ID))))
+                .thenReturn(CompletableFuture.completedFuture(PredictionDto.builder().certaintyPercent(0.0).build()));
+        ProjectFullInfoDto fullDto = ProjectFullInfoDto.builder().id(PROJECT_ID).build();
+        when(projectMapper.convertToProjectFullInfoDto(PROJECT)).thenReturn(fullDto);
+
+        assertEquals(fullDto, projectService.updatePrediction(PROJECT).join());
+
+        verify(projectRepository, never()).save(any());
+        verifyNoInteractions(projectVersionService);
     }
 
     @Test
-    void updatePrediction_usesDefaultIfException() {
-        when(statisticsService.getPrediction(eq(PROJECT_ID), anyInt()))
+    void update_noDeadline_keepsStoredPrediction() {
+        Project predicted = Project.builder()
+                .id(PROJECT_ID)
+                .name(PROJECT.getName())
+                .dueDate(PROJECT.getDueDate())
+                .createdDate(PROJECT.getCreatedDate())
+                .predictedDeadline(PROJECT.getCreatedDate().toLocalDate().plusDays(4))
+                .certaintyPercent(0.4)
+                .owner(OWNER)
+                .build();
+        when(statisticsService.getPrediction(any()))
+                .thenReturn(CompletableFuture.completedFuture(PredictionDto.builder().certaintyPercent(0.0).build()));
+        when(projectRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        projectService.update(predicted, UPDATE_DTO_VALID).join();
+
+        verify(projectRepository).save(argThat(p -> p.getPredictedDeadline().equals(predicted.getPredictedDeadline())
+                && p.getCertaintyPercent() == 0.4));
+    }
+
+    @Test
+    void updatePredictions_sendsSingleBatchAndSavesInOrder() {
+        Project other = Project.builder()
+                .id(UUID.randomUUID())
+                .dueDate(LocalDate.now().plusDays(3))
+                .createdDate(LocalDateTime.now().minusDays(2))
+                .owner(OWNER)
+                .build();
+        when(statisticsService.getPredictions(anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                PredictionDto.builder().predictedDays(4).certaintyPercent(0.4).build(),
+                PredictionDto.builder().predictedDays(7).certaintyPercent(0.7).build())));
+        when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(List.of(), projectService.updatePredictions(List.of(PROJECT, other)));
+
+        verify(statisticsService).getPredictions(argThat(requests -> requests.size() == 2
+                && requests.get(0).projectId().equals(PROJECT_ID)
+                && requests.get(1).projectId().equals(other.getId())));
+        verify(statisticsService, never()).getPrediction(any());
+        verify(projectRepository).save(argThat(p -> p.getId().equals(PROJECT_ID) && p.getCertaintyPercent() == 0.4));
+        verify(projectRepository).save(argThat(p -> p.getId().equals(other.getId()) && p.getCertaintyPercent() == 0.7));
+        verify(predictionHistoryService).recordPredictions(argThat(requests -> requests.size() == 2),
+                argThat(predictions -> predictions.get(0).predictedDays() == 4
+                        && predictions.get(1).predictedDays() == 7));
+    }
+
+    @Test
+    void updatePredictions_failedSave_returnsProjectAndKeepsOthers() {
+        Project other = Project.builder()
+                .id(UUID.randomUUID())
+                .dueDate(LocalDate.now().plusDays(3))
+                .createdDate(LocalDateTime.now().minusDays(2))
+                .owner(OWNER)
+                .build();
+        when(statisticsService.getPredictions(anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                PredictionDto.builder().predictedDays(4).certaintyPercent(0.4).build(),
+                PredictionDto.builder().predictedDays(7).certaintyPercent(0.7).build())));
+        when(projectRepository.save(argThat(p -> p != null && p.getId().equals(PROJECT_ID))))
                 .thenThrow(new RuntimeException());
-        ProjectFullInfoDto dto = ProjectFullInfoDto.builder().id(PROJECT_ID).build();
-        Project saved = Project.builder().id(PROJECT_ID).build();
+        when(projectRepository.save(argThat(p -> p != null && p.getId().equals(other.getId()))))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
+        List<UUID> failed = projectService.updatePredictions(List.of(PROJECT, other));
+
+        assertEquals(List.of(PROJECT_ID), failed);
+        verify(predictionHistoryService).recordPredictions(
+                argThat(requests -> requests.size() == 1 && requests.getFirst().projectId().equals(other.getId())),
+                argThat(predictions -> predictions.size() == 1 && predictions.getFirst().predictedDays() == 7));
+    }
+
+    @Test
+    void updatePredictions_sendsEachProjectsStatistics() {
+        Project other = Project.builder()
+                .id(UUID.randomUUID())
+                .dueDate(LocalDate.now().plusDays(3))
+                .createdDate(LocalDateTime.now().minusDays(2))
+                .owner(OWNER)
+                .build();
+        List<ProjectStatisticsDto> history = List.of(
+                ProjectStatisticsDto.builder().projectId(PROJECT_ID).daysSinceStart(0).remainingTasks(5).build(),
+                ProjectStatisticsDto.builder().projectId(PROJECT_ID).daysSinceStart(1).remainingTasks(4).build());
+        when(projectStatisticsService.getProjectStatisticsByProjectIds(List.of(PROJECT_ID, other.getId())))
+                .thenReturn(Map.of(PROJECT_ID, history));
+        when(statisticsService.getPredictions(anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                PredictionDto.builder().predictedDays(4).certaintyPercent(0.4).build(),
+                PredictionDto.builder().predictedDays(7).certaintyPercent(0.7).build())));
         when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(projectMapper.convertToProjectFullInfoDto(any(Project.class))).thenAnswer(invocation -> {
-            Project input = invocation.getArgument(0);
-            return ProjectFullInfoDto
-                    .builder()
-                    .id(input.getId())
-                    .certaintyPercent(input.getCertaintyPercent())
-                    .build();
-            }
-        );
-
-        ProjectFullInfoDto result = projectService.updatePrediction(PROJECT);
-        assertEquals(PROJECT_ID, result.id());
-        assertEquals(0.0, result.certaintyPercent());
+
+        projectService.updatePredictions(List.of(PROJECT, other));
+
+        verify(statisticsService).getPredictions(argThat(requests -> requests.get(0).statistics().equals(history)
+                && requests.get(1).statistics().isEmpty()));
+    }
+
+    @Test
+    void updatePredictions_failure_propagatesWithoutSaving() {
+        when(statisticsService.getPredictions(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException()));
+
+        assertThrows(CompletionException.class, () -> projectService.updatePredictions(List.of(PROJECT)));
+
+        verify(projectRepository, never()).save(any());
+        verifyNoInteractions(predictionHistoryService);
+    }
+
+    @Test
+    void updatePredictions_unchangedPrediction_keepsVersion() {
+        Project predicted = Project.builder()
+                .id(PROJECT_ID)
+                .dueDate(PROJECT.getDueDate())
+                .createdDate(PROJECT.getCreatedDate())
+                .predictedDeadline(PROJECT.getCreatedDate().toLocalDate().plusDays(4))
+                .certaintyPercent(0.4)
+                .owner(OWNER)
+                .build();
+        when(statisticsService.getPredictions(anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                PredictionDto.builder().predictedDays(4).certaintyPercent(0.4).build())));
+        when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        projectService.updatePredictions(List.of(predicted));
+
+        verify(projectRepository).save(any(Project.class));
+        verify(projectVersionService, never()).bumpVersion(any());
     }
 
     @Test
@@ -268,13 +455,48 @@ class ProjectServiceImplTest {
         when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(PROJECT));
         ProjectFullInfoDto expected = ProjectFullInfoDto.builder().id(PROJECT_ID).build();
 
-        doReturn(expected).when(projectService).updatePrediction(PROJECT);
+        doReturn(CompletableFuture.completedFuture(expected)).when(projectService).updatePrediction(PROJECT);
 
-        ProjectFullInfoDto result = projectService.getFullInfoById(PROJECT_ID);
+        ProjectFullInfoDto result = projectService.getFullInfoById(PROJECT_ID).join();
 
         assertEquals(expected.id(), result.id());
     }
 
+    @Test
+    void getFullInfoById_returnsStoredPrediction_inStoredMode() {
+        ReflectionTestUtils.setField(projectService, "predictionMode", PredictionMode.STORED);
+        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(PROJECT));
+        ProjectFullInfoDto expected = ProjectFullInfoDto.builder().id(PROJECT_ID).build();
+        when(projectMapper.convertToProjectFullInfoDto(PROJECT)).thenReturn(expected);
+
+        ProjectFullInfoDto result = projectService.getFullInfoById(PROJECT_ID).join();
+
+        assertEquals(expected, result);
+        verify(projectService, never()).updatePrediction(any());
+        verifyNoInteractions(statisticsService);
+    }
+
+    @Test
+    void claimAllWithStalePrediction_recordsAttempt() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusHours(1);
+        LocalDateTime retryBefore = LocalDateTime.now().minusMinutes(15);
+        when(projectRepository.findAllWithStalePrediction(staleBefore, retryBefore)).thenReturn(List.of(PROJECT));
+
+        List<Project> result = projectService.claimAllWithStalePrediction(staleBefore, retryBefore);
+
+        assertEquals(List.of(PROJECT), result);
+        verify(projectRepository).markPredictionAttempted(eq(List.of(PROJECT_ID)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void claimAllWithStalePrediction_nothingStale_writesNothing() {
+        when(projectRepository.findAllWithStalePrediction(any(), any())).thenReturn(List.of());
+
+        assertEquals(List.of(), projectService.claimAllWithStalePrediction(LocalDateTime.now(), LocalDateTime.now()));
+
+        verify(projectRepository, never()).markPredictionAttempted(any(), any());
+    }
+
     @Test
     void update_setsDefaults_whenAllFieldsNull() {
         ProjectUpdateDto dto = ProjectUpdateDto.builder().build();
@@ -290,13 +512,13 @@ class ProjectServiceImplTest {
                             .build();
                 });
 
-        ProjectFullInfoDto result = projectService.update(PROJECT, dto);
+        ProjectFullInfoDto result = projectService.update(PROJECT, dto).join();
 
         assertEquals(PROJECT.getId(), result.id());
         assertEquals(PROJECT.getCertaintyPercent(), result.certaintyPercent());
         assertEquals(PROJECT.getPredictedDeadline(), result.predictedDeadline());
         verify(projectStatisticsService, never()).updateStatisticsByUpdatedProject(any());
-        verify(statisticsService, never()).getPrediction(any(), anyInt());
+        verify(statisticsService, never()).getPrediction(any());
     }
 
     @Test
@@ -322,9 +544,10 @@ class ProjectServiceImplTest {
                             .build();
                 });
 
-        when(statisticsService.getPrediction(eq(PROJECT_ID), anyInt())).thenReturn(prediction);
+        when(statisticsService.getPrediction(argThat(request -> request.projectId().equals(PROJECT_ID))))
+                .thenReturn(CompletableFuture.completedFuture(prediction));
 
-        ProjectFullInfoDto result = projectService.update(PROJECT, dto);
+        ProjectFullInfoDto result = projectService.update(PROJECT, dto).join();
 
         assertEquals(PROJECT_ID, result.id());
         assertEquals(0.5, result.certaintyPercent());
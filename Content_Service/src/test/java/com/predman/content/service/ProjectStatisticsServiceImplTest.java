@@ -1,7 +1,13 @@
 package com.predman.content.service;
 
+import com.predman.content.common.StatisticsAggregate;
+import com.predman.content.common.StatisticsBucket;
 import com.predman.content.common.TaskStatus;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsBucketView;
 import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsHistoryRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsPageDto;
 import com.predman.content.dto.task.TaskDto;
 import com.predman.content.dto.task_dependency.TaskDependencyDto;
 import com.predman.content.dto.user.detailed.UserDto;
@@ -9,6 +15,7 @@ import com.predman.content.entity.Project;
 import com.predman.content.entity.ProjectStatistics;
 import com.predman.content.entity.Task;
 import com.predman.content.entity.User;
+import com.predman.content.exception.BadRequestException;
 import com.predman.content.repository.ProjectStatisticsRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,17 +23,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ProjectStatisticsServiceImplTest {
@@ -35,6 +46,8 @@ class ProjectStatisticsServiceImplTest {
     @Mock private ProjectMemberService projectMemberService;
     @Mock private TaskService taskService;
     @Mock private TaskDependencyService taskDependencyService;
+    @Mock private CriticalPathService criticalPathService;
+    @Mock private ProjectVersionService projectVersionService;
 
     @InjectMocks
     private ProjectStatisticsServiceImpl projectStatisticsService;
@@ -55,6 +68,7 @@ class ProjectStatisticsServiceImplTest {
         assertEquals(0.0, saved.getAvailableHours());
         assertEquals(1, saved.getTeamSize());
         assertEquals(0, saved.getRemainingTasks());
+        verify(projectStatisticsRepository).upsertLatestStatistics(PROJECT_ID, saved.getId(), saved.getSavedAt());
     }
 
     @Test
@@ -67,8 +81,9 @@ class ProjectStatisticsServiceImplTest {
     }
 
     @Test
-    void updateStatistics_updatesIfAlreadySavedToday() {
+    void reconcileStatistics_updatesIfAlreadySavedToday() {
         ProjectStatistics existing = ProjectStatistics.builder()
+                .id(UUID.randomUUID())
                 .savedAt(LocalDateTime.now())
                 .project(Project.builder().createdDate(
                         LocalDateTime.of(2023, 1, 1, 0, 0))
@@ -80,9 +95,10 @@ class ProjectStatisticsServiceImplTest {
         when(taskService.getAllByProjectId(PROJECT_ID)).thenReturn(Collections.emptyList());
         when(taskDependencyService.getAllProjectDependencies(PROJECT_ID)).thenReturn(Collections.emptyList());
 
-        projectStatisticsService.updateStatistics(PROJECT_ID);
+        projectStatisticsService.reconcileStatistics(PROJECT_ID);
 
-        verify(projectStatisticsRepository).save(any(ProjectStatistics.class));
+        verify(projectStatisticsRepository).save(argThat(saved -> existing.getId().equals(saved.getId())
+                && saved.getRemainingTasks() == 0 && saved.getDependencyCoefficient() == 0.0));
     }
 
     @Test
@@ -119,7 +135,37 @@ class ProjectStatisticsServiceImplTest {
     }
 
     @Test
-    void getProjectStatisticsByProjectId_callsUpdateAndMaps() {
+    void previewStatisticsByUpdatedProject_appendsTodayWithoutWriting() {
+        Project updatedProject = Project.builder()
+                .id(PROJECT_ID)
+                .availableHours(10.0)
+                .sumExperience(5.0)
+                .externalRiskProbability(0.1)
+                .createdDate(LocalDateTime.now().minusDays(5))
+                .build();
+        ProjectStatistics yesterday = ProjectStatistics.builder()
+                .id(UUID.randomUUID())
+                .savedAt(LocalDateTime.now().minusDays(1))
+                .project(updatedProject)
+                .remainingTasks(3)
+                .teamSize(3)
+                .build();
+        when(projectStatisticsRepository.findAllByProjectIdOrderBySavedAtAsc(PROJECT_ID))
+                .thenReturn(List.of(yesterday));
+
+        List<ProjectStatisticsDto> preview = projectStatisticsService.previewStatisticsByUpdatedProject(updatedProject);
+
+        assertEquals(2, preview.size());
+        assertEquals(yesterday.getId(), preview.getFirst().id());
+        assertNull(preview.getLast().id());
+        assertEquals(10.0, preview.getLast().availableHours());
+        assertEquals(3, preview.getLast().remainingTasks());
+        assertEquals(LocalDate.now(), preview.getLast().savedAt());
+        verify(projectStatisticsRepository, never()).save(any());
+    }
+
+    @Test
+    void getProjectStatisticsByProjectId_readsStoredRowsWithoutRecomputing() {
         ProjectStatistics stat = ProjectStatistics.builder()
                 .id(UUID.randomUUID())
                 .project(Project.builder().createdDate(
@@ -137,27 +183,243 @@ class ProjectStatisticsServiceImplTest {
                 .savedAt(LocalDateTime.now())
                 .build();
 
-        when(projectStatisticsRepository.findLatestStatisticsByProjectId(PROJECT_ID)).thenReturn(stat);
-        when(projectStatisticsRepository.findAllByProjectId(PROJECT_ID)).thenReturn(List.of(stat));
-        when(projectService.getEntityById(PROJECT_ID)).thenReturn(stat.getProject());
+        when(projectStatisticsRepository.findAllByProjectIdOrderBySavedAtAsc(PROJECT_ID)).thenReturn(List.of(stat));
+
+        List<ProjectStatisticsDto> result = projectStatisticsService.getProjectStatisticsByProjectId(PROJECT_ID);
+
+        assertEquals(1, result.size());
+        assertEquals(PROJECT_ID, result.getFirst().projectId());
+        assertEquals(5, result.getFirst().remainingTasks());
+        verifyNoInteractions(taskService, taskDependencyService, projectMemberService);
+        verify(projectStatisticsRepository, never()).save(any());
+    }
+
+    @Test
+    void getProjectStatisticsByProjectIds_groupsHistoryByProjectInOrder() {
+        UUID otherId = UUID.randomUUID();
+        Project project = Project.builder().id(PROJECT_ID).build();
+        Project other = Project.builder().id(otherId).build();
+        when(projectStatisticsRepository.findAllByProjectIdInOrderBySavedAtAsc(List.of(PROJECT_ID, otherId)))
+                .thenReturn(List.of(
+                        ProjectStatistics.builder().project(project).daysSinceStart(1)
+                                .savedAt(LocalDateTime.now().minusDays(1)).build(),
+                        ProjectStatistics.builder().project(other).daysSinceStart(5)
+                                .savedAt(LocalDateTime.now().minusDays(1)).build(),
+                        ProjectStatistics.builder().project(project).daysSinceStart(2)
+                                .savedAt(LocalDateTime.now()).build()));
+
+        Map<UUID, List<ProjectStatisticsDto>> result =
+                projectStatisticsService.getProjectStatisticsByProjectIds(List.of(PROJECT_ID, otherId));
+
+        assertEquals(List.of(1, 2), result.get(PROJECT_ID).stream().map(ProjectStatisticsDto::daysSinceStart).toList());
+        assertEquals(List.of(5), result.get(otherId).stream().map(ProjectStatisticsDto::daysSinceStart).toList());
+    }
+
+    @Test
+    void reconcileStatistics_recomputesFromTasksDependenciesAndMembers() {
+        UUID plannedId = UUID.fromString("11111111-2222-1111-1111-111111111111");
+        UUID inProgressId = UUID.fromString("11111111-3333-1111-1111-111111111111");
+        Project project = Project.builder().createdDate(LocalDateTime.of(2023, 1, 1, 0, 0)).id(PROJECT_ID).build();
+        when(projectStatisticsRepository.findLatestStatisticsByProjectId(PROJECT_ID)).thenReturn(
+                ProjectStatistics.builder().savedAt(LocalDateTime.now().minusDays(1)).project(project).build());
+        when(projectService.getEntityById(PROJECT_ID)).thenReturn(project);
         when(taskService.getAllByProjectId(PROJECT_ID)).thenReturn(List.of(
-                TaskDto.builder().id(UUID.fromString("11111111-2222-1111-1111-111111111111"))
-                        .status(TaskStatus.PLANNED).storyPoints(5.0).build(),
-                TaskDto.builder().id(UUID.fromString("11111111-3333-1111-1111-111111111111"))
-                        .status(TaskStatus.IN_PROGRESS).storyPoints(10.0).build(),
+                TaskDto.builder().id(plannedId).status(TaskStatus.PLANNED).storyPoints(5.0).build(),
+                TaskDto.builder().id(inProgressId).status(TaskStatus.IN_PROGRESS).storyPoints(10.0).build(),
                 TaskDto.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).storyPoints(15.0).build()
         ));
         when(taskDependencyService.getAllProjectDependencies(PROJECT_ID)).thenReturn(List.of(
-                TaskDependencyDto.builder()
-                        .taskId(UUID.fromString("11111111-2222-1111-1111-111111111111"))
-                        .dependencyId(UUID.fromString("11111111-3333-1111-1111-111111111111"))
-                        .build()
+                TaskDependencyDto.builder().taskId(plannedId).dependencyId(inProgressId).build()
         ));
         when(projectMemberService.getUsersByProjectId(PROJECT_ID)).thenReturn(List.of(UserDto.builder().build()));
 
-        List<ProjectStatisticsDto> result = projectStatisticsService.getProjectStatisticsByProjectId(PROJECT_ID);
+        projectStatisticsService.reconcileStatistics(PROJECT_ID);
 
-        assertEquals(1, result.size());
-        assertEquals(PROJECT_ID, result.getFirst().projectId());
+        verify(projectStatisticsRepository).save(argThat(saved -> saved.getId() == null
+                && saved.getRemainingTasks() == 2
+                && saved.getRemainingStoryPoints() == 15.0
+                && saved.getDependencyCoefficient() == 0.5
+                && saved.getCriticalPathLength() == 15.0
+                && saved.getTeamSize() == 1));
+        verify(criticalPathService).invalidate(PROJECT_ID);
+    }
+
+    @Test
+    void applyStatisticsDelta_updatesTodayRowAtomically() {
+        ProjectStatistics today = ProjectStatistics.builder()
+                .id(UUID.randomUUID())
+                .savedAt(LocalDateTime.now())
+                .build();
+        when(projectStatisticsRepository.findLatestStatisticsByProjectId(PROJECT_ID)).thenReturn(today);
+        when(criticalPathService.getCriticalPathLength(PROJECT_ID)).thenReturn(8.0);
+
+        projectStatisticsService.applyStatisticsDelta(PROJECT_ID, ProjectStatisticsDeltaDto.builder()
+                .remainingTasks(1)
+                .remainingStoryPoints(3.0)
+                .build());
+
+        verify(projectStatisticsRepository).applyDelta(today.getId(), 1, 3.0, 0);
+        verify(projectStatisticsRepository).refreshDependencyCoefficient(today.getId());
+        verify(projectStatisticsRepository).updateCriticalPathLength(today.getId(), 8.0);
+        verify(projectStatisticsRepository, never()).save(any());
+        verifyNoInteractions(projectVersionService);
+    }
+
+    @Test
+    void applyStatisticsDelta_createsTodayRowFromLatest() {
+        Project project = Project.builder().id(PROJECT_ID).createdDate(LocalDateTime.now().minusDays(3)).build();
+        ProjectStatistics yesterday = ProjectStatistics.builder()
+                .id(UUID.randomUUID())
+                .project(project)
+                .teamSize(2)
+                .remainingTasks(4)
+                .savedAt(LocalDateTime.now().minusDays(1))
+                .build();
+        ProjectStatistics today = ProjectStatistics.builder().id(UUID.randomUUID()).build();
+        when(projectStatisticsRepository.findLatestStatisticsByProjectId(PROJECT_ID)).thenReturn(yesterday);
+        when(projectStatisticsRepository.save(argThat(saved -> saved.getId() == null
+                && saved.getTeamSize() == 2 && saved.getDaysSinceStart() == 3))).thenReturn(today);
+
+        projectStatisticsService.applyStatisticsDelta(PROJECT_ID,
+                ProjectStatisticsDeltaDto.builder().teamSize(1).build());
+
+        verify(projectVersionService).lock(PROJECT_ID);
+        verify(projectStatisticsRepository).applyDelta(today.getId(), 0, 0.0, 1);
+        verify(projectStatisticsRepository, never()).refreshDependencyCoefficient(any());
+        verifyNoInteractions(criticalPathService);
+    }
+
+    @Test
+    void applyStatisticsDelta_usesTodayRowCreatedWhileWaitingForLock() {
+        ProjectStatistics yesterday = ProjectStatistics.builder()
+                .id(UUID.randomUUID())
+                .savedAt(LocalDateTime.now().minusDays(1))
+                .build();
+        ProjectStatistics today = ProjectStatistics.builder()
+                .id(UUID.randomUUID())
+                .savedAt(LocalDateTime.now())
+                .build();
+        when(projectStatisticsRepository.findLatestStatisticsByProjectId(PROJECT_ID)).thenReturn(yesterday, today);
+
+        projectStatisticsService.applyStatisticsDelta(PROJECT_ID,
+                ProjectStatisticsDeltaDto.builder().teamSize(1).build());
+
+        verify(projectVersionService).lock(PROJECT_ID);
+        verify(projectStatisticsRepository).applyDelta(today.getId(), 0, 0.0, 1);
+        verify(projectStatisticsRepository, never()).save(any());
+    }
+
+    @Test
+    void applyStatisticsDelta_ignoresEmptyDelta() {
+        projectStatisticsService.applyStatisticsDelta(PROJECT_ID, ProjectStatisticsDeltaDto.builder().build());
+
+        verifyNoInteractions(projectStatisticsRepository);
+    }
+
+    private static ProjectStatistics historyRow(LocalDateTime savedAt) {
+        return ProjectStatistics.builder()
+                .id(UUID.randomUUID())
+                .project(Project.builder().id(PROJECT_ID).build())
+                .remainingTasks(4)
+                .savedAt(savedAt)
+                .build();
+    }
+
+    @Test
+    void getProjectStatisticsHistory_fullRawPage_returnsSavedAtAndIdCursor() {
+        LocalDateTime first = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime second = LocalDateTime.of(2024, 3, 2, 0, 0);
+        ProjectStatistics last = historyRow(second);
+        when(projectStatisticsRepository.findHistoryPage(eq(PROJECT_ID), any(), any(), any(), any(),
+                eq(Limit.of(2)))).thenReturn(List.of(historyRow(first), last));
+
+        ProjectStatisticsPageDto page = projectStatisticsService.getProjectStatisticsHistory(PROJECT_ID,
+                ProjectStatisticsHistoryRequestDto.builder().limit(2).build());
+
+        assertEquals(2, page.items().size());
+        assertEquals(second + "_" + last.getId(), page.nextCursor());
+    }
+
+    @Test
+    void getProjectStatisticsHistory_lastPage_hasNoCursor() {
+        LocalDateTime after = LocalDateTime.of(2024, 3, 2, 0, 0);
+        UUID afterId = UUID.randomUUID();
+        when(projectStatisticsRepository.findHistoryPage(eq(PROJECT_ID), any(), any(), eq(after), eq(afterId),
+                eq(Limit.of(2)))).thenReturn(List.of(historyRow(after.plusDays(1))));
+
+        ProjectStatisticsPageDto page = projectStatisticsService.getProjectStatisticsHistory(PROJECT_ID,
+                ProjectStatisticsHistoryRequestDto.builder().limit(2).cursor(after + "_" + afterId).build());
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getProjectStatisticsHistory_weeklyLast_usesBucketStartAsCursor() {
+        LocalDateTime thursday = LocalDateTime.of(2024, 3, 7, 12, 0);
+        when(projectStatisticsRepository.findHistoryBucketLasts(eq(PROJECT_ID), eq("week"), any(), any(), any(),
+                eq(1))).thenReturn(List.of(historyRow(thursday)));
+
+        ProjectStatisticsPageDto page = projectStatisticsService.getProjectStatisticsHistory(PROJECT_ID,
+                ProjectStatisticsHistoryRequestDto.builder()
+                        .limit(1)
+                        .bucket(StatisticsBucket.WEEK)
+                        .aggregate(StatisticsAggregate.LAST)
+                        .build());
+
+        assertEquals(LocalDateTime.of(2024, 3, 4, 0, 0).toString(), page.nextCursor());
+        assertEquals(thursday.toLocalDate(), page.items().getFirst().savedAt());
+    }
+
+    @Test
+    void getProjectStatisticsHistory_monthlyAverage_roundsIntegerFields() {
+        ProjectStatisticsBucketView bucket = mock(ProjectStatisticsBucketView.class);
+        when(bucket.getBucketStart()).thenReturn(LocalDateTime.of(2024, 3, 1, 0, 0));
+        when(bucket.getRemainingTasks()).thenReturn(4.6);
+        when(bucket.getRemainingStoryPoints()).thenReturn(10.5);
+        when(projectStatisticsRepository.findHistoryBucketAverages(eq(PROJECT_ID), eq("month"), any(), any(), any(),
+                anyInt())).thenReturn(List.of(bucket));
+
+        ProjectStatisticsPageDto page = projectStatisticsService.getProjectStatisticsHistory(PROJECT_ID,
+                ProjectStatisticsHistoryRequestDto.builder()
+                        .bucket(StatisticsBucket.MONTH)
+                        .aggregate(StatisticsAggregate.AVERAGE)
+                        .build());
+
+        ProjectStatisticsDto item = page.items().getFirst();
+        assertEquals(5, item.remainingTasks());
+        assertEquals(10.5, item.remainingStoryPoints());
+        assertNull(item.teamSize());
+        assertNull(item.id());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getProjectStatisticsHistory_invalidRequest_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> projectStatisticsService.getProjectStatisticsHistory(
+                PROJECT_ID, ProjectStatisticsHistoryRequestDto.builder().limit(5000).build()));
+        assertThrows(BadRequestException.class, () -> projectStatisticsService.getProjectStatisticsHistory(
+                PROJECT_ID, ProjectStatisticsHistoryRequestDto.builder().cursor("yesterday").build()));
+    }
+
+    @Test
+    void ensureStatisticsPartitions_createsCurrentAndUpcomingMonths() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        when(projectStatisticsRepository.createPartition(any())).thenReturn(false);
+        when(projectStatisticsRepository.createPartition(currentMonth.plusMonths(2))).thenReturn(true);
+
+        int created = projectStatisticsService.ensureStatisticsPartitions(2);
+
+        assertEquals(1, created);
+        verify(projectStatisticsRepository).createPartition(currentMonth);
+        verify(projectStatisticsRepository).createPartition(currentMonth.plusMonths(1));
+    }
+
+    @Test
+    void rollUpStatistics_alignsCutoffToWeekStart() {
+        projectStatisticsService.rollUpStatistics(LocalDateTime.of(2024, 3, 7, 15, 30));
+
+        verify(projectStatisticsRepository).rollUpWeekly(LocalDateTime.of(2024, 3, 4, 0, 0));
+        verify(projectStatisticsRepository).refreshDanglingLatestStatistics();
     }
-}
\ No newline at end of file
+}
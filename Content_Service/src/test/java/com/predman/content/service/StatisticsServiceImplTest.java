@@ -0,0 +1,253 @@
+package com.predman.content.service;
+
+import com.predman.content.common.PredictionCircuitBreaker;
+import com.predman.content.dto.grpc.PredictionDto;
+import com.predman.content.dto.grpc.PredictionRequestDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDto;
+import com.predman.statistics.PredictionBatchReply;
+import com.predman.statistics.PredictionBatchRequest;
+import com.predman.statistics.PredictionReply;
+import com.predman.statistics.PredictionRequest;
+import com.predman.statistics.StatisticsServiceGrpc;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the async client against a real gRPC server whose model answers only after {@link #MODEL_DELAY_MS},
+ * without holding a server thread while it waits. Negative estimated days make the model fail a single
+ * call and leave the request out of a batch reply.
+ */
+class StatisticsServiceImplTest {
+    private static final long MODEL_DELAY_MS = 200;
+    private static final int CONCURRENT_CALLS = 200;
+
+    private final ScheduledExecutorService model = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService callbacks = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger modelCalls = new AtomicInteger();
+    private final PredictionCircuitBreaker circuitBreaker = new PredictionCircuitBreaker(3, 60000);
+    private Server server;
+    private ManagedChannel channel;
+    private StatisticsServiceImpl statisticsService;
+
+    private class SlowModel extends StatisticsServiceGrpc.StatisticsServiceImplBase {
+        @Override
+        public void predict(PredictionRequest request, StreamObserver<PredictionReply> responseObserver) {
+            modelCalls.incrementAndGet();
+            if (request.getEstimatedDays() < 0) {
+                responseObserver.onError(Status.INVALID_ARGUMENT.asRuntimeException());
+                return;
+            }
+            model.schedule(() -> {
+                responseObserver.onNext(reply(request));
+                responseObserver.onCompleted();
+            }, MODEL_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void predictBatch(PredictionBatchRequest request, StreamObserver<PredictionBatchReply> responseObserver) {
+            model.schedule(() -> {
+                PredictionBatchReply.Builder batch = PredictionBatchReply.newBuilder();
+                request.getRequestsList().stream()
+                        .filter(prediction -> prediction.getEstimatedDays() >= 0)
+                        .forEach(prediction -> batch.addReplies(reply(prediction)));
+                responseObserver.onNext(batch.build());
+                responseObserver.onCompleted();
+            }, MODEL_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+
+        private PredictionReply reply(PredictionRequest request) {
+            return PredictionReply.newBuilder()
+                    .setProjectId(request.getProjectId())
+                    .setPredictedDays(request.getEstimatedDays())
+                    .setEstimatedDaysCertainty(request.getStatisticsCount())
+                    .build();
+        }
+    }
+
+    private static PredictionRequestDto request(int estimatedDays) {
+        return PredictionRequestDto.builder()
+                .projectId(UUID.randomUUID())
+                .estimatedDays(estimatedDays)
+                .statistics(List.of())
+                .build();
+    }
+
+    /** A project burning four story points a day from forty, so the fallback estimate is day ten. */
+    private static PredictionRequestDto burndownRequest(int estimatedDays) {
+        UUID projectId = UUID.randomUUID();
+        return PredictionRequestDto.builder()
+                .projectId(projectId)
+                .estimatedDays(estimatedDays)
+                .statistics(IntStream.range(0, 4)
+                        .mapToObj(day -> ProjectStatisticsDto.builder()
+                                .projectId(projectId)
+                                .daysSinceStart(day)
+                                .remainingStoryPoints(40.0 - 4 * day)
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = Grpc.newServerBuilderForPort(0, InsecureServerCredentials.create())
+                .addService(new SlowModel())
+                .build()
+                .start();
+        channel = ManagedChannelBuilder.forAddress("localhost", server.getPort())
+                .usePlaintext()
+                .executor(callbacks)
+                .build();
+        statisticsService = new StatisticsServiceImpl(StatisticsServiceGrpc.newStub(channel), circuitBreaker);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        model.shutdownNow();
+        callbacks.close();
+    }
+
+    @Test
+    void getPrediction_concurrentCallsOverlapOnSlowModel() {
+        // Warm up the connection so the measurement covers calls only.
+        statisticsService.getPrediction(request(1)).join();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<PredictionDto>> predictions = new ArrayList<>(CONCURRENT_CALLS);
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            predictions.add(statisticsService.getPrediction(request(i)));
+        }
+        long submittedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        CompletableFuture.allOf(predictions.toArray(CompletableFuture[]::new)).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        double callsPerSecond = CONCURRENT_CALLS * 1000.0 / elapsedMs;
+
+        assertTrue(submittedMs < MODEL_DELAY_MS, "Submitting calls waited on the model: " + submittedMs + " ms");
+        assertTrue(elapsedMs < CONCURRENT_CALLS * MODEL_DELAY_MS / 10,
+                "%d calls took %d ms (%.0f calls/s)".formatted(CONCURRENT_CALLS, elapsedMs, callsPerSecond));
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            assertEquals(i, predictions.get(i).join().predictedDays());
+        }
+    }
+
+    @Test
+    void getPrediction_sendsStatisticsHistory() {
+        UUID projectId = UUID.randomUUID();
+        PredictionRequestDto request = PredictionRequestDto.builder()
+                .projectId(projectId)
+                .estimatedDays(10)
+                .statistics(List.of(
+                        ProjectStatisticsDto.builder().projectId(projectId).daysSinceStart(0).build(),
+                        ProjectStatisticsDto.builder().projectId(projectId).daysSinceStart(1).remainingTasks(3).build()))
+                .build();
+
+        PredictionDto prediction = statisticsService.getPrediction(request).join();
+
+        assertEquals(2.0, prediction.certaintyPercent());
+    }
+
+    @Test
+    void getPrediction_failedCall_fallsBackToBurndownEstimate() {
+        PredictionDto prediction = statisticsService.getPrediction(burndownRequest(-1)).join();
+
+        assertEquals(10, prediction.predictedDays());
+        assertEquals(1, modelCalls.get());
+    }
+
+    @Test
+    void getPrediction_slowModel_fallsBackAfterDeadline() {
+        ReflectionTestUtils.setField(statisticsService, "deadlineMs", MODEL_DELAY_MS / 4);
+
+        long start = System.nanoTime();
+        PredictionDto prediction = statisticsService.getPrediction(burndownRequest(10)).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(10, prediction.predictedDays());
+        assertTrue(elapsedMs < MODEL_DELAY_MS, "Deadline fired after " + elapsedMs + " ms");
+        assertEquals(PredictionCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void getPrediction_openCircuit_answersWithoutCallingModel() {
+        for (int i = 0; i < 3; i++) {
+            statisticsService.getPrediction(request(-1)).join();
+        }
+        assertEquals(PredictionCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        long start = System.nanoTime();
+        PredictionDto prediction = statisticsService.getPrediction(burndownRequest(10)).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(10, prediction.predictedDays());
+        assertEquals(3, modelCalls.get());
+        assertTrue(elapsedMs < MODEL_DELAY_MS, "Open circuit took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void getPredictions_openCircuit_estimatesEveryRequest() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure();
+        }
+
+        List<PredictionDto> predictions = statisticsService.getPredictions(
+                List.of(burndownRequest(10), request(30))).join();
+
+        assertEquals(10, predictions.get(0).predictedDays());
+        assertFalse(predictions.get(1).hasDeadline());
+    }
+
+    @Test
+    void getPredictions_malformedReply_failsWithoutFallback() {
+        CompletableFuture<List<PredictionDto>> predictions =
+                statisticsService.getPredictions(List.of(burndownRequest(10), request(-1)));
+
+        CompletionException failure = assertThrows(CompletionException.class, predictions::join);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    @Test
+    void getPredictions_sendsBatchesConcurrentlyAndKeepsOrder() {
+        ReflectionTestUtils.setField(statisticsService, "batchSize", 2);
+        List<PredictionRequestDto> requests = IntStream.range(0, 10)
+                .mapToObj(StatisticsServiceImplTest::request)
+                .toList();
+
+        long start = System.nanoTime();
+        List<PredictionDto> predictions = statisticsService.getPredictions(requests).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(IntStream.range(0, 10).boxed().toList(),
+                predictions.stream().map(PredictionDto::predictedDays).toList());
+        assertTrue(elapsedMs < 5 * MODEL_DELAY_MS, "Five batches took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void getPredictions_emptyRequests_completesImmediately() {
+        assertEquals(List.of(), statisticsService.getPredictions(List.of()).join());
+    }
+}
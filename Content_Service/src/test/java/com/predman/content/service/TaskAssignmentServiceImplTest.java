@@ -1,13 +1,13 @@
 package com.predman.content.service;
 
+import com.predman.content.common.BoardEventType;
 import com.predman.content.dto.task.TaskDto;
 import com.predman.content.dto.user.detailed.UserDto;
+import com.predman.content.entity.Project;
 import com.predman.content.entity.Task;
 import com.predman.content.entity.TaskAssignment;
 import com.predman.content.entity.User;
 import com.predman.content.exception.NotFoundException;
-import com.predman.content.mapper.TaskMapper;
-import com.predman.content.mapper.UserMapper;
 import com.predman.content.repository.TaskAssignmentRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,9 +25,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class TaskAssignmentServiceImplTest {
     @Mock private TaskAssignmentRepository taskAssignmentRepository;
-    @Mock private UserMapper userMapper;
-    @Mock private TaskMapper taskMapper;
     @Mock private TaskService taskService;
+    @Mock private ProjectVersionService projectVersionService;
+    @Mock private BoardEventService boardEventService;
 
     @InjectMocks
     private TaskAssignmentServiceImpl taskAssignmentService;
@@ -35,37 +35,29 @@ class TaskAssignmentServiceImplTest {
     private final UUID taskId = UUID.randomUUID();
     private final UUID userId = UUID.randomUUID();
     private final UUID assignmentId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
 
     @Test
     void getAllAssigneesByTaskId_shouldReturnUserDtos() {
-        User user = User.builder().id(userId).email("email").login("login").build();
-        TaskAssignment assignment = TaskAssignment.builder().user(user).build();
-        UserDto userDto = new UserDto(userId, "email", "login");
+        UserDto userDto = new UserDto(userId, "login", "email");
 
-        when(taskAssignmentRepository.findAllByTask_Id(taskId)).thenReturn(List.of(assignment));
-        when(userMapper.convertToUserDto(user)).thenReturn(userDto);
+        when(taskAssignmentRepository.findAssigneesByTaskId(taskId)).thenReturn(List.of(userDto));
 
         List<UserDto> result = taskAssignmentService.getAllAssigneesByTaskId(taskId);
 
         assertEquals(List.of(userDto), result);
-        verify(taskAssignmentRepository).findAllByTask_Id(taskId);
-        verify(userMapper).convertToUserDto(user);
+        verify(taskAssignmentRepository, never()).findAllByTask_Id(taskId);
     }
 
     @Test
     void getAllTasksByUserId_shouldReturnTaskDtos() {
         TaskDto taskDto = TaskDto.builder().id(taskId).name("Task").build();
-        TaskAssignment assignment = TaskAssignment.builder().task(
-                Task.builder().id(taskId).name("Task").build()).build();
 
-        when(taskAssignmentRepository.findAllByUser_Id(userId)).thenReturn(List.of(assignment));
-        when(taskMapper.convertToTaskDto(any())).thenReturn(taskDto);
+        when(taskAssignmentRepository.findTasksByUserId(userId)).thenReturn(List.of(taskDto));
 
         List<TaskDto> result = taskAssignmentService.getAllTasksByUserId(userId);
 
         assertEquals(List.of(taskDto), result);
-        verify(taskAssignmentRepository).findAllByUser_Id(userId);
-        verify(taskMapper).convertToTaskDto(assignment.getTask());
     }
 
     @Test
@@ -73,7 +65,8 @@ class TaskAssignmentServiceImplTest {
         User user = User.builder().id(userId).email("email").login("login").build();
         TaskDto taskDto = TaskDto.builder().id(taskId).name("Task").build();
 
-        when(taskService.getEntityById(taskId)).thenReturn(Task.builder().id(taskId).name("Task").build());
+        when(taskService.getEntityById(taskId)).thenReturn(Task.builder().id(taskId).name("Task")
+                .project(Project.builder().id(projectId).build()).build());
 
         UserDto result = taskAssignmentService.assignTask(taskId, user);
 
@@ -81,6 +74,9 @@ class TaskAssignmentServiceImplTest {
         assertEquals("email", result.email());
         assertEquals("login", result.login());
         verify(taskAssignmentRepository).save(any(TaskAssignment.class));
+        verify(projectVersionService).bumpVersion(projectId);
+        verify(boardEventService).publish(argThat(event -> event.type() == BoardEventType.ASSIGNEE_ADDED
+                && event.taskId().equals(taskId) && event.userId().equals(userId)));
     }
 
     @Test
@@ -89,6 +85,7 @@ class TaskAssignmentServiceImplTest {
         TaskAssignment assignment = TaskAssignment.builder()
                 .id(assignmentId)
                 .user(user)
+                .task(Task.builder().id(taskId).project(Project.builder().id(projectId).build()).build())
                 .build();
 
         when(taskAssignmentRepository.findAllByTask_Id(taskId)).thenReturn(List.of(assignment));
@@ -96,6 +93,7 @@ class TaskAssignmentServiceImplTest {
         taskAssignmentService.removeAssignment(taskId, user);
 
         verify(taskAssignmentRepository).deleteById(assignmentId);
+        verify(projectVersionService).bumpVersion(projectId);
     }
 
     @Test
@@ -105,5 +103,6 @@ class TaskAssignmentServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> taskAssignmentService.removeAssignment(taskId, user));
         verify(taskAssignmentRepository, never()).deleteById(any());
+        verify(projectVersionService, never()).bumpVersion(any());
     }
 }
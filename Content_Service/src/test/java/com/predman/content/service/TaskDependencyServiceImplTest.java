@@ -1,30 +1,46 @@
 package com.predman.content.service;
 
+import com.predman.content.common.BoardEventType;
+import com.predman.content.common.TaskGraph;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
+import com.predman.content.dto.task_dependency.TaskDependencyBulkDto;
 import com.predman.content.dto.task_dependency.TaskDependencyDto;
+import com.predman.content.entity.Project;
 import com.predman.content.entity.Task;
 import com.predman.content.entity.TaskDependency;
+import com.predman.content.exception.BadRequestException;
 import com.predman.content.exception.ForbiddenException;
 import com.predman.content.exception.NotFoundException;
+import com.predman.content.repository.TaskBatchRepository;
 import com.predman.content.repository.TaskDependencyRepository;
 import com.predman.content.repository.TaskRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TaskDependencyServiceImplTest {
     @Mock private TaskDependencyRepository taskDependencyRepository;
     @Mock private TaskRepository taskRepository;
+    @Mock private TaskBatchRepository taskBatchRepository;
+    @Mock private ProjectStatisticsService projectStatisticsService;
+    @Mock private CriticalPathService criticalPathService;
+    @Mock private ProjectVersionService projectVersionService;
+    @Mock private BoardEventService boardEventService;
 
     @InjectMocks
     private TaskDependencyServiceImpl taskDependencyService;
@@ -32,47 +48,35 @@ class TaskDependencyServiceImplTest {
     @Test
     void getTaskDependencies_shouldReturnListOfDtos() {
         UUID taskId = UUID.randomUUID();
-        UUID depId = UUID.randomUUID();
-
-        Task task = Task.builder().id(taskId).build();
-        Task dependency = Task.builder().id(depId).build();
-        TaskDependency td = TaskDependency.builder().task(task).dependency(dependency).build();
+        TaskDependencyDto dto = new TaskDependencyDto(taskId, UUID.randomUUID());
 
-        when(taskDependencyRepository.findAllByTaskId(taskId)).thenReturn(List.of(td));
+        when(taskDependencyRepository.findDependenciesByTaskId(taskId)).thenReturn(List.of(dto));
 
         List<TaskDependencyDto> result = taskDependencyService.getTaskDependencies(taskId);
 
-        assertEquals(1, result.size());
-        assertEquals(taskId, result.getFirst().taskId());
-        assertEquals(depId, result.getFirst().dependencyId());
+        assertEquals(List.of(dto), result);
     }
 
     @Test
     void getAllProjectDependencies_shouldReturnListOfDtos() {
-        UUID taskId = UUID.randomUUID();
-        UUID depId = UUID.randomUUID();
         UUID projectId = UUID.randomUUID();
+        TaskDependencyDto dto = new TaskDependencyDto(UUID.randomUUID(), UUID.randomUUID());
 
-        Task task = Task.builder().id(taskId).build();
-        Task dependency = Task.builder().id(depId).build();
-        TaskDependency td = TaskDependency.builder().task(task).dependency(dependency).build();
-
-        when(taskDependencyRepository.findAllByProjectId(projectId)).thenReturn(List.of(td));
+        when(taskDependencyRepository.findDependenciesByProjectId(projectId)).thenReturn(List.of(dto));
 
         List<TaskDependencyDto> result = taskDependencyService.getAllProjectDependencies(projectId);
 
-        assertEquals(1, result.size());
-        assertEquals(taskId, result.getFirst().taskId());
-        assertEquals(depId, result.getFirst().dependencyId());
+        assertEquals(List.of(dto), result);
     }
 
     @Test
     void createTaskDependency_shouldCreateSuccessfully() {
         UUID taskId = UUID.randomUUID();
         UUID depId = UUID.randomUUID();
+        Project project = Project.builder().id(UUID.randomUUID()).build();
 
-        Task task = Task.builder().id(taskId).build();
-        Task dependency = Task.builder().id(depId).build();
+        Task task = Task.builder().id(taskId).project(project).build();
+        Task dependency = Task.builder().id(depId).project(project).build();
         TaskDependencyDto dto = new TaskDependencyDto(taskId, depId);
 
         when(taskRepository.findById(depId)).thenReturn(Optional.of(dependency));
@@ -85,6 +89,48 @@ class TaskDependencyServiceImplTest {
         TaskDependencyDto result = taskDependencyService.createTaskDependency(dto);
 
         assertEquals(dto, result);
+        InOrder inOrder = inOrder(projectVersionService, criticalPathService, taskDependencyRepository);
+        inOrder.verify(projectVersionService).lock(project.getId());
+        inOrder.verify(criticalPathService).checkDependency(project.getId(), taskId, depId);
+        inOrder.verify(taskDependencyRepository).save(any());
+        verify(criticalPathService).addDependency(project.getId(), taskId, depId);
+        verify(projectStatisticsService).applyStatisticsDelta(eq(project.getId()),
+                argThat(ProjectStatisticsDeltaDto::dependenciesChanged));
+        verify(projectVersionService).bumpVersion(project.getId());
+    }
+
+    @Test
+    void createTaskDependency_shouldNotSaveCycle() {
+        UUID taskId = UUID.randomUUID();
+        UUID depId = UUID.randomUUID();
+        Project project = Project.builder().id(UUID.randomUUID()).build();
+        TaskDependencyDto dto = new TaskDependencyDto(taskId, depId);
+
+        when(taskRepository.findById(depId)).thenReturn(Optional.of(Task.builder().id(depId).project(project).build()));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(Task.builder().id(taskId).project(project).build()));
+        doThrow(new ForbiddenException("cycle")).when(criticalPathService).checkDependency(project.getId(), taskId, depId);
+
+        assertThrows(ForbiddenException.class, () -> taskDependencyService.createTaskDependency(dto));
+
+        verify(taskDependencyRepository, never()).save(any());
+        verifyNoInteractions(projectStatisticsService);
+    }
+
+    @Test
+    void createTaskDependency_shouldRejectTasksFromDifferentProjects() {
+        UUID taskId = UUID.randomUUID();
+        UUID depId = UUID.randomUUID();
+        TaskDependencyDto dto = new TaskDependencyDto(taskId, depId);
+
+        when(taskRepository.findById(depId)).thenReturn(Optional.of(Task.builder().id(depId)
+                .project(Project.builder().id(UUID.randomUUID()).build()).build()));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(Task.builder().id(taskId)
+                .project(Project.builder().id(UUID.randomUUID()).build()).build()));
+
+        assertThrows(BadRequestException.class, () -> taskDependencyService.createTaskDependency(dto));
+
+        verify(taskDependencyRepository, never()).save(any());
+        verifyNoInteractions(criticalPathService);
     }
 
     @Test
@@ -139,5 +185,76 @@ class TaskDependencyServiceImplTest {
         taskDependencyService.deleteTaskDependency(dto);
 
         verify(taskDependencyRepository).deleteByIdPair(taskId, depId);
+        verify(projectStatisticsService, never()).applyStatisticsDelta(any(), any());
+    }
+
+    @Test
+    void createTaskDependencies_shouldInsertNewEdgesInOneBatch() {
+        UUID projectId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        TaskGraph.Edge stored = new TaskGraph.Edge(second, first);
+        TaskGraph.Edge added = new TaskGraph.Edge(third, second);
+        TaskDependencyBulkDto dto = new TaskDependencyBulkDto(projectId, List.of(
+                new TaskDependencyDto(second, first),
+                new TaskDependencyDto(third, second),
+                new TaskDependencyDto(third, second)));
+
+        when(taskRepository.countByProjectIdAndIdIn(projectId, Set.of(first, second, third))).thenReturn(3L);
+        when(criticalPathService.checkDependencies(projectId, List.of(stored, added))).thenReturn(List.of(added));
+
+        List<TaskDependencyDto> result = taskDependencyService.createTaskDependencies(dto);
+
+        assertEquals(List.of(new TaskDependencyDto(third, second)), result);
+        verify(taskBatchRepository).insertDependencies(List.of(added));
+        verify(criticalPathService).invalidate(projectId);
+        verify(projectStatisticsService).applyStatisticsDelta(eq(projectId),
+                argThat(ProjectStatisticsDeltaDto::dependenciesChanged));
+        verify(projectVersionService).bumpVersion(projectId);
+        verify(boardEventService).publish(argThat(event -> event.type() == BoardEventType.BOARD_CHANGED));
+        verifyNoInteractions(taskDependencyRepository);
+    }
+
+    @Test
+    void createTaskDependencies_shouldThrowIfTaskOutsideProject() {
+        UUID projectId = UUID.randomUUID();
+        TaskDependencyBulkDto dto = new TaskDependencyBulkDto(projectId,
+                List.of(new TaskDependencyDto(UUID.randomUUID(), UUID.randomUUID())));
+
+        when(taskRepository.countByProjectIdAndIdIn(eq(projectId), any())).thenReturn(1L);
+
+        assertThrows(NotFoundException.class, () -> taskDependencyService.createTaskDependencies(dto));
+
+        verifyNoInteractions(criticalPathService, taskBatchRepository);
+    }
+
+    @Test
+    void createTaskDependencies_shouldNotInsertCycle() {
+        UUID projectId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        TaskDependencyBulkDto dto = new TaskDependencyBulkDto(projectId, List.of(
+                new TaskDependencyDto(first, second), new TaskDependencyDto(second, first)));
+
+        when(taskRepository.countByProjectIdAndIdIn(eq(projectId), any())).thenReturn(2L);
+        when(criticalPathService.checkDependencies(eq(projectId), any())).thenThrow(new ForbiddenException("cycle"));
+
+        assertThrows(ForbiddenException.class, () -> taskDependencyService.createTaskDependencies(dto));
+
+        verifyNoInteractions(taskBatchRepository, projectStatisticsService, boardEventService);
+    }
+
+    @Test
+    void createTaskDependencies_shouldRejectEmptyAndSelfDependencies() {
+        UUID projectId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+
+        assertThrows(BadRequestException.class, () -> taskDependencyService.createTaskDependencies(
+                new TaskDependencyBulkDto(projectId, List.of())));
+        assertThrows(ForbiddenException.class, () -> taskDependencyService.createTaskDependencies(
+                new TaskDependencyBulkDto(projectId, List.of(new TaskDependencyDto(id, id)))));
+
+        verifyNoInteractions(taskRepository, taskBatchRepository);
     }
-}
\ No newline at end of file
+}
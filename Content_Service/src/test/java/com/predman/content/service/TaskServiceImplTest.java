@@ -1,41 +1,57 @@
 package com.predman.content.service;
 
+import com.predman.content.common.BoardEventType;
+import com.predman.content.common.TaskOrdering;
 import com.predman.content.common.TaskStatus;
-import com.predman.content.dto.task.SortedTasksDto;
-import com.predman.content.dto.task.TaskCreationDto;
-import com.predman.content.dto.task.TaskDto;
-import com.predman.content.dto.task.TaskUpdateDto;
+import com.predman.content.dto.project_statistics.ProjectStatisticsDeltaDto;
+import com.predman.content.dto.task.*;
+import com.predman.content.entity.Project;
 import com.predman.content.entity.Task;
+import com.predman.content.exception.BadRequestException;
 import com.predman.content.exception.ForbiddenException;
 import com.predman.content.mapper.TaskMapper;
+import com.predman.content.repository.TaskBatchRepository;
 import com.predman.content.repository.TaskRepository;
 import com.predman.content.exception.NotFoundException;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TaskServiceImplTest {
     @Mock public TaskRepository taskRepository;
+    @Mock public TaskBatchRepository taskBatchRepository;
     @Mock public TaskMapper taskMapper;
     @Mock public EntityManager entityManager;
+    @Mock public ProjectStatisticsService projectStatisticsService;
+    @Mock public CriticalPathService criticalPathService;
+    @Mock public ProjectVersionService projectVersionService;
+    @Mock public BoardEventService boardEventService;
 
     @InjectMocks
     TaskServiceImpl taskService;
 
+    private static final Project PROJECT = Project.builder().id(UUID.randomUUID()).build();
+
     @Test
     void create_withNextNotPlanned_throwsForbidden() {
         UUID someId = UUID.randomUUID();
@@ -66,7 +82,7 @@ class TaskServiceImplTest {
         when(taskRepository.findById(nextId)).thenReturn(Optional.of(nextPlanned));
         when(taskRepository.findByNext(nextPlanned)).thenReturn(List.of(prev));
 
-        Task newTask = Task.builder().id(UUID.randomUUID()).build();
+        Task newTask = Task.builder().id(UUID.randomUUID()).project(PROJECT).build();
         when(taskMapper.convertToNewTaskEntity(dto, nextPlanned)).thenReturn(newTask);
         when(taskRepository.save(prev)).thenReturn(prev);
         when(taskRepository.save(newTask)).thenReturn(newTask);
@@ -96,7 +112,7 @@ class TaskServiceImplTest {
         when(taskRepository.findById(newNext.getId())).thenReturn(Optional.of(newNext));
         when(taskRepository.findByNext(newNext)).thenReturn(List.of());
 
-        Task updated = Task.builder().id(current.getId()).build();
+        Task updated = Task.builder().id(current.getId()).project(PROJECT).build();
         when(taskMapper.convertToTaskDto(any())).thenReturn(TaskDto.builder().id(updated.getId()).build());
         when(taskRepository.save(prev)).thenReturn(prev);
         when(taskRepository.save(argThat(task -> task.getId().equals(current.getId())))).thenReturn(updated);
@@ -112,7 +128,7 @@ class TaskServiceImplTest {
     void deleteById_relinksPrev_thenDeletes() {
         UUID id = UUID.randomUUID(), prevId = UUID.randomUUID(), nextId = UUID.randomUUID();
         Task next = Task.builder().id(nextId).build();
-        Task current = Task.builder().id(id).status(TaskStatus.PLANNED).next(next).build();
+        Task current = Task.builder().id(id).status(TaskStatus.PLANNED).next(next).project(PROJECT).build();
         Task prev = Task.builder().id(prevId).next(current).status(current.getStatus()).build();
 
         when(taskRepository.findById(id)).thenReturn(Optional.of(current));
@@ -125,6 +141,14 @@ class TaskServiceImplTest {
 
         verify(taskRepository).deleteById(id);
         verify(taskRepository).save(prev);
+        verify(projectStatisticsService).applyStatisticsDelta(PROJECT.getId(), ProjectStatisticsDeltaDto.builder()
+                .remainingTasks(-1)
+                .remainingStoryPoints(0)
+                .dependenciesChanged(true)
+                .build());
+        verify(projectVersionService).bumpVersion(PROJECT.getId());
+        verify(boardEventService).publish(argThat(event -> event.type() == BoardEventType.TASK_DELETED
+                && event.taskId().equals(id) && event.projectId().equals(PROJECT.getId())));
     }
 
     @Test
@@ -144,85 +168,69 @@ class TaskServiceImplTest {
         assertThrows(NotFoundException.class, () -> taskService.getEntityById(testUUID));
     }
 
+    private static TaskDto boardTask(TaskStatus status, TaskDto next) {
+        return TaskDto.builder()
+                .id(UUID.randomUUID())
+                .status(status)
+                .next(next == null ? null : next.id())
+                .build();
+    }
+
+    private static TaskDto relink(TaskDto task, TaskDto next) {
+        return TaskDto.builder().id(task.id()).status(task.status()).next(next == null ? null : next.id()).build();
+    }
+
     @Test
     void getSortedAllByProjectId_returnsSortedTasks() {
-        when(taskMapper.convertToTaskDto(any(Task.class)))
-                .thenAnswer(invocation -> {
-                    Task task = invocation.getArgument(0);
-                    return TaskDto.builder().id(task.getId()).build();
-                });
         UUID projectId = UUID.randomUUID();
 
-        Task task1 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).build();
-        Task task2 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).build();
-        Task task3 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).build();
-        Task task4 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).build();
-        Task task5 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).build();
-        Task task6 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).build();
-        Task task7 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).build();
-        Task task8 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).build();
-        Task task9 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).build();
-
-        task1.setNext(task3);
-        task2.setNext(task5);
-        task3.setNext(task9);
-        task4.setNext(task6);
-        task5.setNext(task8);
-        task6.setNext(task7);
-
-        List<Task> testTaskList = List.of(
-            task1, task2, task3, task4, task5, task6, task7, task8, task9
-        );
+        TaskDto task9 = boardTask(TaskStatus.PLANNED, null);
+        TaskDto task3 = boardTask(TaskStatus.PLANNED, task9);
+        TaskDto task1 = boardTask(TaskStatus.PLANNED, task3);
+        TaskDto task8 = boardTask(TaskStatus.IN_PROGRESS, null);
+        TaskDto task5 = boardTask(TaskStatus.IN_PROGRESS, task8);
+        TaskDto task2 = boardTask(TaskStatus.IN_PROGRESS, task5);
+        TaskDto task7 = boardTask(TaskStatus.COMPLETED, null);
+        TaskDto task6 = boardTask(TaskStatus.COMPLETED, task7);
+        TaskDto task4 = boardTask(TaskStatus.COMPLETED, task6);
+
         SortedTasksDto sortedTestTaskList = SortedTasksDto.builder()
-                .planned(testTaskList.stream().filter((task -> task.getStatus().equals(TaskStatus.PLANNED)))
-                        .map(taskMapper::convertToTaskDto).toList())
-                .inprogress(testTaskList.stream().filter((task -> task.getStatus().equals(TaskStatus.IN_PROGRESS)))
-                        .map(taskMapper::convertToTaskDto).toList())
-                .completed(testTaskList.stream().filter((task -> task.getStatus().equals(TaskStatus.COMPLETED)))
-                        .map(taskMapper::convertToTaskDto).toList())
+                .planned(List.of(task1, task3, task9))
+                .inprogress(List.of(task2, task5, task8))
+                .completed(List.of(task4, task6, task7))
                 .build();
 
-        when(taskRepository.findByProjectId(projectId)).thenReturn(testTaskList);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(
+                List.of(task3, task8, task1, task6, task9, task2, task4, task7, task5));
 
         assertEquals(sortedTestTaskList, taskService.getSortedAllByProjectId(projectId));
+        verifyNoInteractions(taskMapper);
     }
 
     @Test
     void getSortedAllByProjectId_throwsExceptionsOnCycles() {
         UUID projectId = UUID.randomUUID();
 
-        Task task1 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).build();
-        Task task2 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).build();
-        Task task3 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).build();
-        Task task4 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).build();
-        Task task5 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).build();
-        Task task6 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).build();
-        Task task7 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).build();
-        Task task8 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).build();
-        Task task9 = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).build();
-
-        task1.setNext(task3);
-        task2.setNext(task5);
-        task3.setNext(task9);
-        task4.setNext(task6);
-        task5.setNext(task8);
-        task6.setNext(task7);
-
-        List<Task> testTaskList = List.of(
-                task1, task2, task3, task4, task5, task6, task7, task8, task9
-        );
-
-        when(taskRepository.findByProjectId(projectId)).thenReturn(testTaskList);
-
-        task7.setNext(task4);
+        TaskDto task9 = boardTask(TaskStatus.PLANNED, null);
+        TaskDto task3 = boardTask(TaskStatus.PLANNED, task9);
+        TaskDto task1 = boardTask(TaskStatus.PLANNED, task3);
+        TaskDto task8 = boardTask(TaskStatus.IN_PROGRESS, null);
+        TaskDto task5 = boardTask(TaskStatus.IN_PROGRESS, task8);
+        TaskDto task2 = boardTask(TaskStatus.IN_PROGRESS, task5);
+        TaskDto task7 = boardTask(TaskStatus.COMPLETED, null);
+        TaskDto task6 = boardTask(TaskStatus.COMPLETED, task7);
+        TaskDto task4 = boardTask(TaskStatus.COMPLETED, task6);
+
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(
+                List.of(task1, task2, task3, task4, task5, task6, relink(task7, task4), task8, task9));
         assertThrows(IllegalStateException.class, () -> taskService.getSortedAllByProjectId(projectId));
-        task7.setNext(null);
 
-        task8.setNext(task2);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(
+                List.of(task1, task2, task3, task4, task5, task6, task7, relink(task8, task2), task9));
         assertThrows(IllegalStateException.class, () -> taskService.getSortedAllByProjectId(projectId));
-        task8.setNext(null);
 
-        task9.setNext(task1);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(
+                List.of(task1, task2, task3, task4, task5, task6, task7, task8, relink(task9, task1)));
         assertThrows(IllegalStateException.class, () -> taskService.getSortedAllByProjectId(projectId));
     }
 
@@ -241,7 +249,7 @@ class TaskServiceImplTest {
                 .isNextUpdated(false)
                 .build();
 
-        Task saved = Task.builder().id(original.getId()).build();
+        Task saved = Task.builder().id(original.getId()).project(PROJECT).build();
         when(taskRepository.save(any())).thenReturn(saved);
         when(taskMapper.convertToTaskDto(saved)).thenReturn(TaskDto.builder().id(saved.getId()).build());
 
@@ -249,6 +257,46 @@ class TaskServiceImplTest {
         assertEquals(original.getId(), result.id());
     }
 
+    @Test
+    void update_toCompleted_removesTaskFromStatistics() {
+        Task original = Task.builder()
+                .id(UUID.randomUUID())
+                .project(PROJECT)
+                .status(TaskStatus.IN_PROGRESS)
+                .storyPoints(5.0)
+                .build();
+        TaskUpdateDto dto = TaskUpdateDto.builder()
+                .isNextUpdated(false)
+                .status(TaskStatus.COMPLETED)
+                .build();
+        when(taskRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskMapper.convertToTaskDto(any())).thenReturn(TaskDto.builder().id(original.getId()).build());
+
+        taskService.update(original, dto);
+
+        verify(projectStatisticsService).applyStatisticsDelta(eq(PROJECT.getId()),
+                argThat(delta -> delta.remainingTasks() == -1 && delta.remainingStoryPoints() == -5.0));
+    }
+
+    @Test
+    void update_linkedMode_statusChangeWithoutNext_appendsToTargetColumnAndDropsRank() {
+        Task original = Task.builder().id(UUID.randomUUID()).project(PROJECT)
+                .status(TaskStatus.PLANNED).boardRank("000000001").build();
+        Task tail = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).build();
+        TaskUpdateDto dto = TaskUpdateDto.builder().status(TaskStatus.IN_PROGRESS).isNextUpdated(false).build();
+        when(taskRepository.findByNext(original)).thenReturn(List.of());
+        when(taskRepository.findByNext(isNull())).thenReturn(List.of(tail));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskMapper.convertToTaskDto(any(Task.class))).thenReturn(TaskDto.builder().build());
+
+        taskService.update(original, dto);
+
+        verify(taskRepository).save(argThat(task -> task == tail && task.getNext() != null
+                && task.getNext().getId().equals(original.getId())));
+        verify(taskRepository).save(argThat(task -> task.getId().equals(original.getId())
+                && task.getBoardRank() == null && task.getNext() == null));
+    }
+
     @Test
     void update_isNextUpdatedAndPrevIsNull_doesNotThrow() {
         Task original = Task.builder()
@@ -266,7 +314,7 @@ class TaskServiceImplTest {
                 .next(newNext.getId())
                 .build();
 
-        Task saved = Task.builder().id(original.getId()).build();
+        Task saved = Task.builder().id(original.getId()).project(PROJECT).build();
         when(taskRepository.save(any())).thenReturn(saved);
         when(taskMapper.convertToTaskDto(saved)).thenReturn(TaskDto.builder().id(saved.getId()).build());
 
@@ -315,7 +363,7 @@ class TaskServiceImplTest {
                 .next(newNext.getId())
                 .build();
 
-        Task saved = Task.builder().id(original.getId()).build();
+        Task saved = Task.builder().id(original.getId()).project(PROJECT).build();
         when(taskRepository.save(any())).thenReturn(saved);
         when(taskMapper.convertToTaskDto(saved)).thenReturn(TaskDto.builder().id(saved.getId()).build());
 
@@ -346,20 +394,16 @@ class TaskServiceImplTest {
     }
 
     @Test
-    void getAllByProjectId_returnsMappedDtos() {
+    void getAllByProjectId_returnsProjectedDtosWithoutMapping() {
         UUID projectId = UUID.randomUUID();
-        Task task1 = Task.builder().id(UUID.randomUUID()).build();
-        Task task2 = Task.builder().id(UUID.randomUUID()).build();
-
-        TaskDto dto1 = TaskDto.builder().id(task1.getId()).build();
-        TaskDto dto2 = TaskDto.builder().id(task2.getId()).build();
+        TaskDto dto1 = TaskDto.builder().id(UUID.randomUUID()).build();
+        TaskDto dto2 = TaskDto.builder().id(UUID.randomUUID()).build();
 
-        when(taskRepository.findByProjectId(projectId)).thenReturn(List.of(task1, task2));
-        when(taskMapper.convertToTaskDto(task1)).thenReturn(dto1);
-        when(taskMapper.convertToTaskDto(task2)).thenReturn(dto2);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(List.of(dto1, dto2));
 
         List<TaskDto> result = taskService.getAllByProjectId(projectId);
         assertEquals(List.of(dto1, dto2), result);
+        verifyNoInteractions(taskMapper);
     }
 
     @Test
@@ -369,7 +413,7 @@ class TaskServiceImplTest {
                 .description("A task without a next")
                 .build();
 
-        Task newTask = Task.builder().id(UUID.randomUUID()).build();
+        Task newTask = Task.builder().id(UUID.randomUUID()).project(PROJECT).build();
         when(taskMapper.convertToNewTaskEntity(eq(dto), isNull())).thenReturn(newTask);
         when(taskRepository.save(newTask)).thenReturn(newTask);
         when(taskMapper.convertToTaskDto(newTask)).thenReturn(TaskDto.builder().id(newTask.getId()).build());
@@ -378,6 +422,9 @@ class TaskServiceImplTest {
 
         assertEquals(newTask.getId(), result.id());
         verify(taskRepository).save(newTask);
+        verify(projectStatisticsService).applyStatisticsDelta(eq(PROJECT.getId()),
+                argThat(delta -> delta.remainingTasks() == 1 && !delta.dependenciesChanged()));
+        verify(projectVersionService).bumpVersion(PROJECT.getId());
     }
 
     @Test
@@ -388,4 +435,284 @@ class TaskServiceImplTest {
         assertThrows(NotFoundException.class, () -> taskService.deleteById(id));
     }
 
-}
\ No newline at end of file
+    @Test
+    void create_rankMode_ranksBeforeNextWithoutTouchingNeighbours() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        UUID nextId = UUID.randomUUID();
+        TaskCreationDto dto = TaskCreationDto.builder()
+                .projectId(PROJECT.getId())
+                .name("name")
+                .next(nextId)
+                .build();
+        Task next = Task.builder().id(nextId).project(PROJECT).status(TaskStatus.PLANNED).boardRank("000000002")
+                .build();
+        Task prev = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).boardRank("000000001").build();
+        Task newTask = Task.builder().id(UUID.randomUUID()).project(PROJECT).build();
+
+        when(taskRepository.existsByProjectIdAndBoardRankIsNull(PROJECT.getId())).thenReturn(false);
+        when(taskRepository.findById(nextId)).thenReturn(Optional.of(next));
+        when(taskRepository.findFirstByProjectIdAndStatusAndBoardRankLessThanOrderByBoardRankDesc(
+                PROJECT.getId(), TaskStatus.PLANNED, "000000002")).thenReturn(Optional.of(prev));
+        when(taskMapper.convertToNewTaskEntity(eq(dto), isNull())).thenReturn(newTask);
+        when(taskRepository.save(newTask)).thenReturn(newTask);
+        when(taskMapper.convertToTaskDto(newTask)).thenReturn(TaskDto.builder().id(newTask.getId()).build());
+
+        taskService.create(dto);
+
+        assertTrue(newTask.getBoardRank().compareTo("000000001") > 0);
+        assertTrue(newTask.getBoardRank().compareTo("000000002") < 0);
+        verify(projectVersionService).lock(PROJECT.getId());
+        verify(taskRepository, never()).save(prev);
+        verify(taskRepository, never()).findByNext(any());
+    }
+
+    @Test
+    void create_rankMode_unrankedProject_rebalancesFirst() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        TaskCreationDto dto = TaskCreationDto.builder().projectId(PROJECT.getId()).name("name").build();
+        Task last = Task.builder().id(UUID.randomUUID()).status(TaskStatus.PLANNED).boardRank("000000003").build();
+        Task newTask = Task.builder().id(UUID.randomUUID()).project(PROJECT).build();
+
+        when(taskRepository.existsByProjectIdAndBoardRankIsNull(PROJECT.getId())).thenReturn(true);
+        when(taskRepository.findFirstByProjectIdAndStatusOrderByBoardRankDesc(PROJECT.getId(), TaskStatus.PLANNED))
+                .thenReturn(Optional.of(last));
+        when(taskMapper.convertToNewTaskEntity(eq(dto), isNull())).thenReturn(newTask);
+        when(taskRepository.save(newTask)).thenReturn(newTask);
+        when(taskMapper.convertToTaskDto(newTask)).thenReturn(TaskDto.builder().id(newTask.getId()).build());
+
+        taskService.create(dto);
+
+        InOrder inOrder = inOrder(projectVersionService, taskRepository);
+        inOrder.verify(projectVersionService).lock(PROJECT.getId());
+        inOrder.verify(taskRepository).seedRanksFromLinks(PROJECT.getId());
+        verify(taskRepository, never()).rebalanceRanks(any());
+        assertEquals("000000004", newTask.getBoardRank());
+    }
+
+    @Test
+    void create_rankMode_nextInOtherProject_throwsNotFound() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        UUID nextId = UUID.randomUUID();
+        TaskCreationDto dto = TaskCreationDto.builder().projectId(PROJECT.getId()).name("name").next(nextId).build();
+        Task foreign = Task.builder().id(nextId).project(Project.builder().id(UUID.randomUUID()).build())
+                .status(TaskStatus.PLANNED).boardRank("000000001").build();
+        when(taskRepository.findById(nextId)).thenReturn(Optional.of(foreign));
+
+        assertThrows(NotFoundException.class, () -> taskService.create(dto));
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void rebalanceRanks_unrankedProject_seedsFromLinksUnderLock() {
+        when(taskRepository.existsByProjectIdAndBoardRankIsNull(PROJECT.getId())).thenReturn(true);
+
+        taskService.rebalanceRanks(PROJECT.getId());
+
+        InOrder inOrder = inOrder(projectVersionService, taskRepository);
+        inOrder.verify(projectVersionService).lock(PROJECT.getId());
+        inOrder.verify(taskRepository).seedRanksFromLinks(PROJECT.getId());
+        verify(taskRepository, never()).rebalanceRanks(any());
+    }
+
+    @Test
+    void rebalanceRanks_rankedProject_respacesUnderLock() {
+        when(taskRepository.existsByProjectIdAndBoardRankIsNull(PROJECT.getId())).thenReturn(false);
+
+        taskService.rebalanceRanks(PROJECT.getId());
+
+        InOrder inOrder = inOrder(projectVersionService, taskRepository);
+        inOrder.verify(projectVersionService).lock(PROJECT.getId());
+        inOrder.verify(taskRepository).rebalanceRanks(PROJECT.getId());
+        verify(taskRepository, never()).seedRanksFromLinks(any());
+    }
+
+    @Test
+    void update_rankMode_nextInOtherColumn_throwsForbidden() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        UUID nextId = UUID.randomUUID();
+        Task original = Task.builder().id(UUID.randomUUID()).project(PROJECT)
+                .status(TaskStatus.PLANNED).boardRank("000000001").build();
+        Task next = Task.builder().id(nextId).project(PROJECT).status(TaskStatus.COMPLETED).boardRank("000000001")
+                .build();
+        TaskUpdateDto dto = TaskUpdateDto.builder().next(nextId).isNextUpdated(true).build();
+
+        when(taskRepository.existsByProjectIdAndBoardRankIsNull(PROJECT.getId())).thenReturn(false);
+        when(taskRepository.findById(nextId)).thenReturn(Optional.of(next));
+
+        assertThrows(ForbiddenException.class, () -> taskService.update(original, dto));
+    }
+
+    @Test
+    void update_rankMode_statusChangeWithoutNext_appendsToTargetColumn() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        Task original = Task.builder().id(UUID.randomUUID()).project(PROJECT)
+                .status(TaskStatus.PLANNED).storyPoints(1.0).boardRank("000000001").build();
+        Task lastInProgress = Task.builder().id(UUID.randomUUID())
+                .status(TaskStatus.IN_PROGRESS).boardRank("000000005").build();
+        TaskUpdateDto dto = TaskUpdateDto.builder().status(TaskStatus.IN_PROGRESS).isNextUpdated(false).build();
+
+        when(taskRepository.existsByProjectIdAndBoardRankIsNull(PROJECT.getId())).thenReturn(false);
+        when(taskRepository.findFirstByProjectIdAndStatusOrderByBoardRankDesc(PROJECT.getId(), TaskStatus.IN_PROGRESS))
+                .thenReturn(Optional.of(lastInProgress));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskMapper.convertToTaskDto(any(Task.class))).thenReturn(TaskDto.builder().build());
+
+        taskService.update(original, dto);
+
+        verify(taskRepository).save(argThat(task -> "000000006".equals(task.getBoardRank())
+                && task.getNext() == null && task.getStatus() == TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void deleteById_rankMode_clearsReferencesWithoutRelinking() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        Task task = Task.builder().id(UUID.randomUUID()).project(PROJECT)
+                .status(TaskStatus.PLANNED).storyPoints(2.0).build();
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+
+        taskService.deleteById(task.getId());
+
+        verify(taskRepository).clearNextReferences(task.getId());
+        verify(taskRepository).deleteById(task.getId());
+        verify(taskRepository, never()).findByNext(any());
+    }
+
+    @Test
+    void getSortedAllByProjectId_linkedMode_severalHeads_throwsInsteadOfDroppingTasks() {
+        UUID projectId = PROJECT.getId();
+        TaskDto first = boardTask(TaskStatus.PLANNED, null);
+        TaskDto second = boardTask(TaskStatus.PLANNED, null);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(List.of(first, second));
+
+        assertThrows(IllegalStateException.class, () -> taskService.getSortedAllByProjectId(projectId));
+    }
+
+    @Test
+    void getSortedAllByProjectId_rankMode_groupsByStatusAndDerivesNext() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        UUID projectId = PROJECT.getId();
+        TaskDto first = boardTask(TaskStatus.PLANNED, null);
+        TaskDto second = boardTask(TaskStatus.PLANNED, null);
+        TaskDto done = boardTask(TaskStatus.COMPLETED, null);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(List.of(first, second, done));
+
+        SortedTasksDto result = taskService.getSortedAllByProjectId(projectId);
+
+        assertEquals(List.of(first.id(), second.id()), result.planned().stream().map(TaskDto::id).toList());
+        assertEquals(second.id(), result.planned().get(0).next());
+        assertNull(result.planned().get(1).next());
+        assertTrue(result.inprogress().isEmpty());
+        assertEquals(done.id(), result.completed().get(0).id());
+    }
+
+    @Test
+    void createAll_linkedMode_insertsBatchAndRelinksOnce() {
+        UUID projectId = PROJECT.getId();
+        TaskDto second = boardTask(TaskStatus.PLANNED, null);
+        TaskDto first = boardTask(TaskStatus.PLANNED, second);
+        UUID newFirst = UUID.randomUUID(), newSecond = UUID.randomUUID();
+        TaskBulkCreationDto dto = TaskBulkCreationDto.builder()
+                .projectId(projectId)
+                .next(second.id())
+                .tasks(List.of(
+                        TaskBulkItemDto.builder().id(newFirst).name("a").storyPoints(3.0).build(),
+                        TaskBulkItemDto.builder().id(newSecond).name("b").storyPoints(2.0).build()))
+                .build();
+        when(taskRepository.countByIdIn(Set.of(newFirst, newSecond))).thenReturn(0L);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(List.of(first, second));
+
+        List<TaskDto> result = taskService.createAll(dto);
+
+        verify(taskBatchRepository).insertAll(eq(projectId), argThat(tasks -> tasks.size() == 2));
+        verify(taskBatchRepository).updateNext(Map.of(
+                first.id(), newFirst,
+                newFirst, newSecond,
+                newSecond, second.id()));
+        assertEquals(List.of(newFirst, newSecond), result.stream().map(TaskDto::id).toList());
+        assertEquals(second.id(), result.get(1).next());
+        verify(projectVersionService).bumpVersion(projectId);
+        verify(projectStatisticsService).applyStatisticsDelta(eq(projectId),
+                argThat(delta -> delta.remainingTasks() == 2 && delta.remainingStoryPoints() == 5.0));
+    }
+
+    @Test
+    void createAll_takenId_throwsForbidden() {
+        UUID taken = UUID.randomUUID();
+        TaskBulkCreationDto dto = TaskBulkCreationDto.builder()
+                .projectId(PROJECT.getId())
+                .tasks(List.of(TaskBulkItemDto.builder().id(taken).name("a").build()))
+                .build();
+        when(taskRepository.countByIdIn(Set.of(taken))).thenReturn(1L);
+
+        assertThrows(ForbiddenException.class, () -> taskService.createAll(dto));
+        verify(taskBatchRepository, never()).insertAll(any(), any());
+    }
+
+    @Test
+    void createAll_duplicateIds_throwsBadRequest() {
+        UUID id = UUID.randomUUID();
+        TaskBulkCreationDto dto = TaskBulkCreationDto.builder()
+                .projectId(PROJECT.getId())
+                .tasks(List.of(TaskBulkItemDto.builder().id(id).name("a").build(),
+                        TaskBulkItemDto.builder().id(id).name("b").build()))
+                .build();
+
+        assertThrows(BadRequestException.class, () -> taskService.createAll(dto));
+        verify(taskRepository, never()).countByIdIn(any());
+    }
+
+    @Test
+    void updateAll_rankMode_appendsMovedTaskToTargetColumn() {
+        ReflectionTestUtils.setField(taskService, "taskOrdering", TaskOrdering.RANK);
+        UUID projectId = PROJECT.getId();
+        TaskDto planned = boardTask(TaskStatus.PLANNED, null);
+        TaskDto inProgress = boardTask(TaskStatus.IN_PROGRESS, null);
+        TaskBulkUpdateDto dto = TaskBulkUpdateDto.builder()
+                .projectId(projectId)
+                .tasks(List.of(TaskBulkItemDto.builder().id(planned.id()).status(TaskStatus.IN_PROGRESS).build()))
+                .build();
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(List.of(planned, inProgress));
+        when(taskRepository.findFirstByProjectIdAndStatusOrderByBoardRankDesc(projectId, TaskStatus.IN_PROGRESS))
+                .thenReturn(Optional.of(Task.builder().boardRank("000000001").build()));
+
+        List<TaskDto> result = taskService.updateAll(dto);
+
+        verify(taskBatchRepository).updateAll(argThat(tasks -> tasks.size() == 1
+                && "000000002".equals(tasks.iterator().next().getBoardRank())));
+        verify(taskBatchRepository, never()).updateNext(any());
+        verify(taskRepository, never()).clearBoardRanks(any());
+        assertEquals(TaskStatus.IN_PROGRESS, result.getFirst().status());
+        assertNull(result.getFirst().next());
+        verify(boardEventService).publish(argThat(event -> event.type() == BoardEventType.TASK_MOVED));
+    }
+
+    @Test
+    void deleteAll_linkedMode_relinksNeighboursAndDeletes() {
+        UUID projectId = PROJECT.getId();
+        TaskDto third = boardTask(TaskStatus.PLANNED, null);
+        TaskDto second = boardTask(TaskStatus.PLANNED, third);
+        TaskDto first = boardTask(TaskStatus.PLANNED, second);
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(List.of(first, second, third));
+
+        taskService.deleteAll(TaskBulkDeletionDto.builder().projectId(projectId).taskIds(List.of(second.id())).build());
+
+        verify(taskBatchRepository).updateNext(Map.of(first.id(), third.id()));
+        verify(taskBatchRepository).deleteAll(projectId, Set.of(second.id()));
+        verify(criticalPathService).removeTask(projectId, second.id());
+        verify(projectStatisticsService).applyStatisticsDelta(eq(projectId),
+                argThat(delta -> delta.remainingTasks() == -1 && delta.dependenciesChanged()));
+    }
+
+    @Test
+    void deleteAll_unknownTask_throwsNotFound() {
+        UUID projectId = PROJECT.getId();
+        when(taskRepository.findBoardTasksByProjectId(projectId)).thenReturn(List.of());
+        TaskBulkDeletionDto dto = TaskBulkDeletionDto.builder()
+                .projectId(projectId)
+                .taskIds(List.of(UUID.randomUUID()))
+                .build();
+
+        assertThrows(NotFoundException.class, () -> taskService.deleteAll(dto));
+        verify(taskBatchRepository, never()).deleteAll(any(), any());
+    }
+}
@@ -3,6 +3,7 @@ package com.predman.content.service;
 import com.predman.content.auth.CustomUserDetails;
 import com.predman.content.auth.JwtTokenProvider;
 import com.predman.content.auth.PasswordUtil;
+import com.predman.content.auth.PrincipalCache;
 import com.predman.content.dto.user.auth.UserAuthResponseDto;
 import com.predman.content.dto.user.auth.UserLoginDto;
 import com.predman.content.dto.user.auth.UserRegisterDto;
@@ -51,6 +52,7 @@ class UserServiceImplTest {
     @Mock private EntityManager entityManager;
     @Mock private ProjectService projectService;
     @Mock private ProjectMemberService projectMemberService;
+    @Mock private PrincipalCache principalCache;
 
     private UserServiceImpl userService;
     private final String TEST_JWT = "nonex@email.em";
@@ -89,7 +91,8 @@ class UserServiceImplTest {
                 jwtTokenProvider,
                 entityManager,
                 projectService,
-                projectMemberService);
+                projectMemberService,
+                principalCache);
     }
 
     @AfterEach
@@ -240,6 +243,7 @@ class UserServiceImplTest {
         userService.deleteById(TEST_USER.getId());
         verify(projectMemberService).deleteAllByUserId(TEST_USER.getId());
         verify(userRepository).deleteById(TEST_USER.getId());
+        verify(principalCache).invalidateByUserId(TEST_USER.getId());
     }
 
     @Test
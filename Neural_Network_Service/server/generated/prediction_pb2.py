@@ -14,7 +14,7 @@ _sym_db = _symbol_database.Default()
 
 
 
-DESCRIPTOR = _descriptor_pool.Default().AddSerializedFile(b'\n\x10prediction.proto\x12\nstatistics\"=\n\x11PredictionRequest\x12\x11\n\tprojectId\x18\x01 \x01(\t\x12\x15\n\restimatedDays\x18\x02 \x01(\x05\"H\n\x0fPredictionReply\x12\x15\n\rpredictedDays\x18\x01 \x01(\x05\x12\x1e\n\x16\x65stimatedDaysCertainty\x18\x02 \x01(\x01\x32Z\n\x11StatisticsService\x12\x45\n\x07Predict\x12\x1d.statistics.PredictionRequest\x1a\x1b.statistics.PredictionReplyB\x1a\n\x16\x63om.predman.statisticsP\x01\x62\x06proto3')
+DESCRIPTOR = _descriptor_pool.Default().AddSerializedFile(b'\n\x10prediction.proto\x12\nstatistics\"q\n\x11PredictionRequest\x12\x11\n\tprojectId\x18\x01 \x01(\t\x12\x15\n\restimatedDays\x18\x02 \x01(\x05\x12\x32\n\nstatistics\x18\x03 \x03(\x0b\x32\x1e.statistics.StatisticsSnapshot\"\xff\x01\n\x12StatisticsSnapshot\x12\x16\n\x0e\x64\x61ysSinceStart\x18\x01 \x01(\x05\x12\x16\n\x0eremainingTasks\x18\x02 \x01(\x05\x12\x1c\n\x14remainingStoryPoints\x18\x03 \x01(\x01\x12\x1d\n\x15\x64\x65pendencyCoefficient\x18\x04 \x01(\x01\x12\x1a\n\x12\x63riticalPathLength\x18\x05 \x01(\x01\x12\x10\n\x08teamSize\x18\x06 \x01(\x05\x12\x15\n\rsumExperience\x18\x07 \x01(\x01\x12\x16\n\x0e\x61vailableHours\x18\x08 \x01(\x01\x12\x1f\n\x17\x65xternalRiskProbability\x18\t \x01(\x01\"\x8c\x01\n\x0fPredictionReply\x12\x15\n\rpredictedDays\x18\x01 \x01(\x05\x12\x1e\n\x16\x65stimatedDaysCertainty\x18\x02 \x01(\x01\x12\x11\n\tprojectId\x18\x03 \x01(\t\x12\n\n\x02mu\x18\x04 \x01(\x01\x12\r\n\x05sigma\x18\x05 \x01(\x01\x12\x14\n\x0cmodelVersion\x18\x06 \x01(\t\"I\n\x16PredictionBatchRequest\x12/\n\x08requests\x18\x01 \x03(\x0b\x32\x1d.statistics.PredictionRequest\"D\n\x14PredictionBatchReply\x12,\n\x07replies\x18\x01 \x03(\x0b\x32\x1b.statistics.PredictionReply2\x81\x02\n\x11StatisticsService\x12\x45\n\x07Predict\x12\x1d.statistics.PredictionRequest\x1a\x1b.statistics.PredictionReply\x12T\n\x0cPredictBatch\x12\".statistics.PredictionBatchRequest\x1a .statistics.PredictionBatchReply\x12O\n\rPredictStream\x12\x1d.statistics.PredictionRequest\x1a\x1b.statistics.PredictionReply(\x01\x30\x01\x42\x1a\n\x16\x63om.predman.statisticsP\x01\x62\x06proto3')
 
 _globals = globals()
 _builder.BuildMessageAndEnumDescriptors(DESCRIPTOR, _globals)
@@ -23,9 +23,15 @@ if _descriptor._USE_C_DESCRIPTORS == False:
   _globals['DESCRIPTOR']._options = None
   _globals['DESCRIPTOR']._serialized_options = b'\n\026com.predman.statisticsP\001'
   _globals['_PREDICTIONREQUEST']._serialized_start=32
-  _globals['_PREDICTIONREQUEST']._serialized_end=93
-  _globals['_PREDICTIONREPLY']._serialized_start=95
-  _globals['_PREDICTIONREPLY']._serialized_end=167
-  _globals['_STATISTICSSERVICE']._serialized_start=169
-  _globals['_STATISTICSSERVICE']._serialized_end=259
+  _globals['_PREDICTIONREQUEST']._serialized_end=145
+  _globals['_STATISTICSSNAPSHOT']._serialized_start=148
+  _globals['_STATISTICSSNAPSHOT']._serialized_end=403
+  _globals['_PREDICTIONREPLY']._serialized_start=406
+  _globals['_PREDICTIONREPLY']._serialized_end=546
+  _globals['_PREDICTIONBATCHREQUEST']._serialized_start=548
+  _globals['_PREDICTIONBATCHREQUEST']._serialized_end=621
+  _globals['_PREDICTIONBATCHREPLY']._serialized_start=623
+  _globals['_PREDICTIONBATCHREPLY']._serialized_end=691
+  _globals['_STATISTICSSERVICE']._serialized_start=694
+  _globals['_STATISTICSSERVICE']._serialized_end=951
 # @@protoc_insertion_point(module_scope)
@@ -19,6 +19,16 @@ class StatisticsServiceStub(object):
                 request_serializer=prediction__pb2.PredictionRequest.SerializeToString,
                 response_deserializer=prediction__pb2.PredictionReply.FromString,
                 )
+        self.PredictBatch = channel.unary_unary(
+                '/statistics.StatisticsService/PredictBatch',
+                request_serializer=prediction__pb2.PredictionBatchRequest.SerializeToString,
+                response_deserializer=prediction__pb2.PredictionBatchReply.FromString,
+                )
+        self.PredictStream = channel.stream_stream(
+                '/statistics.StatisticsService/PredictStream',
+                request_serializer=prediction__pb2.PredictionRequest.SerializeToString,
+                response_deserializer=prediction__pb2.PredictionReply.FromString,
+                )
 
 
 class StatisticsServiceServicer(object):
@@ -30,6 +40,18 @@ class StatisticsServiceServicer(object):
         context.set_details('Method not implemented!')
         raise NotImplementedError('Method not implemented!')
 
+    def PredictBatch(self, request, context):
+        """Missing associated documentation comment in .proto file."""
+        context.set_code(grpc.StatusCode.UNIMPLEMENTED)
+        context.set_details('Method not implemented!')
+        raise NotImplementedError('Method not implemented!')
+
+    def PredictStream(self, request_iterator, context):
+        """Missing associated documentation comment in .proto file."""
+        context.set_code(grpc.StatusCode.UNIMPLEMENTED)
+        context.set_details('Method not implemented!')
+        raise NotImplementedError('Method not implemented!')
+
 
 def add_StatisticsServiceServicer_to_server(servicer, server):
     rpc_method_handlers = {
@@ -38,6 +60,16 @@ def add_StatisticsServiceServicer_to_server(servicer, server):
                     request_deserializer=prediction__pb2.PredictionRequest.FromString,
                     response_serializer=prediction__pb2.PredictionReply.SerializeToString,
             ),
+            'PredictBatch': grpc.unary_unary_rpc_method_handler(
+                    servicer.PredictBatch,
+                    request_deserializer=prediction__pb2.PredictionBatchRequest.FromString,
+                    response_serializer=prediction__pb2.PredictionBatchReply.SerializeToString,
+            ),
+            'PredictStream': grpc.stream_stream_rpc_method_handler(
+                    servicer.PredictStream,
+                    request_deserializer=prediction__pb2.PredictionRequest.FromString,
+                    response_serializer=prediction__pb2.PredictionReply.SerializeToString,
+            ),
     }
     generic_handler = grpc.method_handlers_generic_handler(
             'statistics.StatisticsService', rpc_method_handlers)
@@ -64,3 +96,37 @@ class StatisticsService(object):
             prediction__pb2.PredictionReply.FromString,
             options, channel_credentials,
             insecure, call_credentials, compression, wait_for_ready, timeout, metadata)
+
+    @staticmethod
+    def PredictBatch(request,
+            target,
+            options=(),
+            channel_credentials=None,
+            call_credentials=None,
+            insecure=False,
+            compression=None,
+            wait_for_ready=None,
+            timeout=None,
+            metadata=None):
+        return grpc.experimental.unary_unary(request, target, '/statistics.StatisticsService/PredictBatch',
+            prediction__pb2.PredictionBatchRequest.SerializeToString,
+            prediction__pb2.PredictionBatchReply.FromString,
+            options, channel_credentials,
+            insecure, call_credentials, compression, wait_for_ready, timeout, metadata)
+
+    @staticmethod
+    def PredictStream(request_iterator,
+            target,
+            options=(),
+            channel_credentials=None,
+            call_credentials=None,
+            insecure=False,
+            compression=None,
+            wait_for_ready=None,
+            timeout=None,
+            metadata=None):
+        return grpc.experimental.stream_stream(request_iterator, target, '/statistics.StatisticsService/PredictStream',
+            prediction__pb2.PredictionRequest.SerializeToString,
+            prediction__pb2.PredictionReply.FromString,
+            options, channel_credentials,
+            insecure, call_credentials, compression, wait_for_ready, timeout, metadata)
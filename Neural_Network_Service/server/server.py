@@ -14,6 +14,26 @@ DATABASE_PASSWORD = os.getenv("DATABASE_PASSWORD", "admin")
 DATABASE_HOST     = os.getenv("DATABASE_HOST", "localhost")
 DATABASE_PORT     = os.getenv("DATABASE_PORT", "5430")
 DATABASE_NAME     = os.getenv("DATABASE_NAME", "predman-db")
+MODEL_VERSION     = os.getenv("MODEL_VERSION", "tft-best_model")
+
+
+FEATURE_COLUMNS = (
+    "days_since_start", "remaining_tasks", "remaining_story_points",
+    "dependency_coefficient", "critical_path_length", "team_size", "sum_experience",
+    "available_hours", "external_risk_probability",
+)
+
+SNAPSHOT_FIELDS = (
+    "daysSinceStart", "remainingTasks", "remainingStoryPoints",
+    "dependencyCoefficient", "criticalPathLength", "teamSize", "sumExperience",
+    "availableHours", "externalRiskProbability",
+)
+
+
+def snapshot_rows(request):
+    """Turns the statistics sent with the request into rows shaped like the database ones."""
+    return [{column: getattr(snapshot, field) for column, field in zip(FEATURE_COLUMNS, SNAPSHOT_FIELDS)}
+            for snapshot in request.statistics]
 
 
 class StatisticsServicer(prediction_pb2_grpc.StatisticsServiceServicer):
@@ -22,28 +42,73 @@ class StatisticsServicer(prediction_pb2_grpc.StatisticsServiceServicer):
         self.model = model
 
     async def Predict(self, request, context):
+        if request.statistics:
+            return self._predict_many([request], [snapshot_rows(request)])[0]
+
         async with self.pool.acquire() as conn:
             rows = await conn.fetch(
-                "SELECT days_since_start, remaining_tasks, remaining_story_points,"
-                " dependency_coefficient, critical_path_length, team_size, sum_experience,"
-                " available_hours, external_risk_probability"
-                " FROM project_statistics WHERE project_id = $1",
+                "SELECT " + ", ".join(FEATURE_COLUMNS) +
+                " FROM project_statistics WHERE project_id = $1 ORDER BY saved_at",
                 request.projectId,
             )
 
-        data = np.array([[row['days_since_start'], row['remaining_tasks'],
-                          row['remaining_story_points'], row['dependency_coefficient'],
-                          row['critical_path_length'], row['team_size'], row['sum_experience'],
-                          row['available_hours'], row['external_risk_probability']
-                          ] for row in rows], dtype=np.float32)
-        data = np.expand_dims(data, axis=1)
-        predicted_days, sigma = self.model.predict(data)[0]
-        pdf_v = norm.pdf(request.estimatedDays, loc=predicted_days, scale=sigma)
-        predicted_days = round(predicted_days)
-        return prediction_pb2.PredictionReply(
-            predictedDays=int(predicted_days),
-            estimatedDaysCertainty=float(pdf_v),
+        return self._predict_many([request], [rows])[0]
+
+    async def PredictBatch(self, request, context):
+        # Only requests sent without their statistics fall back to the database.
+        project_ids = list({r.projectId for r in request.requests if not r.statistics})
+        rows_by_project = {}
+        if project_ids:
+            async with self.pool.acquire() as conn:
+                rows = await conn.fetch(
+                    "SELECT project_id, " + ", ".join(FEATURE_COLUMNS) +
+                    " FROM project_statistics WHERE project_id = ANY($1::uuid[]) ORDER BY saved_at",
+                    project_ids,
+                )
+            for row in rows:
+                rows_by_project.setdefault(str(row['project_id']), []).append(row)
+
+        replies = self._predict_many(
+            request.requests,
+            [snapshot_rows(r) if r.statistics else rows_by_project.get(r.projectId, [])
+             for r in request.requests],
         )
+        return prediction_pb2.PredictionBatchReply(replies=replies)
+
+    async def PredictStream(self, request_iterator, context):
+        async for request in request_iterator:
+            yield await self.Predict(request, context)
+
+    def _predict_many(self, requests, rows_per_request):
+        """Runs a single model inference over the statistics of every request.
+
+        Each request contributes a block of rows; its prediction is taken from the
+        first row of its block, exactly as the unary Predict does.
+        """
+        blocks = [np.array([[row[column] for column in FEATURE_COLUMNS] for row in rows],
+                           dtype=np.float32).reshape(-1, len(FEATURE_COLUMNS))
+                  for rows in rows_per_request]
+        offsets = np.cumsum([0] + [len(block) for block in blocks])
+        data = np.expand_dims(np.concatenate(blocks), axis=1)
+        outputs = self.model.predict(data) if len(data) else []
+
+        replies = []
+        for request, block, offset in zip(requests, blocks, offsets):
+            if len(block) == 0:
+                replies.append(prediction_pb2.PredictionReply(projectId=request.projectId,
+                                                              modelVersion=MODEL_VERSION))
+                continue
+            predicted_days, sigma = outputs[offset]
+            pdf_v = norm.pdf(request.estimatedDays, loc=predicted_days, scale=sigma)
+            replies.append(prediction_pb2.PredictionReply(
+                predictedDays=int(round(predicted_days)),
+                estimatedDaysCertainty=float(pdf_v),
+                projectId=request.projectId,
+                mu=float(predicted_days),
+                sigma=float(sigma),
+                modelVersion=MODEL_VERSION,
+            ))
+        return replies
 
 
 async def serve():
@@ -58,7 +123,11 @@ async def serve():
     model = initialize_model("/app/neural_network/checkpoints/best_model.weights.h5")
     # ─────────────────────────────────────────────────────────────────────────
 
-    server = grpc.aio.server()
+    # Content_Service pings every 30s while a call is open; allow it instead of answering with GOAWAY.
+    server = grpc.aio.server(options=[
+        ("grpc.http2.min_recv_ping_interval_without_data_ms", 10000),
+        ("grpc.http2.max_ping_strikes", 0),
+    ])
     servicer = StatisticsServicer(pool, model)
     prediction_pb2_grpc.add_StatisticsServiceServicer_to_server(servicer, server)
     server.add_insecure_port('[::]:50051')
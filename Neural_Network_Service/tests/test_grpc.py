@@ -10,7 +10,7 @@ import asyncio
 import numpy as np
 from unittest.mock import AsyncMock, MagicMock
 from server.generated import prediction_pb2
-from server.server import StatisticsServicer
+from server.server import StatisticsServicer, MODEL_VERSION
 from contextlib import asynccontextmanager
 
 
@@ -55,4 +55,181 @@ async def test_predict_returns_expected_response():
     # Assert
     assert isinstance(response, prediction_pb2.PredictionReply)
     assert response.predictedDays == 42
-    assert 0.19 < response.estimatedDaysCertainty < 0.21
\ No newline at end of file
+    assert 0.19 < response.estimatedDaysCertainty < 0.21
+
+@pytest.mark.asyncio
+async def test_predict_batch_runs_single_inference_in_request_order():
+    row = {
+        'days_since_start': 10,
+        'remaining_tasks': 5,
+        'remaining_story_points': 13,
+        'dependency_coefficient': 0.4,
+        'critical_path_length': 3,
+        'team_size': 4,
+        'sum_experience': 8,
+        'available_hours': 120,
+        'external_risk_probability': 0.2,
+    }
+    dummy_conn = AsyncMock()
+    dummy_conn.fetch.return_value = [
+        dict(row, project_id='project-b'),
+        dict(row, project_id='project-a'),
+        dict(row, project_id='project-a'),
+    ]
+
+    @asynccontextmanager
+    async def mock_acquire():
+        yield dummy_conn
+
+    dummy_pool = MagicMock()
+    dummy_pool.acquire = MagicMock(side_effect=mock_acquire)
+
+    dummy_model = MagicMock()
+    dummy_model.predict.return_value = [(42.0, 2.0), (42.0, 2.0), (30.0, 2.0)]
+
+    servicer = StatisticsServicer(dummy_pool, dummy_model)
+
+    request = prediction_pb2.PredictionBatchRequest(requests=[
+        prediction_pb2.PredictionRequest(projectId="project-a", estimatedDays=42),
+        prediction_pb2.PredictionRequest(projectId="project-b", estimatedDays=42),
+    ])
+
+    response = await servicer.PredictBatch(request, MagicMock())
+
+    dummy_model.predict.assert_called_once()
+    assert [reply.projectId for reply in response.replies] == ["project-a", "project-b"]
+    assert response.replies[0].predictedDays == 42
+    assert response.replies[1].predictedDays == 30
+
+def snapshot(days_since_start, remaining_tasks):
+    return prediction_pb2.StatisticsSnapshot(
+        daysSinceStart=days_since_start,
+        remainingTasks=remaining_tasks,
+        remainingStoryPoints=13.0,
+        dependencyCoefficient=0.4,
+        criticalPathLength=3.0,
+        teamSize=4,
+        sumExperience=8.0,
+        availableHours=120.0,
+        externalRiskProbability=0.2,
+    )
+
+@pytest.mark.asyncio
+async def test_predict_with_statistics_skips_database():
+    dummy_pool = MagicMock()
+
+    dummy_model = MagicMock()
+    dummy_model.predict.return_value = [(42.0, 2.0), (40.0, 2.0)]
+
+    servicer = StatisticsServicer(dummy_pool, dummy_model)
+
+    request = prediction_pb2.PredictionRequest(
+        projectId="project-123",
+        estimatedDays=42,
+        statistics=[snapshot(0, 5), snapshot(1, 4)],
+    )
+
+    response = await servicer.Predict(request, MagicMock())
+
+    dummy_pool.acquire.assert_not_called()
+    data = dummy_model.predict.call_args[0][0]
+    assert data.shape == (2, 1, 9)
+    np.testing.assert_allclose(data[:, 0, :], [
+        [0, 5, 13.0, 0.4, 3.0, 4, 8.0, 120.0, 0.2],
+        [1, 4, 13.0, 0.4, 3.0, 4, 8.0, 120.0, 0.2],
+    ], rtol=1e-6)
+    assert response.predictedDays == 42
+
+@pytest.mark.asyncio
+async def test_predict_batch_reads_database_only_for_requests_without_statistics():
+    dummy_conn = AsyncMock()
+    dummy_conn.fetch.return_value = [{
+        'project_id': 'project-b',
+        'days_since_start': 10,
+        'remaining_tasks': 5,
+        'remaining_story_points': 13,
+        'dependency_coefficient': 0.4,
+        'critical_path_length': 3,
+        'team_size': 4,
+        'sum_experience': 8,
+        'available_hours': 120,
+        'external_risk_probability': 0.2,
+    }]
+
+    @asynccontextmanager
+    async def mock_acquire():
+        yield dummy_conn
+
+    dummy_pool = MagicMock()
+    dummy_pool.acquire = MagicMock(side_effect=mock_acquire)
+
+    dummy_model = MagicMock()
+    dummy_model.predict.return_value = [(30.0, 2.0), (42.0, 2.0)]
+
+    servicer = StatisticsServicer(dummy_pool, dummy_model)
+
+    request = prediction_pb2.PredictionBatchRequest(requests=[
+        prediction_pb2.PredictionRequest(projectId="project-a", estimatedDays=42, statistics=[snapshot(3, 7)]),
+        prediction_pb2.PredictionRequest(projectId="project-b", estimatedDays=42),
+    ])
+
+    response = await servicer.PredictBatch(request, MagicMock())
+
+    assert dummy_conn.fetch.call_args[0][1] == ["project-b"]
+    data = dummy_model.predict.call_args[0][0]
+    assert data[0, 0, 0] == 3
+    assert data[0, 0, 1] == 7
+    assert data[1, 0, 0] == 10
+    assert [reply.predictedDays for reply in response.replies] == [30, 42]
+
+@pytest.mark.asyncio
+async def test_predict_batch_with_statistics_never_acquires_pool():
+    dummy_pool = MagicMock()
+
+    dummy_model = MagicMock()
+    dummy_model.predict.return_value = [(42.0, 2.0)]
+
+    servicer = StatisticsServicer(dummy_pool, dummy_model)
+
+    request = prediction_pb2.PredictionBatchRequest(requests=[
+        prediction_pb2.PredictionRequest(projectId="project-a", estimatedDays=42, statistics=[snapshot(0, 5)]),
+    ])
+
+    response = await servicer.PredictBatch(request, MagicMock())
+
+    dummy_pool.acquire.assert_not_called()
+    assert response.replies[0].projectId == "project-a"
+
+@pytest.mark.asyncio
+async def test_predict_batch_replies_carry_distribution_and_model_version():
+    dummy_conn = AsyncMock()
+    dummy_conn.fetch.return_value = []
+
+    @asynccontextmanager
+    async def mock_acquire():
+        yield dummy_conn
+
+    dummy_pool = MagicMock()
+    dummy_pool.acquire = MagicMock(side_effect=mock_acquire)
+
+    dummy_model = MagicMock()
+    dummy_model.predict.return_value = [(41.6, 2.5)]
+
+    servicer = StatisticsServicer(dummy_pool, dummy_model)
+
+    request = prediction_pb2.PredictionBatchRequest(requests=[
+        prediction_pb2.PredictionRequest(projectId="project-a", estimatedDays=42, statistics=[snapshot(0, 5)]),
+        prediction_pb2.PredictionRequest(projectId="project-b", estimatedDays=42),
+    ])
+
+    response = await servicer.PredictBatch(request, MagicMock())
+
+    predicted, empty = response.replies
+    assert predicted.predictedDays == 42
+    assert predicted.mu == pytest.approx(41.6)
+    assert predicted.sigma == pytest.approx(2.5)
+    assert predicted.modelVersion == MODEL_VERSION
+    assert empty.projectId == "project-b"
+    assert empty.modelVersion == MODEL_VERSION
+    assert empty.mu == 0.0
+    assert empty.sigma == 0.0